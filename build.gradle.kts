@@ -7,6 +7,7 @@ plugins {
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.0.15.RELEASE"
     checkstyle
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 java {
@@ -98,6 +99,14 @@ tasks.withType<ShadowJar> {
     })
 }
 
+jmh {
+    // run with ./gradlew jmh -PjmhIncludes=<benchmark class>
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
 checkstyle {
     toolVersion = "9.1"
     configDirectory.set(File("checkstyle"))
@@ -0,0 +1,129 @@
+package net.discordjug.javabot.systems.moderation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link DomainBlocklist} with the previous implementation of {@link AutoMod#hasSuspiciousLink},
+ * which scanned every URL with a regular expression and looked up its host in a {@link List}.
+ * <p>
+ * The blocklist is the bundled {@code spamLinks.txt}, the corpus is a deterministic mix of chat messages,
+ * code snippets, messages with legitimate links and messages with (sub)domains of blocked hosts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SuspiciousLinkBenchmark {
+	private static final Pattern URL_PATTERN = Pattern.compile(
+			"(?:^|[\\W])((ht|f)tp(s?)://|www\\.)"
+					+ "(([\\w\\-]+\\.)+?([\\w\\-.~]+/?)*"
+					+ "[\\p{Alnum}.,%_=?&#\\-+()\\[\\]*$~@!:/{};']*)",
+			Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
+	private static final String[] CHAT = {
+			"hey, does anyone know why my for loop never terminates?",
+			"I tried that but it still throws a NullPointerException at line 42",
+			"thanks a lot, that fixed it!",
+			"you should use a HashMap<String, List<Integer>> for that",
+			"```java\npublic static void main(String[] args) {\n\tSystem.out.println(\"Hello World\");\n}\n```",
+	};
+	private static final String[] LEGIT_LINKS = {
+			"https://docs.oracle.com/en/java/javase/17/docs/api/java.base/java/util/HashMap.html",
+			"https://github.com/Java-Discord/JavaBot/blob/main/README.md",
+			"https://stackoverflow.com/questions/218384/what-is-a-nullpointerexception-and-how-do-i-fix-it",
+			"http://www.example.com/path?query=1#fragment",
+	};
+
+	private List<String> spamUrls;
+	private DomainBlocklist blocklist;
+	private String[] messages;
+
+	/**
+	 * Loads the blocklist and generates the message corpus.
+	 */
+	@Setup
+	public void setup() {
+		try (InputStream is = getClass().getResourceAsStream("/spamLinks.txt")) {
+			spamUrls = List.of(new String(is.readAllBytes(), StandardCharsets.UTF_8).split("\n"));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		blocklist = DomainBlocklist.of(spamUrls);
+		Random random = new Random(0);
+		List<String> corpus = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			String text = CHAT[random.nextInt(CHAT.length)];
+			int kind = random.nextInt(10);
+			if (kind < 3) {
+				text += " see " + LEGIT_LINKS[random.nextInt(LEGIT_LINKS.length)];
+			} else if (kind == 3) {
+				String domain = spamUrls.get(random.nextInt(spamUrls.size()));
+				text += " free nitro: https://" + (random.nextBoolean() ? "gift." : "") + domain + "/claim";
+			}
+			corpus.add(text);
+		}
+		messages = corpus.toArray(String[]::new);
+	}
+
+	/**
+	 * Benchmarks the previous implementation.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void listAndRegex(Blackhole blackhole) {
+		for (String message : messages) {
+			blackhole.consume(legacyHasSuspiciousLink(message));
+		}
+	}
+
+	/**
+	 * Benchmarks {@link MessageContentScanner#scan(String)} followed by {@link DomainBlocklist#isAnyBlocked}.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void domainBlocklist(Blackhole blackhole) {
+		for (String message : messages) {
+			blackhole.consume(blocklist.isAnyBlocked(MessageContentScanner.scan(message).linkHosts()));
+		}
+	}
+
+	private boolean legacyHasSuspiciousLink(String messageRaw) {
+		Matcher urlMatcher = URL_PATTERN.matcher(messageRaw);
+		if (messageRaw.contains("http://") || messageRaw.contains("https://")) {
+			while (urlMatcher.find()) {
+				String url = urlMatcher.group(0).trim();
+				if (url.startsWith("http://") || url.startsWith("https://")) {
+					try {
+						URI uri = new URI(url);
+						if (uri.getHost() != null && spamUrls.contains(uri.getHost())) {
+							return true;
+						}
+					} catch (URISyntaxException e) {
+						// ignored, like unparseable URLs in the previous implementation
+					}
+				}
+			}
+		}
+		return false;
+	}
+}
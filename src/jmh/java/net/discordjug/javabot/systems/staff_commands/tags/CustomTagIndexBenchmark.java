@@ -0,0 +1,184 @@
+package net.discordjug.javabot.systems.staff_commands.tags;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.discordjug.javabot.systems.staff_commands.tags.model.CustomTag;
+
+/**
+ * Compares {@link CustomTagIndex} with the previous implementation of {@link CustomTagManager},
+ * which scanned a {@link Set} of all tags of a guild for lookups, autocompletion and search.
+ * <p>
+ * The guild has 10,000 tags with deterministic names and responses made of common words.
+ * Every benchmark runs the same 100 lookups, autocompletions or searches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomTagIndexBenchmark {
+	private static final int TAG_COUNT = 10_000;
+	private static final int AUTOCOMPLETE_LIMIT = 25;
+	private static final String[] WORDS = {
+			"java", "stream", "record", "thread", "lambda", "generic", "spring", "maven", "gradle", "exception",
+			"interface", "collection", "optional", "string", "array", "hashmap", "switch", "pattern", "module", "jvm",
+	};
+
+	private Set<CustomTag> tagSet;
+	private CustomTagIndex index;
+	private String[] names;
+	private String[] prefixes;
+	private String[] queries;
+	private CustomTag[] originals;
+	private CustomTag[] edits;
+
+	/**
+	 * Generates the tags and the queries.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		List<CustomTag> tags = new ArrayList<>(TAG_COUNT);
+		for (int i = 0; i < TAG_COUNT; i++) {
+			tags.add(createTag(i, WORDS[random.nextInt(WORDS.length)] + "-" + WORDS[random.nextInt(WORDS.length)] + "-" + i, createResponse(random)));
+		}
+		tagSet = new HashSet<>(tags);
+		index = new CustomTagIndex(tags);
+		names = new String[100];
+		prefixes = new String[100];
+		queries = new String[100];
+		originals = new CustomTag[100];
+		edits = new CustomTag[100];
+		for (int i = 0; i < 100; i++) {
+			CustomTag tag = tags.get(random.nextInt(TAG_COUNT));
+			names[i] = tag.getName();
+			prefixes[i] = tag.getName().substring(0, 1 + random.nextInt(tag.getName().length() - 1));
+			queries[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+			originals[i] = tag;
+			edits[i] = createTag(tag.getId(), tag.getName(), createResponse(random));
+		}
+	}
+
+	private static CustomTag createTag(long id, String name, String response) {
+		CustomTag tag = new CustomTag();
+		tag.setId(id);
+		tag.setName(name);
+		tag.setResponse(response);
+		return tag;
+	}
+
+	private static String createResponse(Random random) {
+		StringBuilder response = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			response.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return response.toString();
+	}
+
+	/**
+	 * Benchmarks the previous lookup by name.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void setGetByName(Blackhole blackhole) {
+		for (String name : names) {
+			blackhole.consume(tagSet.stream().filter(c -> c.getName().equalsIgnoreCase(name)).findFirst());
+		}
+	}
+
+	/**
+	 * Benchmarks {@link CustomTagIndex#getByName(String)}.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void indexGetByName(Blackhole blackhole) {
+		for (String name : names) {
+			blackhole.consume(index.getByName(name));
+		}
+	}
+
+	/**
+	 * Benchmarks the previous autocompletion.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void setAutocomplete(Blackhole blackhole) {
+		for (String prefix : prefixes) {
+			List<CustomTag> choices = new ArrayList<>(AUTOCOMPLETE_LIMIT);
+			for (CustomTag tag : tagSet) {
+				if (choices.size() < AUTOCOMPLETE_LIMIT && tag.getName().toLowerCase().contains(prefix)) {
+					choices.add(tag);
+				}
+			}
+			blackhole.consume(choices);
+		}
+	}
+
+	/**
+	 * Benchmarks {@link CustomTagIndex#autocomplete(String, int)}.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void indexAutocomplete(Blackhole blackhole) {
+		for (String prefix : prefixes) {
+			blackhole.consume(index.autocomplete(prefix, AUTOCOMPLETE_LIMIT));
+		}
+	}
+
+	/**
+	 * Benchmarks searching by scanning every tag, like the previous {@code LIKE '%query%'} query.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void setSearch(Blackhole blackhole) {
+		for (String query : queries) {
+			blackhole.consume(tagSet.stream()
+					.filter(tag -> tag.getName().toLowerCase(Locale.ROOT).contains(query) || tag.getResponse().toLowerCase(Locale.ROOT).contains(query))
+					.sorted(Comparator.comparing(CustomTag::getName))
+					.toList());
+		}
+	}
+
+	/**
+	 * Benchmarks {@link CustomTagIndex#search(String)}.
+	 *
+	 * @param blackhole Consumes the results.
+	 */
+	@Benchmark
+	public void indexSearch(Blackhole blackhole) {
+		for (String query : queries) {
+			blackhole.consume(index.search(query));
+		}
+	}
+
+	/**
+	 * Benchmarks editing the responses of tags with {@link CustomTagIndex#put(CustomTag)}, and changing them back.
+	 * The previous implementation reloaded all tags of the guild from the database instead.
+	 */
+	@Benchmark
+	public void indexEdit() {
+		for (int i = 0; i < edits.length; i++) {
+			index.put(edits[i]);
+			index.put(originals[i]);
+		}
+	}
+}
@@ -129,6 +129,15 @@ public class BotConfig {
 		return this.systemsConfig;
 	}
 
+	/**
+	 * Gets the directory containing the configuration files.
+	 *
+	 * @return The path to the configuration directory.
+	 */
+	public Path getDir() {
+		return this.dir;
+	}
+
 	/**
 	 * Flushes all configuration to the disk.
 	 */
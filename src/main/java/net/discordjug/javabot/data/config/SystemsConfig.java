@@ -36,6 +36,19 @@ public class SystemsConfig {
 	 */
 	private int asyncPoolSize = 4;
 
+	/**
+	 * Whether stored messages should be loaded into the message cache in the
+	 * background instead of delaying the startup until all of them are loaded.
+	 */
+	private boolean backgroundMessageCacheWarmUp = true;
+
+	/**
+	 * Whether the contents of cached messages should be stored UTF-8 encoded
+	 * in off-heap memory and only decoded when they are needed. This allows
+	 * caching far more messages without raising the heap limit.
+	 */
+	private boolean offHeapMessageCache = false;
+
 	/**
 	 * Configuration for the Hikari connection pool that's used for the bot's
 	 * SQL data source.
@@ -24,7 +24,7 @@ public class MessageCacheConfig extends GuildConfigItem {
 	private long messageCacheLogChannelId = 0;
 
 	/**
-	 * The amount of messages after which the DB is synchronized with the local cache.
+	 * The amount of changed messages after which the DB is synchronized with the local cache.
 	 */
 	private int messageSynchronizationInterval = 50;
 
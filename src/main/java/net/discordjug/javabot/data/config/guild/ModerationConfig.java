@@ -93,6 +93,18 @@ public class ModerationConfig extends GuildConfigItem {
 	 */
 	private List<String> automodInviteExcludes = List.of();
 
+	/**
+	 * The amount of messages a user may send within {@link #automodSpamIntervalSeconds}
+	 * (in addition to the current one) before AutoMod considers it spam.
+	 */
+	private int automodSpamMessageCount = 5;
+
+	/**
+	 * The interval (in seconds) in which messages are counted for spam detection.
+	 * This should not be longer than a few minutes.
+	 */
+	private int automodSpamIntervalSeconds = 6;
+
 	/**
 	 * Text that is sent to users when they're banned.
 	 */
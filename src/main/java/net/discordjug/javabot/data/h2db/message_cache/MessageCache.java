@@ -1,11 +1,12 @@
 package net.discordjug.javabot.data.h2db.message_cache;
 
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.discordjug.javabot.data.config.BotConfig;
 import net.discordjug.javabot.data.config.guild.MessageCacheConfig;
 import net.discordjug.javabot.data.h2db.message_cache.dao.MessageCacheRepository;
 import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessage;
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
+import net.discordjug.javabot.systems.notification.NotificationService;
 import net.discordjug.javabot.systems.user_commands.IdCalculatorCommand;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.Responses;
@@ -31,11 +32,18 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 
 /**
  * Listens for Incoming Messages and stores them in the Message Cache.
@@ -44,51 +52,186 @@ import org.springframework.stereotype.Service;
 @Service
 public class MessageCache {
 	/**
-	 * A memory-cache (list) of sent Messages, wrapped to a {@link CachedMessage} object.
+	 * The default capacity of the in-memory cache, used until a guild's {@link MessageCacheConfig} is known.
 	 */
-	public List<CachedMessage> cache = new ArrayList<>();
+	private static final int DEFAULT_CAPACITY = 1000;
 	/**
-	 * Amount of messages since the last synchronization.
+	 * The interval (in seconds) in which pending changes are written to the database,
+	 * regardless of {@link MessageCacheConfig#getMessageSynchronizationInterval()}.
+	 */
+	private static final int SYNCHRONIZATION_DELAY = 60;
+	/**
+	 * The amount of stored messages which are read from the DB and added to the in-memory cache at once.
+	 */
+	private static final int WARM_UP_CHUNK_SIZE = 500;
+
+	/**
+	 * A memory-cache of sent Messages, wrapped to a {@link CachedMessageView} object.
+	 * Messages are decoded to a {@link CachedMessage} before they are handed out.
+	 */
+	private final MessageRingBuffer cache;
+	/**
+	 * Changes to the memory-cache since the last synchronization.
 	 * <p>
-	 * If a certain threshold is reached, messages will be synchronized to reduce the chances of loosing
+	 * If a certain threshold is reached, changes will be synchronized to reduce the chances of loosing
 	 * messages during an unexpected shutdown.
 	 */
-	@Getter
-	private int messageCount = 0;
+	private final MessageCacheJournal journal = new MessageCacheJournal();
+	private final AtomicBoolean synchronizationQueued = new AtomicBoolean();
+	/**
+	 * Whether stored messages are still being loaded from the DB.
+	 */
+	private volatile boolean warmingUp = false;
+	/**
+	 * IDs of messages which have been removed while stored messages are still being loaded.
+	 * These must not be loaded into the in-memory cache anymore.
+	 */
+	private final Set<Long> removedDuringWarmUp = ConcurrentHashMap.newKeySet();
+	private final Object synchronizationLock = new Object();
+
+	/**
+	 * Off-heap storage for message contents, or {@code null} if contents are kept on the heap.
+	 */
+	private final MessageContentArena arena;
 
 	private final ExecutorService asyncPool;
 	private final BotConfig botConfig;
 	private final MessageCacheRepository cacheRepository;
+	private final NotificationService notificationService;
 
 	/**
-	 * Creates a new messages & loads messages from the DB into a List.
+	 * Creates a new messages & loads messages from the DB into the in-memory cache.
+	 * <p>
+	 * Depending on {@link net.discordjug.javabot.data.config.SystemsConfig#isBackgroundMessageCacheWarmUp()},
+	 * stored messages are either loaded before this constructor returns or in the background.
 	 * @param botConfig The main configuration of the bot
-	 * @param cacheRepository Dao class that represents the QOTW_POINTS SQL Table.
+	 * @param cacheRepository Dao class that represents the MESSAGE_CACHE SQL Table.
 	 * @param asyncPool The main thread pool for asynchronous operations
+	 * @param notificationService The {@link NotificationService} used for sending logs
 	 */
-	public MessageCache(BotConfig botConfig, MessageCacheRepository cacheRepository, ExecutorService asyncPool) {
+	public MessageCache(BotConfig botConfig, MessageCacheRepository cacheRepository, ScheduledExecutorService asyncPool, NotificationService notificationService) {
 		this.asyncPool = asyncPool;
 		this.botConfig = botConfig;
 		this.cacheRepository = cacheRepository;
+		this.notificationService = notificationService;
+		this.arena = botConfig.getSystems().isOffHeapMessageCache() ? new MessageContentArena() : null;
+		int stored = 0;
+		try {
+			stored = cacheRepository.count();
+		} catch (DataAccessException e) {
+			ExceptionLogger.capture(e, getClass().getSimpleName());
+			log.error("Something went wrong during retrieval of stored messages.");
+		}
+		cache = new MessageRingBuffer(Math.max(DEFAULT_CAPACITY, stored));
+		if (stored > 0) {
+			warmingUp = true;
+			if (botConfig.getSystems().isBackgroundMessageCacheWarmUp()) {
+				asyncPool.execute(this::warmUp);
+			} else {
+				warmUp();
+			}
+		}
+		asyncPool.scheduleWithFixedDelay(this::flush, SYNCHRONIZATION_DELAY, SYNCHRONIZATION_DELAY, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Streams all stored messages from the DB into the in-memory cache, newest first and in chunks
+	 * of {@link #WARM_UP_CHUNK_SIZE} messages.
+	 * <p>
+	 * Stored messages are placed behind the messages which have been cached in the meantime
+	 * and never replace them.
+	 */
+	private void warmUp() {
+		List<CachedMessage> chunk = new ArrayList<>(WARM_UP_CHUNK_SIZE);
 		try {
-			cache = cacheRepository.getAll();
+			cacheRepository.streamNewestFirst(WARM_UP_CHUNK_SIZE, message -> {
+				chunk.add(message);
+				if (chunk.size() >= WARM_UP_CHUNK_SIZE) {
+					addStoredMessages(chunk);
+					chunk.clear();
+				}
+			});
+			addStoredMessages(chunk);
+			log.info("Loaded {} stored messages into the local Cache.", cache.size());
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			log.error("Something went wrong during retrieval of stored messages.");
+		} finally {
+			warmingUp = false;
+			removedDuringWarmUp.clear();
+		}
+	}
+
+	private void addStoredMessages(List<CachedMessage> messages) {
+		synchronized (journal) {
+			for (CachedMessage message : messages) {
+				long messageId = message.getMessageId();
+				if (removedDuringWarmUp.contains(messageId)) continue;
+				if (!cache.addFirst(toStored(message)) && cache.get(messageId) == null) {
+					// the cache has been filled up by new messages in the meantime
+					journal.recordDelete(messageId);
+				}
+			}
 		}
+	}
+
+	/**
+	 * Converts a message to the representation held in the in-memory cache.
+	 *
+	 * @param message The message to convert.
+	 * @return The message itself, or a compact version of it if contents are stored off-heap.
+	 */
+	private CachedMessageView toStored(CachedMessageView message) {
+		return arena == null ? message : arena.store(message);
+	}
 
+	/**
+	 * Reads a single message from the DB. This is used for messages which have not been loaded yet.
+	 *
+	 * @param messageId The ID of the message.
+	 * @return The stored {@link CachedMessage}, if present.
+	 */
+	private Optional<CachedMessage> getStored(long messageId) {
+		try {
+			return cacheRepository.getById(messageId);
+		} catch (DataAccessException e) {
+			ExceptionLogger.capture(e, getClass().getSimpleName());
+			return Optional.empty();
+		}
 	}
 
 	/**
-	 * Synchronizes Messages saved in the Database with what is currently stored in memory.
+	 * Asynchronously writes all changes since the last synchronization to the Database.
 	 */
 	public void synchronize() {
-		asyncPool.execute(()->{
-			cacheRepository.delete(cache.size());
-			cacheRepository.insertList(cache);
-			messageCount = 0;
-			log.info("Synchronized Database with local Cache.");
-		});
+		if (synchronizationQueued.compareAndSet(false, true)) {
+			asyncPool.execute(() -> {
+				synchronizationQueued.set(false);
+				flush();
+			});
+		}
+	}
+
+	/**
+	 * Writes all changes since the last synchronization to the Database and waits for it to complete.
+	 * <p>
+	 * Only the messages that have been added, edited or removed since the last synchronization are written.
+	 * If writing fails or the transaction cannot be started, the changes are kept and retried with the next synchronization.
+	 */
+	public void flush() {
+		synchronized (synchronizationLock) {
+			MessageCacheJournal.Changes changes = journal.drain();
+			if (changes.isEmpty()) return;
+			try {
+				cacheRepository.applyChanges(changes.writes(), changes.deletes());
+				log.info("Synchronized Database with local Cache ({} writes, {} deletes).", changes.writes().size(), changes.deletes().size());
+			} catch (DataAccessException | TransactionException e) {
+				// the transaction has been rolled back or was never started, so nothing has been written
+				journal.restore(changes);
+				ExceptionLogger.capture(e, getClass().getSimpleName());
+				log.error("Could not synchronize Database with local Cache.", e);
+			}
+		}
 	}
 
 	/**
@@ -98,14 +241,109 @@ public class MessageCache {
 	 */
 	public void cache(Message message) {
 		MessageCacheConfig config = botConfig.get(message.getGuild()).getMessageCacheConfig();
-		if (cache.size() + 1 > config.getMaxCachedMessages()) {
-			cache.remove(0);
+		if (cache.capacity() != config.getMaxCachedMessages()) {
+			synchronized (journal) {
+				cache.resize(config.getMaxCachedMessages())
+					.forEach(dropped -> journal.recordDelete(dropped.getMessageId()));
+			}
 		}
-		if (messageCount >= config.getMessageSynchronizationInterval()) {
+		add(CachedMessage.of(message));
+		if (journal.size() >= config.getMessageSynchronizationInterval()) {
 			synchronize();
 		}
-		messageCount++;
-		cache.add(CachedMessage.of(message));
+	}
+
+	private void add(CachedMessageView message) {
+		CachedMessageView cachedMessage = toStored(message);
+		synchronized (journal) {
+			CachedMessageView evicted = cache.add(cachedMessage);
+			if (evicted != null && evicted.getMessageId() != cachedMessage.getMessageId()) {
+				journal.recordDelete(evicted.getMessageId());
+			}
+			if (evicted != cachedMessage) {
+				journal.recordWrite(cachedMessage);
+			}
+		}
+	}
+
+	/**
+	 * Gets a cached message by its ID.
+	 *
+	 * @param messageId The ID of the message.
+	 * @return The {@link CachedMessage}, if it is present in the cache.
+	 */
+	public Optional<CachedMessage> get(long messageId) {
+		CachedMessageView message = cache.get(messageId);
+		if (message == null && warmingUp) {
+			return getStored(messageId);
+		}
+		return Optional.ofNullable(message).map(CachedMessageView::decode);
+	}
+
+	/**
+	 * Replaces a cached message with a newer version of it.
+	 * Nothing is changed if the message is neither cached nor (while the cache is still loading) stored in the DB.
+	 *
+	 * @param message The new version of the message.
+	 * @return The previously cached version of the message, if it was present in the cache.
+	 */
+	public Optional<CachedMessage> replace(CachedMessage message) {
+		CachedMessageView cachedMessage = toStored(message);
+		CachedMessageView previous;
+		synchronized (journal) {
+			previous = cache.replace(cachedMessage);
+			if (previous != null) {
+				journal.recordWrite(cachedMessage);
+			}
+		}
+		if (previous == null && warmingUp) {
+			Optional<CachedMessage> stored = getStored(message.getMessageId());
+			stored.ifPresent(m -> add(cachedMessage));
+			return stored;
+		}
+		return Optional.ofNullable(previous).map(CachedMessageView::decode);
+	}
+
+	/**
+	 * Removes a message from the cache.
+	 *
+	 * @param messageId The ID of the message.
+	 * @return The removed {@link CachedMessage}, if it was present in the cache.
+	 */
+	public Optional<CachedMessage> remove(long messageId) {
+		boolean loading = warmingUp;
+		if (loading) {
+			removedDuringWarmUp.add(messageId);
+		}
+		CachedMessageView removed;
+		synchronized (journal) {
+			removed = cache.remove(messageId);
+			if (removed != null || loading) {
+				journal.recordDelete(messageId);
+			}
+		}
+		if (removed == null && loading) {
+			return getStored(messageId);
+		}
+		return Optional.ofNullable(removed).map(CachedMessageView::decode);
+	}
+
+	/**
+	 * Gets the amount of messages currently held in memory.
+	 *
+	 * @return The amount of cached messages.
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Gets the amount of messages which have been changed since the last synchronization.
+	 *
+	 * @return The amount of pending changes.
+	 */
+	public int getMessageCount() {
+		return journal.size();
 	}
 
 	/**
@@ -118,13 +356,15 @@ public class MessageCache {
 		MessageCacheConfig config = botConfig.get(updated.getGuild()).getMessageCacheConfig();
 		if (config.getMessageCacheLogChannel() == null) return;
 		if (updated.getContentRaw().trim().equals(before.getMessageContent()) && updated.getAttachments().size() == before.getAttachments().size()) return;
-		MessageCreateAction action = config.getMessageCacheLogChannel()
-				.sendMessageEmbeds(buildMessageEditEmbed(updated.getGuild(), updated.getAuthor(), updated.getChannel(), before, updated))
-				.setActionRow(Button.link(updated.getJumpUrl(), "Jump to Message"));
-		if (before.getMessageContent().length() > MessageEmbed.VALUE_MAX_LENGTH || updated.getContentRaw().length() > MessageEmbed.VALUE_MAX_LENGTH) {
-			action.addFiles(FileUpload.fromData(buildEditedMessageFile(updated.getAuthor(), before, updated), before.getMessageId() + ".txt"));
-		}
-		action.queue();
+		notificationService.withGuild(updated.getGuild()).sendToMessageLog(c -> {
+			MessageCreateAction action = c
+					.sendMessageEmbeds(buildMessageEditEmbed(updated.getGuild(), updated.getAuthor(), updated.getChannel(), before, updated))
+					.setActionRow(Button.link(updated.getJumpUrl(), "Jump to Message"));
+			if (before.getMessageContent().length() > MessageEmbed.VALUE_MAX_LENGTH || updated.getContentRaw().length() > MessageEmbed.VALUE_MAX_LENGTH) {
+				action.addFiles(FileUpload.fromData(buildEditedMessageFile(updated.getAuthor(), before, updated), before.getMessageId() + ".txt"));
+			}
+			return action;
+		});
 	}
 
 	/**
@@ -138,11 +378,13 @@ public class MessageCache {
 		MessageCacheConfig config = botConfig.get(guild).getMessageCacheConfig();
 		if (config.getMessageCacheLogChannel() == null) return;
 		guild.getJDA().retrieveUserById(message.getAuthorId()).queue(author -> {
-			MessageCreateAction action = config.getMessageCacheLogChannel().sendMessageEmbeds(buildMessageDeleteEmbed(guild, author, channel, message));
-			if (message.getMessageContent().length() > MessageEmbed.VALUE_MAX_LENGTH) {
-				action.addFiles(FileUpload.fromData(buildDeletedMessageFile(author, message), message.getMessageId() + ".txt"));
-			}
-			action.queue();
+			notificationService.withGuild(guild).sendToMessageLog(c -> {
+				MessageCreateAction action = c.sendMessageEmbeds(buildMessageDeleteEmbed(guild, author, channel, message));
+				if (message.getMessageContent().length() > MessageEmbed.VALUE_MAX_LENGTH) {
+					action.addFiles(FileUpload.fromData(buildDeletedMessageFile(author, message), message.getMessageId() + ".txt"));
+				}
+				return action;
+			});
 			requestMessageAttachments(message);
 		});
 	}
@@ -0,0 +1,102 @@
+package net.discordjug.javabot.data.h2db.message_cache;
+
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records changes to the in-memory message cache which have not been written to the database yet.
+ * <p>
+ * Only the latest change per message is kept: editing a message twice results in a single write
+ * and deleting a message which has just been added results in a single delete.
+ * All methods are thread-safe.
+ */
+public class MessageCacheJournal {
+	/**
+	 * Pending changes by message ID. A {@code null} value represents a deletion.
+	 */
+	private final Map<Long, CachedMessageView> pending = new LinkedHashMap<>();
+
+	/**
+	 * Records that a message has been added to the cache or edited.
+	 *
+	 * @param message The new state of the message.
+	 */
+	public synchronized void recordWrite(CachedMessageView message) {
+		pending.put(message.getMessageId(), message);
+	}
+
+	/**
+	 * Records that a message has been removed from the cache.
+	 *
+	 * @param messageId The ID of the removed message.
+	 */
+	public synchronized void recordDelete(long messageId) {
+		pending.put(messageId, null);
+	}
+
+	/**
+	 * Gets the amount of messages with pending changes.
+	 *
+	 * @return The amount of pending changes.
+	 */
+	public synchronized int size() {
+		return pending.size();
+	}
+
+	/**
+	 * Removes all pending changes from the journal.
+	 *
+	 * @return The removed changes.
+	 */
+	public synchronized Changes drain() {
+		List<CachedMessageView> writes = new ArrayList<>();
+		List<Long> deletes = new ArrayList<>();
+		for (Map.Entry<Long, CachedMessageView> entry : pending.entrySet()) {
+			if (entry.getValue() == null) {
+				deletes.add(entry.getKey());
+			} else {
+				writes.add(entry.getValue());
+			}
+		}
+		pending.clear();
+		return new Changes(writes, deletes);
+	}
+
+	/**
+	 * Puts changes that could not be written back into the journal.
+	 * Changes that have been recorded in the meantime take precedence.
+	 *
+	 * @param changes The changes returned by {@link #drain()}.
+	 */
+	public synchronized void restore(Changes changes) {
+		for (CachedMessageView message : changes.writes()) {
+			pending.putIfAbsent(message.getMessageId(), message);
+		}
+		for (Long messageId : changes.deletes()) {
+			if (!pending.containsKey(messageId)) {
+				pending.put(messageId, null);
+			}
+		}
+	}
+
+	/**
+	 * A set of changes which should be written to the database.
+	 *
+	 * @param writes  Messages which should be inserted or updated.
+	 * @param deletes IDs of messages which should be deleted.
+	 */
+	public record Changes(List<CachedMessageView> writes, List<Long> deletes) {
+		/**
+		 * Checks whether there is nothing to write.
+		 *
+		 * @return {@code true} if there are neither writes nor deletes
+		 */
+		public boolean isEmpty() {
+			return writes.isEmpty() && deletes.isEmpty();
+		}
+	}
+}
@@ -13,7 +13,6 @@ import org.jetbrains.annotations.NotNull;
 
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -33,12 +32,10 @@ public class MessageCacheListener extends ListenerAdapter {
 	@Override
 	public void onMessageUpdate(@NotNull MessageUpdateEvent event) {
 		if (this.ignoreMessageCache(event.getMessage())) return;
-		List<CachedMessage> cache = messageCache.cache;
-		Optional<CachedMessage> optional = cache.stream().filter(m -> m.getMessageId() == event.getMessageIdLong()).findFirst();
+		Optional<CachedMessage> optional = messageCache.replace(CachedMessage.of(event.getMessage()));
 		CachedMessage before;
 		if (optional.isPresent()) {
 			before = optional.get();
-			cache.set(cache.indexOf(before), CachedMessage.of(event.getMessage()));
 		} else {
 			before = new CachedMessage();
 			before.setMessageId(event.getMessageIdLong());
@@ -50,11 +47,9 @@ public class MessageCacheListener extends ListenerAdapter {
 
 	@Override
 	public void onMessageDelete(@NotNull MessageDeleteEvent event) {
-		Optional<CachedMessage> optional = messageCache.cache.stream().filter(m -> m.getMessageId() == event.getMessageIdLong()).findFirst();
-		optional.ifPresent(message -> {
-			messageCache.sendDeletedMessageToLog(event.getGuild(), event.getChannel(), message);
-			messageCache.cache.remove(message);
-		});
+		messageCache.remove(event.getMessageIdLong()).ifPresent(message ->
+			messageCache.sendDeletedMessageToLog(event.getGuild(), event.getChannel(), message)
+		);
 	}
 
 
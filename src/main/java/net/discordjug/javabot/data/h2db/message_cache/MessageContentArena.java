@@ -0,0 +1,78 @@
+package net.discordjug.javabot.data.h2db.message_cache;
+
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
+import net.discordjug.javabot.data.h2db.message_cache.model.CompactCachedMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores the contents of cached messages UTF-8 encoded in off-heap memory.
+ * <p>
+ * Message bodies are appended to fixed-size direct {@link ByteBuffer} segments. Each {@link CompactCachedMessage}
+ * references the segment holding its body, so a segment is released by the garbage collector as soon as
+ * all messages stored in it have been evicted or replaced. Since the message cache evicts messages in
+ * insertion order, old segments empty out on their own and no explicit freeing is needed.
+ */
+public class MessageContentArena {
+	/**
+	 * The size of a single segment in bytes.
+	 */
+	static final int SEGMENT_SIZE = 1024 * 1024;
+	/**
+	 * The separator between the message content and the attachment URLs, and between attachment URLs.
+	 */
+	private static final byte SEPARATOR = '\n';
+
+	private ByteBuffer segment = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+	private int position = 0;
+
+	/**
+	 * Copies the content and attachments of a message into the arena.
+	 *
+	 * @param message The message to store.
+	 * @return A {@link CompactCachedMessage} which reads its content from the arena.
+	 */
+	public CompactCachedMessage store(CachedMessageView message) {
+		if (message instanceof CompactCachedMessage compact) {
+			return compact;
+		}
+		byte[] content = message.getMessageContent().getBytes(StandardCharsets.UTF_8);
+		int length = content.length;
+		byte[][] attachments = new byte[message.getAttachments().size()][];
+		for (int i = 0; i < attachments.length; i++) {
+			attachments[i] = message.getAttachments().get(i).getBytes(StandardCharsets.UTF_8);
+			length += 1 + attachments[i].length;
+		}
+		synchronized (this) {
+			ByteBuffer target = reserve(length);
+			int offset = target == segment ? position - length : 0;
+			target.put(offset, content);
+			int index = offset + content.length;
+			for (byte[] attachment : attachments) {
+				target.put(index++, SEPARATOR);
+				target.put(index, attachment);
+				index += attachment.length;
+			}
+			return new CompactCachedMessage(message.getMessageId(), message.getAuthorId(), target, offset, content.length, length);
+		}
+	}
+
+	/**
+	 * Reserves space for a message body.
+	 *
+	 * @param length The amount of bytes to reserve.
+	 * @return The buffer to write the body to. If this is the current segment, the body ends at the new {@link #position}.
+	 */
+	private ByteBuffer reserve(int length) {
+		if (length > SEGMENT_SIZE) {
+			return ByteBuffer.allocateDirect(length);
+		}
+		if (position + length > SEGMENT_SIZE) {
+			segment = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+			position = 0;
+		}
+		position += length;
+		return segment;
+	}
+}
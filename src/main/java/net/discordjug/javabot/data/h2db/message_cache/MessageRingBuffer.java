@@ -0,0 +1,314 @@
+package net.discordjug.javabot.data.h2db.message_cache;
+
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-capacity ring buffer of {@link CachedMessageView}s which is indexed by message ID.
+ * <p>
+ * Messages are stored in insertion order. Once the buffer is full, inserting a message
+ * evicts the oldest one. Lookups, replacements and removals by message ID use an
+ * open-addressing {@code long -> slot} hash index, so every operation runs in (amortized) constant time.
+ * <p>
+ * Removing a message leaves a hole in the ring which is reclaimed once the ring wraps around to it.
+ * All methods are thread-safe.
+ */
+public class MessageRingBuffer {
+	/**
+	 * Marks an unused entry in the index. Discord snowflakes are never 0.
+	 */
+	private static final long EMPTY_KEY = 0L;
+
+	private CachedMessageView[] slots;
+	/**
+	 * The slot of the oldest entry (which may be a hole).
+	 */
+	private int head;
+	/**
+	 * The amount of slots between {@link #head} and the next write position, including holes.
+	 */
+	private int used;
+	/**
+	 * The amount of messages actually stored in the buffer.
+	 */
+	private int size;
+
+	private long[] indexKeys;
+	private int[] indexSlots;
+	private int indexMask;
+
+	/**
+	 * Creates an empty ring buffer.
+	 *
+	 * @param capacity The maximum amount of messages that can be stored at once.
+	 */
+	public MessageRingBuffer(int capacity) {
+		allocate(capacity);
+	}
+
+	/**
+	 * Adds a message to the buffer, evicting the oldest message if the buffer is full.
+	 * If a message with the same ID is already present, it is replaced in place instead.
+	 *
+	 * @param message The message to add.
+	 * @return The message that has been evicted or replaced, or {@code null} if no message was dropped.
+	 */
+	public synchronized CachedMessageView add(CachedMessageView message) {
+		int existing = findSlot(message.getMessageId());
+		if (existing >= 0) {
+			CachedMessageView previous = slots[existing];
+			slots[existing] = message;
+			return previous;
+		}
+		if (slots.length == 0) {
+			return message;
+		}
+		CachedMessageView evicted = null;
+		if (used == slots.length) {
+			evicted = evictHead();
+		}
+		int slot = (head + used) % slots.length;
+		slots[slot] = message;
+		used++;
+		size++;
+		indexPut(message.getMessageId(), slot);
+		return evicted;
+	}
+
+	/**
+	 * Adds a message in front of all other messages, as if it was the oldest one.
+	 * This never evicts messages: if the buffer is full or a message with the same ID is present, nothing is changed.
+	 *
+	 * @param message The message to add.
+	 * @return {@code true} if the message has been added
+	 */
+	public synchronized boolean addFirst(CachedMessageView message) {
+		if (used == slots.length || findSlot(message.getMessageId()) >= 0) {
+			return false;
+		}
+		head = (head - 1 + slots.length) % slots.length;
+		slots[head] = message;
+		used++;
+		size++;
+		indexPut(message.getMessageId(), head);
+		return true;
+	}
+
+	/**
+	 * Gets a message by its ID.
+	 *
+	 * @param messageId The message's ID.
+	 * @return The {@link CachedMessageView}, or {@code null} if it is not stored.
+	 */
+	public synchronized CachedMessageView get(long messageId) {
+		int slot = findSlot(messageId);
+		return slot < 0 ? null : slots[slot];
+	}
+
+	/**
+	 * Replaces an already stored message with the given one, keeping its position in the buffer.
+	 *
+	 * @param message The new version of the message.
+	 * @return The previously stored version, or {@code null} if the message was not stored (in which case nothing is changed).
+	 */
+	public synchronized CachedMessageView replace(CachedMessageView message) {
+		int slot = findSlot(message.getMessageId());
+		if (slot < 0) {
+			return null;
+		}
+		CachedMessageView previous = slots[slot];
+		slots[slot] = message;
+		return previous;
+	}
+
+	/**
+	 * Removes a message from the buffer.
+	 *
+	 * @param messageId The message's ID.
+	 * @return The removed {@link CachedMessageView}, or {@code null} if it was not stored.
+	 */
+	public synchronized CachedMessageView remove(long messageId) {
+		int slot = findSlot(messageId);
+		if (slot < 0) {
+			return null;
+		}
+		CachedMessageView removed = slots[slot];
+		slots[slot] = null;
+		size--;
+		indexRemove(messageId);
+		trimTail();
+		return removed;
+	}
+
+	/**
+	 * Changes the capacity of the buffer. If the new capacity is smaller than the amount of
+	 * stored messages, the oldest messages are dropped.
+	 * <p>
+	 * This copies the whole buffer and should only be called when the configuration changes.
+	 *
+	 * @param capacity The new capacity.
+	 * @return All messages that have been dropped, oldest first.
+	 */
+	public synchronized List<CachedMessageView> resize(int capacity) {
+		List<CachedMessageView> messages = toListUnsafe();
+		int dropCount = Math.max(0, messages.size() - capacity);
+		allocate(capacity);
+		for (CachedMessageView message : messages.subList(dropCount, messages.size())) {
+			add(message);
+		}
+		return new ArrayList<>(messages.subList(0, dropCount));
+	}
+
+	/**
+	 * Creates a snapshot of all stored messages.
+	 *
+	 * @return A {@link List} of all messages, oldest first.
+	 */
+	public synchronized List<CachedMessageView> toList() {
+		return toListUnsafe();
+	}
+
+	/**
+	 * Removes all messages from the buffer.
+	 */
+	public synchronized void clear() {
+		allocate(slots.length);
+	}
+
+	/**
+	 * Gets the amount of stored messages.
+	 *
+	 * @return The amount of messages in the buffer.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum amount of messages the buffer can hold.
+	 *
+	 * @return The capacity of the buffer.
+	 */
+	public synchronized int capacity() {
+		return slots.length;
+	}
+
+	private void allocate(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity must not be negative");
+		}
+		slots = new CachedMessageView[capacity];
+		head = 0;
+		used = 0;
+		size = 0;
+		// keep the load factor of the index at or below 0.5
+		int indexCapacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+		indexKeys = new long[indexCapacity];
+		indexSlots = new int[indexCapacity];
+		indexMask = indexCapacity - 1;
+	}
+
+	private List<CachedMessageView> toListUnsafe() {
+		List<CachedMessageView> messages = new ArrayList<>(size);
+		for (int i = 0; i < used; i++) {
+			CachedMessageView message = slots[(head + i) % slots.length];
+			if (message != null) {
+				messages.add(message);
+			}
+		}
+		return messages;
+	}
+
+	private CachedMessageView evictHead() {
+		CachedMessageView evicted = slots[head];
+		slots[head] = null;
+		head = (head + 1) % slots.length;
+		used--;
+		if (evicted != null) {
+			size--;
+			indexRemove(evicted.getMessageId());
+		}
+		// skip holes so the next eviction does not waste a slot
+		while (used > 0 && slots[head] == null) {
+			head = (head + 1) % slots.length;
+			used--;
+		}
+		return evicted;
+	}
+
+	private void trimTail() {
+		while (used > 0 && slots[(head + used - 1) % slots.length] == null) {
+			used--;
+		}
+		if (used == 0) {
+			head = 0;
+		} else {
+			while (slots[head] == null) {
+				head = (head + 1) % slots.length;
+				used--;
+			}
+		}
+	}
+
+	private int findSlot(long messageId) {
+		if (messageId == EMPTY_KEY) {
+			return -1;
+		}
+		int i = hash(messageId);
+		while (indexKeys[i] != EMPTY_KEY) {
+			if (indexKeys[i] == messageId) {
+				return indexSlots[i];
+			}
+			i = (i + 1) & indexMask;
+		}
+		return -1;
+	}
+
+	private void indexPut(long messageId, int slot) {
+		int i = hash(messageId);
+		while (indexKeys[i] != EMPTY_KEY && indexKeys[i] != messageId) {
+			i = (i + 1) & indexMask;
+		}
+		indexKeys[i] = messageId;
+		indexSlots[i] = slot;
+	}
+
+	/**
+	 * Removes a key from the index using backward-shift deletion, so no tombstones are needed.
+	 *
+	 * @param messageId The key to remove.
+	 */
+	private void indexRemove(long messageId) {
+		int i = hash(messageId);
+		while (indexKeys[i] != messageId) {
+			if (indexKeys[i] == EMPTY_KEY) {
+				return;
+			}
+			i = (i + 1) & indexMask;
+		}
+		int gap = i;
+		int j = gap;
+		while (true) {
+			j = (j + 1) & indexMask;
+			long key = indexKeys[j];
+			if (key == EMPTY_KEY) {
+				break;
+			}
+			int home = hash(key);
+			// move the entry into the gap if its home position is not between the gap and its current position
+			if (((j - home) & indexMask) >= ((j - gap) & indexMask)) {
+				indexKeys[gap] = key;
+				indexSlots[gap] = indexSlots[j];
+				gap = j;
+			}
+		}
+		indexKeys[gap] = EMPTY_KEY;
+	}
+
+	private int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & indexMask;
+	}
+}
@@ -2,122 +2,154 @@ package net.discordjug.javabot.data.h2db.message_cache.dao;
 
 import lombok.RequiredArgsConstructor;
 import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessage;
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
 
 import org.jetbrains.annotations.NotNull;
 import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
- * Dao class that represents the QOTW_POINTS SQL Table.
+ * Dao class that represents the MESSAGE_CACHE and MESSAGE_CACHE_ATTACHMENTS SQL Tables.
  */
 @RequiredArgsConstructor
 @Repository
 public class MessageCacheRepository {
+	/**
+	 * The maximum amount of statements sent to the database in a single JDBC batch.
+	 */
+	private static final int BATCH_SIZE = 500;
+	private static final String SELECT_MESSAGES = "SELECT m.message_id, m.author_id, m.message_content, a.link FROM message_cache m " +
+			"LEFT JOIN message_cache_attachments a ON m.message_id = a.message_id";
+
 	private final JdbcTemplate jdbcTemplate;
 
 	/**
-	 * Inserts a {@link List} of {@link CachedMessage} objects.
+	 * Writes a set of changes to the database in a single transaction.
+	 * <p>
+	 * Written messages are upserted and their attachments are replaced, deleted messages are removed
+	 * together with their attachments. All statements are sent as JDBC batches.
 	 *
-	 * @param messages The List to insert.
-	 * @throws SQLException If an error occurs.
+	 * @param writes  The messages to insert or update.
+	 * @param deletes The IDs of the messages to delete.
+	 * @throws DataAccessException If an error occurs.
 	 */
-	public void insertList(@NotNull List<CachedMessage> messages) throws DataAccessException {
-		jdbcTemplate.batchUpdate("MERGE INTO message_cache (message_id, author_id, message_content) VALUES (?, ?, ?)",
-				new BatchPreparedStatementSetter() {
-					@Override
-					public void setValues(PreparedStatement stmt, int i) throws SQLException {
-						CachedMessage msg = messages.get(i);
-						stmt.setLong(1, msg.getMessageId());
-						stmt.setLong(2, msg.getAuthorId());
-						stmt.setString(3, msg.getMessageContent());
-						stmt.executeUpdate();
-					}
-
-					@Override
-					public int getBatchSize() {
-						return messages.size();
-					}
+	@Transactional
+	public void applyChanges(@NotNull List<? extends CachedMessageView> writes, @NotNull List<Long> deletes) throws DataAccessException {
+		List<Long> touched = new ArrayList<>(deletes);
+		writes.forEach(msg -> touched.add(msg.getMessageId()));
+		jdbcTemplate.batchUpdate("DELETE FROM message_cache_attachments WHERE message_id = ?", touched, BATCH_SIZE,
+				(stmt, messageId) -> stmt.setLong(1, messageId));
+		jdbcTemplate.batchUpdate("DELETE FROM message_cache WHERE message_id = ?", deletes, BATCH_SIZE,
+				(stmt, messageId) -> stmt.setLong(1, messageId));
+		jdbcTemplate.batchUpdate("MERGE INTO message_cache (message_id, author_id, message_content) VALUES (?, ?, ?)", writes, BATCH_SIZE,
+				(stmt, msg) -> {
+					stmt.setLong(1, msg.getMessageId());
+					stmt.setLong(2, msg.getAuthorId());
+					stmt.setString(3, msg.getMessageContent());
 				});
-		List<Map.Entry<CachedMessage, Integer>> attachments=new ArrayList<>();
-		for (CachedMessage msg : messages) {
+		List<Map.Entry<CachedMessageView, Integer>> attachments = new ArrayList<>();
+		for (CachedMessageView msg : writes) {
 			for (int i = 0; i < msg.getAttachments().size(); i++) {
 				attachments.add(Map.entry(msg, i));
 			}
 		}
-		jdbcTemplate.batchUpdate("MERGE INTO message_cache_attachments (message_id, attachment_index, link) VALUES (?, ?, ?)",
-				new BatchPreparedStatementSetter() {
-
-					@Override
-					public void setValues(PreparedStatement stmt, int i) throws SQLException {
-						Entry<CachedMessage, Integer> entry = attachments.get(i);
-						CachedMessage msg = entry.getKey();
-						Integer attachmentIndex = entry.getValue();
-						stmt.setLong(1, msg.getMessageId());
-						stmt.setInt(2, attachmentIndex);
-						stmt.setString(3, msg.getAttachments().get(attachmentIndex));
-					}
-
-					@Override
-					public int getBatchSize() {
-						return attachments.size();
-					}
+		jdbcTemplate.batchUpdate("INSERT INTO message_cache_attachments (message_id, attachment_index, link) VALUES (?, ?, ?)", attachments, BATCH_SIZE,
+				(stmt, entry) -> {
+					CachedMessageView msg = entry.getKey();
+					int attachmentIndex = entry.getValue();
+					stmt.setLong(1, msg.getMessageId());
+					stmt.setInt(2, attachmentIndex);
+					stmt.setString(3, msg.getAttachments().get(attachmentIndex));
 				});
 	}
 
 	/**
-	 * Gets all Messages from the Database.
+	 * Counts all Messages in the Database.
+	 *
+	 * @return The amount of stored messages.
+	 * @throws DataAccessException If anything goes wrong.
+	 */
+	public int count() throws DataAccessException {
+		Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message_cache", Integer.class);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Reads all Messages from the Database using a forward-only cursor, newest message first.
+	 * <p>
+	 * Rows are fetched from the database in pages of the given size and passed on one message at a time,
+	 * so the result set is never held in memory as a whole.
 	 *
-	 * @return A {@link List} of {@link CachedMessage}s.
-	 * @throws SQLException If anything goes wrong.
+	 * @param fetchSize The amount of rows to fetch from the database at once.
+	 * @param consumer  A {@link Consumer} accepting each message including its attachments.
+	 * @throws DataAccessException If anything goes wrong.
 	 */
-	public List<CachedMessage> getAll() throws DataAccessException {
-		List<CachedMessage> messagesWithLink = jdbcTemplate.query(
-				"SELECT * FROM message_cache LEFT JOIN message_cache_attachments ON message_cache.message_id = message_cache_attachments.message_id",
-				(rs, rowNum) -> this.read(rs));
-		Map<Long, CachedMessage> messages=new LinkedHashMap<>();
-		for (CachedMessage msg : messagesWithLink) {
-			CachedMessage previous = messages.putIfAbsent(msg.getMessageId(), msg);
-			if(previous!=null) {
-				previous.getAttachments().addAll(msg.getAttachments());
+	public void streamNewestFirst(int fetchSize, @NotNull Consumer<CachedMessage> consumer) throws DataAccessException {
+		CachedMessage[] current = new CachedMessage[1];
+		jdbcTemplate.query(con -> {
+			PreparedStatement stmt = con.prepareStatement(SELECT_MESSAGES + " ORDER BY m.message_id DESC, a.attachment_index",
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			stmt.setFetchSize(fetchSize);
+			return stmt;
+		}, (RowCallbackHandler) rs -> {
+			long messageId = rs.getLong("message_id");
+			if (current[0] != null && current[0].getMessageId() == messageId) {
+				readAttachment(rs, current[0]);
+			} else {
+				if (current[0] != null) {
+					consumer.accept(current[0]);
+				}
+				current[0] = this.read(rs);
 			}
+		});
+		if (current[0] != null) {
+			consumer.accept(current[0]);
 		}
-		return new ArrayList<>(messages.values());
 	}
 
 	/**
-	 * Deletes the given amount of Messages.
+	 * Gets a single Message from the Database.
 	 *
-	 * @param amount The amount to delete.
-	 * @return If any rows we're affected.
-	 * @throws SQLException If anything goes wrong.
+	 * @param messageId The ID of the message.
+	 * @return The {@link CachedMessage}, if it is stored.
+	 * @throws DataAccessException If anything goes wrong.
 	 */
-	public boolean delete(int amount) throws DataAccessException {
-		int rows = jdbcTemplate.update("DELETE FROM message_cache LIMIT ?", amount);
-		if(rows > 0){
-			jdbcTemplate.update("DELETE FROM message_cache_attachments WHERE message_id NOT IN (SELECT message_id FROM message_cache)");
-			return true;
+	public Optional<CachedMessage> getById(long messageId) throws DataAccessException {
+		List<CachedMessage> rows = jdbcTemplate.query(SELECT_MESSAGES + " WHERE m.message_id = ? ORDER BY a.attachment_index",
+				(rs, rowNum) -> this.read(rs), messageId);
+		if (rows.isEmpty()) {
+			return Optional.empty();
+		}
+		CachedMessage message = rows.get(0);
+		for (CachedMessage row : rows.subList(1, rows.size())) {
+			message.getAttachments().addAll(row.getAttachments());
 		}
-		return false;
+		return Optional.of(message);
 	}
 
 	private CachedMessage read(ResultSet rs) throws SQLException {
 		CachedMessage cachedMessage = new CachedMessage();
-		cachedMessage.setMessageId(rs.getLong("message_cache.message_id"));
+		cachedMessage.setMessageId(rs.getLong("message_id"));
 		cachedMessage.setAuthorId(rs.getLong("author_id"));
 		cachedMessage.setMessageContent(rs.getString("message_content"));
+		readAttachment(rs, cachedMessage);
+		return cachedMessage;
+	}
+
+	private void readAttachment(ResultSet rs, CachedMessage cachedMessage) throws SQLException {
 		String attachment = rs.getString("link");
 		if(attachment!=null) {
 			cachedMessage.getAttachments().add(attachment);
 		}
-		return cachedMessage;
 	}
 }
@@ -11,7 +11,7 @@ import net.dv8tion.jda.api.entities.Message.Attachment;
  * Represents a cached Message.
  */
 @Data
-public class CachedMessage {
+public class CachedMessage implements CachedMessageView {
 	private long messageId;
 	private long authorId;
 	private String messageContent;
@@ -36,4 +36,8 @@ public class CachedMessage {
 		return cachedMessage;
 	}
 
+	@Override
+	public CachedMessage decode() {
+		return this;
+	}
 }
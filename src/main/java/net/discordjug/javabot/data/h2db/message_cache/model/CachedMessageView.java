@@ -0,0 +1,44 @@
+package net.discordjug.javabot.data.h2db.message_cache.model;
+
+import java.util.List;
+
+/**
+ * A read-only view of a cached message, as it is held in the in-memory message cache.
+ */
+public interface CachedMessageView {
+	/**
+	 * Gets the ID of the message.
+	 *
+	 * @return The message's ID.
+	 */
+	long getMessageId();
+
+	/**
+	 * Gets the ID of the message's author.
+	 *
+	 * @return The author's ID.
+	 */
+	long getAuthorId();
+
+	/**
+	 * Gets the raw content of the message.
+	 *
+	 * @return The message's content.
+	 */
+	String getMessageContent();
+
+	/**
+	 * Gets the URLs of the message's attachments.
+	 *
+	 * @return The attachment URLs, in the order they were sent in.
+	 */
+	List<String> getAttachments();
+
+	/**
+	 * Gets this message as a {@link CachedMessage} which holds its content on the heap.
+	 * Use this before handing out the message or accessing its content multiple times.
+	 *
+	 * @return A {@link CachedMessage} with the content of this message.
+	 */
+	CachedMessage decode();
+}
@@ -0,0 +1,92 @@
+package net.discordjug.javabot.data.h2db.message_cache.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cached message which only keeps its header on the heap.
+ * <p>
+ * The content and attachment URLs are stored UTF-8 encoded in an off-heap buffer
+ * and decoded whenever they are accessed. Messages of this type are immutable,
+ * use {@link #decode()} to get a modifiable {@link CachedMessage}.
+ *
+ * @see net.discordjug.javabot.data.h2db.message_cache.MessageContentArena
+ */
+public final class CompactCachedMessage implements CachedMessageView {
+	private final long messageId;
+	private final long authorId;
+	private final ByteBuffer buffer;
+	private final int offset;
+	private final int contentLength;
+	private final int length;
+
+	/**
+	 * Creates a message whose body has already been written to a buffer.
+	 * <p>
+	 * The body consists of the content followed by each attachment URL, all prefixed with a line break.
+	 *
+	 * @param messageId     The ID of the message.
+	 * @param authorId      The ID of the message's author.
+	 * @param buffer        The buffer holding the body.
+	 * @param offset        The position of the body in the buffer.
+	 * @param contentLength The amount of bytes of the content.
+	 * @param length        The amount of bytes of the whole body.
+	 */
+	public CompactCachedMessage(long messageId, long authorId, ByteBuffer buffer, int offset, int contentLength, int length) {
+		this.messageId = messageId;
+		this.authorId = authorId;
+		this.buffer = buffer;
+		this.offset = offset;
+		this.contentLength = contentLength;
+		this.length = length;
+	}
+
+	@Override
+	public long getMessageId() {
+		return messageId;
+	}
+
+	@Override
+	public long getAuthorId() {
+		return authorId;
+	}
+
+	@Override
+	public String getMessageContent() {
+		return decode(offset, contentLength);
+	}
+
+	@Override
+	public List<String> getAttachments() {
+		List<String> attachments = new ArrayList<>();
+		int end = offset + length;
+		int start = offset + contentLength + 1;
+		while (start <= end) {
+			int next = start;
+			while (next < end && buffer.get(next) != '\n') {
+				next++;
+			}
+			attachments.add(decode(start, next - start));
+			start = next + 1;
+		}
+		return attachments;
+	}
+
+	@Override
+	public CachedMessage decode() {
+		CachedMessage message = new CachedMessage();
+		message.setMessageId(getMessageId());
+		message.setAuthorId(getAuthorId());
+		message.setMessageContent(getMessageContent());
+		message.setAttachments(getAttachments());
+		return message;
+	}
+
+	private String decode(int start, int byteCount) {
+		byte[] bytes = new byte[byteCount];
+		buffer.get(start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
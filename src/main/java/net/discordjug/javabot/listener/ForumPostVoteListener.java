@@ -1,34 +1,63 @@
 package net.discordjug.javabot.listener;
 
 import net.discordjug.javabot.data.config.BotConfig;
-import net.discordjug.javabot.util.StringUtils;
+import net.discordjug.javabot.listener.ForumVoteTally.Votes;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.react.GenericMessageReactionEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEvent;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 
-import java.util.concurrent.ExecutorService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jetbrains.annotations.NotNull;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Generic listener that can be extended to add the ability for users to vote
  * on whether a message should stay in the channel.
+ * <p>
+ * Votes are counted locally from reaction events, so users who voted are only
+ * fetched once per post and by the periodic reconciliation of posts with changed votes.
+ * Votes of bots and system users are never counted.
+ * </p>
  */
+@Slf4j
 @RequiredArgsConstructor
 public abstract class ForumPostVoteListener extends ListenerAdapter {
+	/**
+	 * The delay before checking the votes of a post, in seconds.
+	 */
+	private static final long VOTE_CHECK_DELAY = 2;
+	/**
+	 * Posts missing at most this many downvotes for being closed are reconciled even if their votes did not change.
+	 */
+	private static final int RECONCILE_THRESHOLD_MARGIN = 2;
+
 	/**
 	 * The main configuration of the bot.
 	 */
 	protected final BotConfig botConfig;
-	private final ExecutorService asyncPool;
+	private final ScheduledExecutorService asyncPool;
+	private final JDA jda;
+	private final ForumVoteTally voteTally = new ForumVoteTally();
+	private final Set<Long> pendingVoteChecks = ConcurrentHashMap.newKeySet();
 
 	/**
 	 * Gets the text channel in which this vote listener operates.
@@ -97,12 +126,65 @@ public abstract class ForumPostVoteListener extends ListenerAdapter {
 
 	@Override
 	public void onMessageReactionAdd(@NotNull MessageReactionAddEvent event) {
-		asyncPool.submit(() -> handleReactionEvent(event));
+		handleReactionEvent(event, 1);
 	}
 
 	@Override
 	public void onMessageReactionRemove(@NotNull MessageReactionRemoveEvent event) {
-		asyncPool.submit(() -> handleReactionEvent(event));
+		handleReactionEvent(event, -1);
+	}
+
+	/**
+	 * Corrects the counted votes of tracked posts by fetching every user who voted.
+	 * Votes can drift if events are missed, for example while the bot is reconnecting.
+	 * Only posts whose votes changed since the last reconciliation and posts close to the
+	 * delete threshold are fetched. The requests are sent asynchronously, so this doesn't block the scheduler.
+	 */
+	@Scheduled(fixedDelay = 30, initialDelay = 30, timeUnit = TimeUnit.MINUTES)
+	public void reconcileVotes() {
+		asyncPool.execute(() -> getPostsToReconcile().forEach(this::reconcileVotes));
+	}
+
+	private void reconcileVotes(long postId) {
+		ThreadChannel post = jda.getThreadChannelById(postId);
+		if (post == null || post.isArchived()) {
+			voteTally.remove(postId);
+			return;
+		}
+		if (voteTally.get(postId) == null) {
+			// the post is being seeded or not tracked anymore
+			return;
+		}
+		post.retrieveMessageById(postId).submit()
+				.thenCompose(this::countVotes)
+				.whenCompleteAsync((votes, err) -> {
+					if (err != null) {
+						if (unwrap(err) instanceof ErrorResponseException) {
+							voteTally.remove(postId);
+						} else {
+							log.warn("Could not reconcile votes of post {}", post.getName(), err);
+						}
+						return;
+					}
+					Votes previous = voteTally.reconcile(postId, votes.upvotes(), votes.downvotes());
+					if (previous != null && !previous.equals(votes)) {
+						log.info("Corrected votes of post {} from {} to {}", post.getName(), previous, votes);
+						scheduleVoteCheck(post, votes);
+					}
+				}, asyncPool);
+	}
+
+	private Set<Long> getPostsToReconcile() {
+		Set<Long> postIds = new HashSet<>(voteTally.takeChangedPostIds());
+		for (long postId : voteTally.getPostIds()) {
+			Votes votes = voteTally.get(postId);
+			ThreadChannel post = jda.getThreadChannelById(postId);
+			if (votes != null && post != null &&
+					votes.getDownvoteDifference() >= getMessageDeleteVoteThreshold(post.getGuild()) - RECONCILE_THRESHOLD_MARGIN) {
+				postIds.add(postId);
+			}
+		}
+		return postIds;
 	}
 
 	/**
@@ -123,17 +205,16 @@ public abstract class ForumPostVoteListener extends ListenerAdapter {
 	}
 
 	/**
-	 * Checks if a reaction event is valid for this vote listener. Note that
-	 * this method may use blocking calls to check if the user who sent the
-	 * reaction is valid.
+	 * Checks if a reaction event is valid for this vote listener.
 	 *
 	 * @param event The event to check.
 	 * @return True if the event is valid, meaning that this listener should
-	 * proceed to check the votes on the message.
+	 * count the vote.
 	 */
 	private boolean isReactionEventValid(@NotNull GenericMessageReactionEvent event) {
 		if (!event.isFromThread()) return false;
-		if (!event.getChannel().asThreadChannel().getParentChannel().getId().equals(getChannel(event.getGuild()).getId())) return false;
+		ForumChannel channel = getChannel(event.getGuild());
+		if (channel == null || event.getChannel().asThreadChannel().getParentChannel().getIdLong() != channel.getIdLong()) return false;
 		if (event.getMessageIdLong() != event.getChannel().getIdLong()) return false;
 		Emoji reaction = event.getEmoji();
 		if (
@@ -142,42 +223,101 @@ public abstract class ForumPostVoteListener extends ListenerAdapter {
 		) {
 			return false;
 		}
-
-		User user = event.getUser();
-		if (user == null) {
-			user = event.retrieveUser().complete();
-		}
-		return !user.isBot() && !user.isSystem();
+		if (event.getUserIdLong() == event.getJDA().getSelfUser().getIdLong()) return false;
+		// users which are not cached are counted, the reconciliation corrects votes by other bots
+		User user = event.getUser() == null && event.getMember() != null ? event.getMember().getUser() : event.getUser();
+		return user == null || !user.isBot() && !user.isSystem();
 	}
 
 	/**
-	 * Handles voting reaction events, including both the addition and removal
-	 * of votes. Note that this is a blocking method.
+	 * Counts an added or removed vote. If the post is not tracked yet,
+	 * its votes are fetched once instead.
 	 *
 	 * @param event The reaction event to handle.
+	 * @param delta {@code 1} if the vote has been added, {@code -1} if it has been removed.
 	 */
-	private void handleReactionEvent(GenericMessageReactionEvent event) {
-		if (isReactionEventValid(event)) {
-			Message message = event.retrieveMessage().complete();
-			checkVotes(message, event.getGuild());
+	private void handleReactionEvent(GenericMessageReactionEvent event, int delta) {
+		if (!isReactionEventValid(event)) return;
+		ThreadChannel post = event.getChannel().asThreadChannel();
+		long postId = event.getMessageIdLong();
+		if (voteTally.startSeeding(postId)) {
+			event.retrieveMessage().submit()
+					.thenCompose(this::countVotes)
+					.whenComplete((counted, err) -> {
+						if (err != null) {
+							voteTally.remove(postId);
+							return;
+						}
+						Votes votes = voteTally.seed(postId, counted.upvotes(), counted.downvotes());
+						if (votes != null) {
+							scheduleVoteCheck(post, votes);
+						}
+					});
+			return;
 		}
+		Votes votes = voteTally.add(postId, event.getEmoji().equals(getUpvoteEmote(jda)), delta);
+		if (votes != null) {
+			scheduleVoteCheck(post, votes);
+		}
+	}
+
+	/**
+	 * Counts the votes of a post by fetching every user who voted.
+	 * Like reaction events, votes of bots and system users are not counted.
+	 *
+	 * @param message The message starting the post.
+	 * @return A {@link CompletableFuture} which is completed with the {@link Votes} of the post.
+	 */
+	private CompletableFuture<Votes> countVotes(Message message) {
+		return countVotes(message, getUpvoteEmote(jda))
+				.thenCombine(countVotes(message, getDownvoteEmote(jda)), Votes::new);
 	}
 
-	private void checkVotes(Message msg, @NotNull Guild guild) {
-		Emoji upvoteId = getUpvoteEmote(guild.getJDA());
-		Emoji downvoteId = getDownvoteEmote(guild.getJDA());
+	private CompletableFuture<Integer> countVotes(Message message, Emoji emoji) {
+		MessageReaction reaction = message.getReaction(emoji);
+		if (reaction == null) {
+			return CompletableFuture.completedFuture(0);
+		}
+		AtomicInteger votes = new AtomicInteger();
+		return reaction.retrieveUsers()
+				.forEachAsync(user -> {
+					if (!user.isBot() && !user.isSystem()) {
+						votes.incrementAndGet();
+					}
+					return true;
+				})
+				.thenApply(unused -> votes.get());
+	}
 
-		int upvotes = StringUtils.countReactions(msg, upvoteId);
-		int downvotes = StringUtils.countReactions(msg, downvoteId);
-		int downvoteDifference = downvotes - upvotes;
+	private static Throwable unwrap(Throwable err) {
+		return err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+	}
 
-		if (downvoteDifference >= getMessageDeleteVoteThreshold(guild)) {
-			msg.getChannel().asThreadChannel().getManager().setArchived(true).setLocked(true).queue();
-			msg.getAuthor().openPrivateChannel()
-					.queue(
-							s -> s.sendMessageFormat("Your post %s in %s has been closed due to community feedback.", msg.getChannel().getAsMention(), getChannel(guild).getAsMention()).queue(),
-							e -> {}
-					);
+	/**
+	 * Checks the votes of a post after a short delay, if it has enough downvotes to be closed.
+	 * All votes cast in the meantime are checked at once, so the post is only edited once.
+	 *
+	 * @param post  The post.
+	 * @param votes The current votes of the post.
+	 */
+	private void scheduleVoteCheck(ThreadChannel post, Votes votes) {
+		if (votes.getDownvoteDifference() >= getMessageDeleteVoteThreshold(post.getGuild()) && pendingVoteChecks.add(post.getIdLong())) {
+			asyncPool.schedule(() -> {
+				pendingVoteChecks.remove(post.getIdLong());
+				checkVotes(post);
+			}, VOTE_CHECK_DELAY, TimeUnit.SECONDS);
 		}
 	}
+
+	private void checkVotes(ThreadChannel post) {
+		Votes votes = voteTally.get(post.getIdLong());
+		if (post.isArchived() || votes == null || votes.getDownvoteDifference() < getMessageDeleteVoteThreshold(post.getGuild())) return;
+		voteTally.remove(post.getIdLong());
+		post.getManager().setArchived(true).setLocked(true).queue();
+		jda.openPrivateChannelById(post.getOwnerIdLong())
+				.queue(
+						s -> s.sendMessageFormat("Your post %s in %s has been closed due to community feedback.", post.getAsMention(), getChannel(post.getGuild()).getAsMention()).queue(),
+						e -> {}
+				);
+	}
 }
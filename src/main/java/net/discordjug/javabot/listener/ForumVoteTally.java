@@ -0,0 +1,146 @@
+package net.discordjug.javabot.listener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the votes of forum posts, so that reaction events don't require fetching every user who voted.
+ * <p>
+ * A post is seeded once with the counts of its reactions and then updated with every added or removed vote.
+ * Votes cast while a post is being seeded are ignored, as they are usually part of the fetched counts already.
+ * All updates of a post are atomic, so concurrent events can't get lost.
+ * Posts whose votes changed since they were last reconciled are marked as changed.
+ */
+class ForumVoteTally {
+	private static final Votes SEEDING = new Votes(0, 0);
+
+	private final Cache<Long, Votes> posts = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterAccess(6, TimeUnit.HOURS)
+			.build();
+	private final Set<Long> changedPosts = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Marks a post as being seeded, if it isn't tracked yet.
+	 *
+	 * @param postId The ID of the post.
+	 * @return {@code true} if the post wasn't tracked and the caller should seed it, else {@code false}.
+	 */
+	boolean startSeeding(long postId) {
+		return posts.asMap().putIfAbsent(postId, SEEDING) == null;
+	}
+
+	/**
+	 * Sets the initial votes of a post which is being seeded.
+	 *
+	 * @param postId    The ID of the post.
+	 * @param upvotes   The number of upvotes.
+	 * @param downvotes The number of downvotes.
+	 * @return The current {@link Votes} of the post, or {@code null} if the post is not tracked anymore.
+	 */
+	Votes seed(long postId, int upvotes, int downvotes) {
+		return posts.asMap().computeIfPresent(postId, (id, votes) -> votes == SEEDING ? new Votes(upvotes, downvotes) : votes);
+	}
+
+	/**
+	 * Adds or removes a vote.
+	 *
+	 * @param postId The ID of the post.
+	 * @param upvote Whether the vote is an upvote.
+	 * @param delta  {@code 1} if the vote has been added, {@code -1} if it has been removed.
+	 * @return The updated {@link Votes} of the post, or {@code null} if the post has not been seeded yet.
+	 */
+	Votes add(long postId, boolean upvote, int delta) {
+		Votes updated = posts.asMap().computeIfPresent(postId, (id, votes) -> {
+			if (votes == SEEDING) {
+				return votes;
+			}
+			changedPosts.add(id);
+			return upvote
+					? new Votes(Math.max(0, votes.upvotes() + delta), votes.downvotes())
+					: new Votes(votes.upvotes(), Math.max(0, votes.downvotes() + delta));
+		});
+		return updated == SEEDING ? null : updated;
+	}
+
+	/**
+	 * Replaces the votes of a tracked post with the actual counts.
+	 *
+	 * @param postId    The ID of the post.
+	 * @param upvotes   The actual number of upvotes.
+	 * @param downvotes The actual number of downvotes.
+	 * @return The {@link Votes} before the correction, or {@code null} if the post has not been seeded.
+	 */
+	Votes reconcile(long postId, int upvotes, int downvotes) {
+		Votes actual = new Votes(upvotes, downvotes);
+		Votes[] previous = new Votes[1];
+		posts.asMap().computeIfPresent(postId, (id, votes) -> {
+			previous[0] = votes;
+			return votes == SEEDING ? votes : actual;
+		});
+		return previous[0] == SEEDING ? null : previous[0];
+	}
+
+	/**
+	 * Gets the votes of a post.
+	 *
+	 * @param postId The ID of the post.
+	 * @return The {@link Votes} of the post, or {@code null} if it has not been seeded.
+	 */
+	Votes get(long postId) {
+		Votes votes = posts.getIfPresent(postId);
+		return votes == SEEDING ? null : votes;
+	}
+
+	/**
+	 * Stops tracking a post.
+	 *
+	 * @param postId The ID of the post.
+	 */
+	void remove(long postId) {
+		posts.invalidate(postId);
+		changedPosts.remove(postId);
+	}
+
+	/**
+	 * Gets the IDs of all posts whose votes changed since this method was last called, and clears their changed mark.
+	 * Posts with votes changing after this call are marked again, so they are returned by the next call.
+	 *
+	 * @return A snapshot of the IDs of the changed posts.
+	 */
+	Set<Long> takeChangedPostIds() {
+		Set<Long> postIds = Set.copyOf(changedPosts);
+		changedPosts.removeAll(postIds);
+		return postIds;
+	}
+
+	/**
+	 * Gets the IDs of all tracked posts.
+	 *
+	 * @return A snapshot of the IDs of the tracked posts.
+	 */
+	Set<Long> getPostIds() {
+		return Set.copyOf(posts.asMap().keySet());
+	}
+
+	/**
+	 * The votes of a post, not counting the reactions of the bot.
+	 *
+	 * @param upvotes   The number of upvotes.
+	 * @param downvotes The number of downvotes.
+	 */
+	record Votes(int upvotes, int downvotes) {
+		/**
+		 * Gets how many more downvotes than upvotes the post has.
+		 *
+		 * @return The number of downvotes minus the number of upvotes.
+		 */
+		int getDownvoteDifference() {
+			return downvotes - upvotes;
+		}
+	}
+}
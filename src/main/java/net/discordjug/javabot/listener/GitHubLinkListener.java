@@ -1,87 +1,68 @@
 package net.discordjug.javabot.listener;
 
-import xyz.dynxsty.dih4jda.util.Pair;
+import lombok.RequiredArgsConstructor;
+import net.discordjug.javabot.systems.github.GitHubSnippetService;
+import net.discordjug.javabot.systems.github.GitHubSnippetService.Snippet;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.InteractionUtils;
 import net.discordjug.javabot.util.StringUtils;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.net.URLConnection;
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Listens for GitHub Links and sends the code snippet if it found one.
  */
+@RequiredArgsConstructor
 public class GitHubLinkListener extends ListenerAdapter {
+	private static final String TRUNCATION_NOTICE = "\n...";
 
-	private final Pattern GITHUB_LINK_PATTERN = Pattern.compile("https:?//github\\.com/([A-Za-z0-9\\-_.]+)/([A-Za-z0-9\\-_.]+)/(?:blob|tree)/(\\S+?)/(\\S+?)(\\.\\S+)?#L(\\d+)[-~]?L?(\\d*)");
+	private final GitHubSnippetService snippetService;
 
 	@Override
 	public void onMessageReceived(@NotNull MessageReceivedEvent event) {
 		if (event.getAuthor().isBot() || event.getAuthor().isSystem()) return;
-		Matcher matcher = GITHUB_LINK_PATTERN.matcher(event.getMessage().getContentRaw());
-		if (matcher.find()) {
-			Pair<String, String> content = parseGithubUrl(matcher.group());
-			if (!content.getFirst().isBlank() && !content.getSecond().isBlank()) {
-				event.getMessage().reply(String.format("```%s\n%s\n```", content.getSecond(), StringUtils.standardSanitizer().compute(content.getFirst())))
-						.setAllowedMentions(List.of())
-						.setActionRow(InteractionUtils.createDeleteButton(event.getAuthor().getIdLong()), Button.link(matcher.group(), "View on GitHub"))
-						.queue();
+		Message message = event.getMessage();
+		snippetService.getSnippets(message.getContentRaw()).whenComplete((snippets, err) -> {
+			if (err != null) {
+				ExceptionLogger.capture(err, getClass().getSimpleName());
+				return;
 			}
-		}
+			for (Snippet snippet : snippets) {
+				// this runs on the snippet executor, so failures would be dropped silently
+				try {
+					message.reply(formatSnippet(snippet))
+							.setAllowedMentions(List.of())
+							.setActionRow(InteractionUtils.createDeleteButton(event.getAuthor().getIdLong()), Button.link(snippet.link().url(), "View on GitHub"))
+							.queue();
+				} catch (IllegalArgumentException e) {
+					ExceptionLogger.capture(e, getClass().getSimpleName());
+				}
+			}
+		});
 	}
 
 	/**
-	 * Gets the contents of a GitHub URL.
+	 * Formats a snippet as a code block, truncating it at a line break to fit into a single message.
 	 *
-	 * @param link The initial input url.
-	 * @return A {@link Pair} containing the files content & extension.
+	 * @param snippet The {@link Snippet}.
+	 * @return The message content.
 	 */
-	@Contract("_ -> new")
-	private @NotNull Pair<String, String> parseGithubUrl(@NotNull String link) {
-		String[] arr = link.split("/");
-		// Removes all unnecessary elements
-		String[] segments = Arrays.copyOfRange(arr, 3, arr.length);
-		// The file name, split by "."
-		String[] file = segments[segments.length - 1].split("\\.");
-		Integer[] lines = Arrays.stream(file[1].split("L"))
-				.map(line -> line.replace("-", ""))
-				.filter(line -> line.matches("-?\\d+")) // check if the given link is a number
-				.map(Integer::valueOf).sorted().toArray(Integer[]::new);
-		if (lines.length == 0) {
-			return new Pair<>("", "");
-		}
-		int to = lines.length != 2 ? lines[0] : lines[1];
-		String reqUrl = String.format("https://raw.githubusercontent.com/%s/%s/%s/%s",
-				segments[0], segments[1],
-				String.join("/", Arrays.copyOfRange(segments, 3, segments.length - 1)),
-				segments[segments.length - 1]);
-		String content;
-		try {
-			content = this.getContentFromRawGitHubUrl(reqUrl, lines[0], to);
-		} catch (IOException e) {
-			ExceptionLogger.capture(e, getClass().getSimpleName());
-			content = e.getMessage();
+	static String formatSnippet(Snippet snippet) {
+		String prefix = "```" + snippet.link().getExtension() + "\n";
+		String suffix = "\n```";
+		String code = StringUtils.standardSanitizer().compute(snippet.content());
+		int maxLength = Message.MAX_CONTENT_LENGTH - prefix.length() - suffix.length();
+		if (code.length() > maxLength) {
+			int end = maxLength - TRUNCATION_NOTICE.length();
+			int lineEnd = code.lastIndexOf('\n', end);
+			code = code.substring(0, lineEnd > 0 ? lineEnd : end) + TRUNCATION_NOTICE;
 		}
-		if (content.equals(reqUrl)) content = "Unable to fetch content.";
-		return new Pair<>(content, file[file.length - 1].split("#")[0]);
-	}
-
-	private String getContentFromRawGitHubUrl(String reqUrl, int from, int to) throws IOException {
-		URLConnection connection = new URL(reqUrl).openConnection();
-		BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-		return StringUtils.fromBufferedReader(reader, from, to);
+		return prefix + code + suffix;
 	}
 }
@@ -1,8 +1,9 @@
 package net.discordjug.javabot.listener;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import net.discordjug.javabot.data.config.BotConfig;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
 
@@ -12,8 +13,8 @@ import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
  */
 public class JobChannelVoteListener extends ForumPostVoteListener {
 
-	public JobChannelVoteListener(BotConfig botConfig, ExecutorService asyncPool) {
-		super(botConfig, asyncPool);
+	public JobChannelVoteListener(BotConfig botConfig, ScheduledExecutorService asyncPool, JDA jda) {
+		super(botConfig, asyncPool, jda);
 	}
 
 	@Override
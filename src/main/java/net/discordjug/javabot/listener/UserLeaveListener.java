@@ -6,6 +6,7 @@ import net.discordjug.javabot.data.config.GuildConfig;
 import net.discordjug.javabot.data.config.guild.HelpConfig;
 import net.discordjug.javabot.data.h2db.DbActions;
 import net.discordjug.javabot.systems.help.HelpManager;
+import net.discordjug.javabot.systems.help.HelpPostActivityStore;
 import net.discordjug.javabot.systems.help.dao.HelpAccountRepository;
 import net.discordjug.javabot.systems.help.dao.HelpTransactionRepository;
 import net.discordjug.javabot.systems.user_preferences.UserPreferenceService;
@@ -33,6 +34,7 @@ public class UserLeaveListener extends ListenerAdapter {
 	private final HelpAccountRepository helpAccountRepository;
 	private final HelpTransactionRepository helpTransactionRepository;
 	private final UserPreferenceService userPreferenceService;
+	private final HelpPostActivityStore activityStore;
 
 	@Override
 	public void onGuildMemberRemove(@NotNull GuildMemberRemoveEvent event) {
@@ -86,7 +88,7 @@ public class UserLeaveListener extends ListenerAdapter {
 	}
 
 	private void unreserveHelpChannel(ThreadChannel post) {
-		HelpManager manager = new HelpManager(post, dbActions, botConfig, helpAccountRepository, helpTransactionRepository, userPreferenceService);
+		HelpManager manager = new HelpManager(post, dbActions, botConfig, helpAccountRepository, helpTransactionRepository, userPreferenceService, activityStore);
 		manager.close(UserSnowflake.fromId(post.getGuild().getSelfMember().getIdLong()), "User left the server");
 	}
 }
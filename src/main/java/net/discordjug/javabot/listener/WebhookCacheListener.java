@@ -0,0 +1,17 @@
+package net.discordjug.javabot.listener;
+
+import net.discordjug.javabot.util.WebhookUtil;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Removes the cached webhooks of deleted channels from {@link WebhookUtil}.
+ */
+public class WebhookCacheListener extends ListenerAdapter {
+	@Override
+	public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+		WebhookUtil.invalidateWebhook(event.getChannel().getIdLong());
+	}
+}
@@ -0,0 +1,320 @@
+package net.discordjug.javabot.systems.github;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves links to lines of files on GitHub to the content of these lines.
+ * <p>
+ * Files are downloaded from {@code raw.githubusercontent.com} on a small, bounded thread pool, so message events
+ * are never blocked by the network. Downloaded files are cached together with the offsets of their lines, so
+ * any other range of lines of the same file is served without downloading it again. Files which do not exist
+ * or are larger than {@link #MAX_FILE_SIZE} are cached as not found, while other failures (like timeouts) are
+ * retried on the next request.
+ */
+@Slf4j
+@Service
+public class GitHubSnippetService {
+	private static final Pattern GITHUB_LINK_PATTERN = Pattern.compile("https:?//github\\.com/([A-Za-z0-9\\-_.]+)/([A-Za-z0-9\\-_.]+)/(?:blob|tree)/(\\S+?)/(\\S+?(?:\\.\\S+)?)#L(\\d{1,9})[-~]?L?(\\d{0,9})");
+	private static final URI RAW_GITHUB_URI = URI.create("https://raw.githubusercontent.com/");
+	/**
+	 * The maximum number of snippets sent for a single message.
+	 */
+	private static final int MAX_SNIPPETS_PER_MESSAGE = 3;
+	private static final int MAX_CONCURRENT_DOWNLOADS = 4;
+	private static final int MAX_QUEUED_DOWNLOADS = 32;
+	/**
+	 * The maximum number of characters of all cached files.
+	 */
+	private static final long MAX_CACHED_CHARACTERS = 32L * 1024 * 1024;
+	/**
+	 * The maximum number of bytes downloaded for a single file.
+	 */
+	private static final int MAX_FILE_SIZE = 1024 * 1024;
+	private static final Duration FILE_EXPIRY = Duration.ofHours(1);
+	private static final Duration NOT_FOUND_EXPIRY = Duration.ofMinutes(10);
+
+	private final URI baseUri;
+	private final Duration timeout;
+	private final int maxFileSize;
+	private final ThreadPoolExecutor executor;
+	private final HttpClient client;
+	private final AsyncCache<FileKey, SourceFile> files;
+
+	/**
+	 * Creates the service downloading files from {@code raw.githubusercontent.com}.
+	 */
+	public GitHubSnippetService() {
+		this(RAW_GITHUB_URI, Duration.ofSeconds(5), MAX_FILE_SIZE);
+	}
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param baseUri The URI files are downloaded from, followed by {@code owner/repo/ref/path}.
+	 * @param timeout The timeout for connecting to the server and for receiving a file.
+	 * @param maxFileSize The maximum number of bytes downloaded for a single file.
+	 */
+	GitHubSnippetService(URI baseUri, Duration timeout, int maxFileSize) {
+		this.baseUri = baseUri;
+		this.timeout = timeout;
+		this.maxFileSize = maxFileSize;
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(MAX_CONCURRENT_DOWNLOADS, MAX_CONCURRENT_DOWNLOADS, 1, TimeUnit.MINUTES,
+				new ArrayBlockingQueue<>(MAX_QUEUED_DOWNLOADS), runnable -> {
+					Thread thread = new Thread(runnable, "github-snippets-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		client = HttpClient.newBuilder()
+				.connectTimeout(timeout)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build();
+		files = Caffeine.newBuilder()
+				.maximumWeight(MAX_CACHED_CHARACTERS)
+				.<FileKey, SourceFile>weigher((key, file) -> file.content().length())
+				.expireAfter(new Expiry<FileKey, SourceFile>() {
+					@Override
+					public long expireAfterCreate(FileKey key, SourceFile file, long currentTime) {
+						return (file == SourceFile.NOT_FOUND ? NOT_FOUND_EXPIRY : FILE_EXPIRY).toNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(FileKey key, SourceFile file, long currentTime, long currentDuration) {
+						return expireAfterCreate(key, file, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(FileKey key, SourceFile file, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.buildAsync();
+	}
+
+	/**
+	 * Finds all distinct links to lines of files on GitHub in a message.
+	 *
+	 * @param content The content of the message.
+	 * @return The {@link SnippetLink}s in the order they appear in the message.
+	 */
+	public List<SnippetLink> findLinks(@NotNull String content) {
+		Set<SnippetLink> links = new LinkedHashSet<>();
+		Matcher matcher = GITHUB_LINK_PATTERN.matcher(content);
+		while (links.size() < MAX_SNIPPETS_PER_MESSAGE && matcher.find()) {
+			int from = Integer.parseInt(matcher.group(5));
+			int to = matcher.group(6).isEmpty() ? from : Integer.parseInt(matcher.group(6));
+			FileKey file = new FileKey(matcher.group(1), matcher.group(2), matcher.group(3), matcher.group(4));
+			links.add(new SnippetLink(matcher.group(), file, Math.min(from, to), Math.max(from, to)));
+		}
+		return new ArrayList<>(links);
+	}
+
+	/**
+	 * Gets the snippets of all distinct links to lines of files on GitHub in a message.
+	 * Every file is downloaded at most once, even if multiple lines of it are linked.
+	 *
+	 * @param content The content of the message.
+	 * @return A {@link CompletableFuture} which is completed with all snippets that could be resolved,
+	 * in the order they appear in the message.
+	 */
+	public CompletableFuture<List<Snippet>> getSnippets(@NotNull String content) {
+		List<CompletableFuture<Optional<Snippet>>> snippets = findLinks(content).stream()
+				.map(link -> getSnippet(link).exceptionally(err -> {
+					log.warn("Could not fetch GitHub snippet {}: {}", link.url(), err.getMessage());
+					return Optional.empty();
+				}))
+				.toList();
+		return CompletableFuture.allOf(snippets.toArray(CompletableFuture[]::new))
+				.thenApply(unused -> snippets.stream()
+						.map(CompletableFuture::join)
+						.flatMap(Optional::stream)
+						.toList());
+	}
+
+	/**
+	 * Gets the lines of a file on GitHub.
+	 *
+	 * @param link The link to the lines.
+	 * @return A {@link CompletableFuture} which is completed with the snippet, or with an empty {@link Optional}
+	 * if the file does not exist or does not contain the lines.
+	 */
+	public CompletableFuture<Optional<Snippet>> getSnippet(@NotNull SnippetLink link) {
+		CompletableFuture<SourceFile> sourceFile = files.get(link.file(), (key, cacheExecutor) -> download(key));
+		return sourceFile
+				.whenComplete((file, err) -> {
+					// failures are not cached, this makes sure that the next request downloads the file again
+					if (err != null) {
+						files.asMap().remove(link.file(), sourceFile);
+					}
+				})
+				.thenApply(file -> {
+					String lines = file.getLines(link.from(), link.to());
+					return lines.isBlank() ? Optional.empty() : Optional.of(new Snippet(link, lines));
+				});
+	}
+
+	private CompletableFuture<SourceFile> download(FileKey key) {
+		try {
+			return CompletableFuture.supplyAsync(() -> fetch(key), executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private SourceFile fetch(FileKey key) {
+		HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(key.getRawPath()))
+				.timeout(timeout)
+				.build();
+		try {
+			HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+			// closing the body before it has been read completely aborts the download
+			try (InputStream body = response.body()) {
+				return switch (response.statusCode()) {
+					case 200 -> readFile(key, response, body);
+					case 404 -> SourceFile.NOT_FOUND;
+					default -> throw new CompletionException(new IOException("Received status code " + response.statusCode()));
+				};
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(e);
+		}
+	}
+
+	private SourceFile readFile(FileKey key, HttpResponse<InputStream> response, InputStream body) throws IOException {
+		long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+		if (contentLength > maxFileSize) {
+			log.info("Not downloading GitHub file {} with {} bytes", key.getRawPath(), contentLength);
+			return SourceFile.NOT_FOUND;
+		}
+		// the Content-Length is missing if the file is compressed or sent in chunks
+		byte[] bytes = body.readNBytes(maxFileSize + 1);
+		if (bytes.length > maxFileSize) {
+			log.info("Not downloading GitHub file {} with more than {} bytes", key.getRawPath(), maxFileSize);
+			return SourceFile.NOT_FOUND;
+		}
+		return SourceFile.of(new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * A file in a GitHub repository.
+	 *
+	 * @param owner The owner of the repository.
+	 * @param repo  The name of the repository.
+	 * @param ref   The branch, tag or commit.
+	 * @param path  The path of the file in the repository.
+	 */
+	public record FileKey(String owner, String repo, String ref, String path) {
+		private String getRawPath() {
+			return String.join("/", owner, repo, ref, path);
+		}
+	}
+
+	/**
+	 * A link to lines of a file on GitHub.
+	 *
+	 * @param url  The link.
+	 * @param file The linked file.
+	 * @param from The first linked line, starting at 1.
+	 * @param to   The last linked line (inclusive).
+	 */
+	public record SnippetLink(String url, FileKey file, int from, int to) {
+		/**
+		 * Gets the extension of the linked file, which is used for highlighting the snippet.
+		 *
+		 * @return The extension of the file, or an empty String if it has none.
+		 */
+		public String getExtension() {
+			String name = file.path().substring(file.path().lastIndexOf('/') + 1);
+			int index = name.lastIndexOf('.');
+			return index == -1 ? "" : name.substring(index + 1);
+		}
+	}
+
+	/**
+	 * The linked lines of a file on GitHub.
+	 *
+	 * @param link    The {@link SnippetLink}.
+	 * @param content The content of the lines.
+	 */
+	public record Snippet(SnippetLink link, String content) {
+	}
+
+	/**
+	 * A downloaded file and the offsets of its lines.
+	 *
+	 * @param content    The content of the file with normalized line endings.
+	 * @param lineStarts The offset of the first character of each line.
+	 */
+	record SourceFile(String content, int[] lineStarts) {
+		static final SourceFile NOT_FOUND = new SourceFile("", new int[0]);
+
+		static SourceFile of(String content) {
+			String normalized = content.replace("\r\n", "\n");
+			int[] lineStarts = new int[64];
+			int lineCount = 0;
+			int start = 0;
+			while (start < normalized.length()) {
+				if (lineCount == lineStarts.length) {
+					lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+				}
+				lineStarts[lineCount++] = start;
+				int end = normalized.indexOf('\n', start);
+				start = end == -1 ? normalized.length() : end + 1;
+			}
+			return new SourceFile(normalized, Arrays.copyOf(lineStarts, lineCount));
+		}
+
+		/**
+		 * Gets a range of lines.
+		 *
+		 * @param from The first line, starting at 1.
+		 * @param to   The last line (inclusive).
+		 * @return The lines, each followed by a line break, or an empty String if the file has none of these lines.
+		 */
+		String getLines(int from, int to) {
+			int first = Math.max(from, 1) - 1;
+			int last = Math.min(to, lineStarts.length);
+			if (first >= last) {
+				return "";
+			}
+			int end = last < lineStarts.length ? lineStarts[last] : content.length();
+			String lines = content.substring(lineStarts[first], end);
+			return lines.endsWith("\n") ? lines : lines + "\n";
+		}
+	}
+}
@@ -11,8 +11,8 @@ import net.discordjug.javabot.systems.help.model.HelpTransaction;
 import net.discordjug.javabot.systems.user_commands.leaderboard.ExperienceLeaderboardSubcommand;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.ImageCache;
-import net.discordjug.javabot.util.Pair;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 
@@ -21,10 +21,14 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class that handles Help Experience Transactions.
@@ -36,6 +40,7 @@ public class HelpExperienceService {
 	private final BotConfig botConfig;
 	private final HelpAccountRepository helpAccountRepository;
 	private final HelpTransactionRepository helpTransactionRepository;
+	private final HelpPostActivityStore activityStore;
 
 	/**
 	 * Creates a new Help Account if none exists.
@@ -84,39 +89,66 @@ public class HelpExperienceService {
 	 * @param channelId The ID of the channel the transaction should be performed in
 	 * @throws DataAccessException If an error occurs.
 	 */
-	@Transactional
 	public void performTransaction(long recipient, double value, Guild guild, long channelId) throws DataAccessException {
 		if (value == 0) {
 			log.error("Cannot make zero-value transactions");
 			return;
 		}
-		HelpTransaction transaction = new HelpTransaction();
-		transaction.setRecipient(recipient);
-		transaction.setWeight(value);
-		transaction.setChannelId(channelId);
-		HelpAccount account = getOrCreateAccount(recipient);
-		account.updateExperience(value);
-		helpAccountRepository.update(account);
-		helpTransactionRepository.save(transaction);
-		checkExperienceRoles(guild, account);
-		log.info("Added {} help experience to {}'s help account", value, recipient);
+		performTransactions(Map.of(recipient, value), guild, channelId);
+	}
+
+	/**
+	 * Performs one transaction for each recipient in a single database transaction.
+	 * The experience roles of all recipients are updated and the leaderboard cache is invalidated afterwards.
+	 *
+	 * @param experience The recipients' user ids as the key and the transactions' values as the value.
+	 *                   Zero-value transactions are ignored.
+	 * @param guild      The current guild.
+	 * @param channelId  The ID of the channel the transactions should be performed in
+	 * @throws DataAccessException If an error occurs.
+	 */
+	public void performTransactions(Map<Long, Double> experience, Guild guild, long channelId) throws DataAccessException {
+		List<HelpTransaction> transactions = new ArrayList<>(experience.size());
+		experience.forEach((recipient, value) -> {
+			if (value != 0) {
+				HelpTransaction transaction = new HelpTransaction();
+				transaction.setRecipient(recipient);
+				transaction.setWeight(value);
+				transaction.setChannelId(channelId);
+				transactions.add(transaction);
+			}
+		});
+		if (transactions.isEmpty()) {
+			return;
+		}
+		List<HelpAccount> accounts = helpTransactionRepository.performTransactions(transactions);
+		log.info("Added help experience to {} help accounts in channel {}", accounts.size(), channelId);
+		checkExperienceRoles(guild, accounts);
 		ImageCache.removeCachedImagesByKeyword(ExperienceLeaderboardSubcommand.CACHE_PREFIX);
 	}
 
-	private void checkExperienceRoles(@NotNull Guild guild, @NotNull HelpAccount account) {
-		guild.retrieveMemberById(account.getUserId()).queue(member ->
-				botConfig.get(guild).getHelpConfig().getExperienceRoles().forEach((key, value) -> {
-					Pair<Role, Double> role = account.getCurrentExperienceGoal(botConfig, guild);
-					if (role.first() == null) return;
-					if (key.equals(role.first().getIdLong())) {
-						guild.addRoleToMember(member, role.first()).queue();
-					} else {
-						Role remove = guild.getRoleById(key);
-						if (remove != null) {
-							guild.removeRoleFromMember(member, remove).queue();
-						}
+	private void checkExperienceRoles(@NotNull Guild guild, @NotNull List<HelpAccount> accounts) {
+		Map<Long, Double> experienceRoles = botConfig.get(guild).getHelpConfig().getExperienceRoles();
+		if (experienceRoles.isEmpty()) {
+			return;
+		}
+		Map<Long, HelpAccount> accountsById = accounts.stream().collect(Collectors.toMap(HelpAccount::getUserId, Function.identity()));
+		guild.retrieveMembersByIds(accountsById.keySet()).onSuccess(members -> {
+			for (Member member : members) {
+				Role current = accountsById.get(member.getIdLong()).getCurrentExperienceGoal(botConfig, guild).first();
+				if (current == null) continue;
+				for (Long roleId : experienceRoles.keySet()) {
+					Role role = guild.getRoleById(roleId);
+					if (role == null) continue;
+					boolean hasRole = member.getRoles().contains(role);
+					if (role.equals(current) && !hasRole) {
+						guild.addRoleToMember(member, role).queue();
+					} else if (!role.equals(current) && hasRole) {
+						guild.removeRoleFromMember(member, role).queue();
 					}
-				}), e -> {});
+				}
+			}
+		});
 	}
 
 	/**
@@ -126,14 +158,27 @@ public class HelpExperienceService {
 	 * @param allowIfXPAlreadyGiven {@code true} if XP should be awarded if XP have already been awarded
 	 */
 	public void addMessageBasedHelpXP(ThreadChannel post, boolean allowIfXPAlreadyGiven) {
+		addMessageBasedHelpXP(post, allowIfXPAlreadyGiven, Map.of());
+	}
+
+	/**
+	 * add XP to all helpers depending on the messages they sent, together with additional XP for the same post.
+	 * All XP is awarded in a single transaction.
+	 *
+	 * @param post The {@link ThreadChannel} post
+	 * @param allowIfXPAlreadyGiven {@code true} if message-based XP should be awarded if XP have already been awarded
+	 * @param additionalExperience Additional XP per user id, e.g. for being thanked, which is always awarded
+	 */
+	public void addMessageBasedHelpXP(ThreadChannel post, boolean allowIfXPAlreadyGiven, Map<Long, Double> additionalExperience) {
 		HelpConfig config = botConfig.get(post.getGuild()).getHelpConfig();
 		try {
-			Map<Long, Double> experience = HelpManager.calculateExperience(HelpListener.HELP_POST_MESSAGES.get(post.getIdLong()), post.getOwnerIdLong(), config);
-			for (Map.Entry<Long, Double> entry : experience.entrySet()) {
-				if(entry.getValue()>0 && (allowIfXPAlreadyGiven||!helpTransactionRepository.existsTransactionWithRecipientInChannel(entry.getKey(), post.getIdLong()))) {
-					performTransaction(entry.getKey(), entry.getValue(), config.getGuild(), post.getIdLong());
-				}
+			Map<Long, Double> experience = new HashMap<>(activityStore.getExperience(post.getIdLong(), config.getMaxExperiencePerChannel()));
+			experience.values().removeIf(value -> value <= 0);
+			if (!allowIfXPAlreadyGiven && !experience.isEmpty()) {
+				experience.keySet().removeAll(helpTransactionRepository.getRecipientsInChannel(post.getIdLong()));
 			}
+			additionalExperience.forEach((recipient, value) -> experience.merge(recipient, value, Double::sum));
+			performTransactions(experience, config.getGuild(), post.getIdLong());
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getName());
 		}
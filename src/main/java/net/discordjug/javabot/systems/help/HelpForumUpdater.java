@@ -11,48 +11,259 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateArchivedEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateLockedEvent;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.TimeUtil;
 
 import org.jetbrains.annotations.NotNull;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Loops through all guilds and updates the corresponding help forum channel, closing inactive ones.
+ * Closes inactive posts in the help forum channels.
+ * <p>
+ * The time of the last message of every open post is tracked from message events. The posts are kept in a
+ * priority queue ordered by the time they become dormant, so only posts which are due are checked and no message
+ * history has to be requested. The history is only requested for posts whose last message is unknown, i.e. after
+ * (re)connecting or after the last message has been deleted.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class HelpForumUpdater {
+public class HelpForumUpdater extends ListenerAdapter {
 	private final JDA jda;
 	private final BotConfig botConfig;
 	private final UserPreferenceService preferenceService;
 	private final HelpExperienceService experienceService;
 
 	/**
-	 * Updates all help channels.
+	 * The last activity of all open posts, by their id.
 	 */
-	@Scheduled(cron = "0 */10 * * * *") // Run every 10 minutes
+	private final Map<Long, PostActivity> posts = new HashMap<>();
+	/**
+	 * The time each post is checked next, by the id of the post. Every post has exactly one entry in {@link #deadlines}
+	 * with this time, entries with a different time are outdated.
+	 */
+	private final Map<Long, Long> nextChecks = new HashMap<>();
+	private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparingLong(Deadline::dueAt));
+	private volatile boolean reconcileNeeded = true;
+
+	/**
+	 * Closes all help posts which became dormant.
+	 * After (re)connecting, all open posts are loaded first.
+	 */
+	@Scheduled(cron = "*/30 * * * * *") // Run every 30 seconds
 	public void execute() {
-		for (Guild guild : jda.getGuilds()) {
-			log.info("Checking for inactive forum posts in {}", guild.getName());
-			HelpConfig config = botConfig.get(guild).getHelpConfig();
-			ForumChannel forum = config.getHelpForumChannel();
-			if (forum != null) {
-				for (ThreadChannel post : forum.getThreadChannels()) {
-					if (post.isArchived() || post.isLocked()) continue;
-					checkForumPost(post, config);
-				}
+		if (reconcileNeeded && jda.getStatus() == JDA.Status.CONNECTED) {
+			reconcileNeeded = false;
+			for (Guild guild : jda.getGuilds()) {
+				reconcile(guild);
+			}
+		}
+		for (PostActivity activity : pollDuePosts(System.currentTimeMillis())) {
+			checkForumPost(activity);
+		}
+	}
+
+	@Override
+	public void onReady(@NotNull ReadyEvent event) {
+		reconcileNeeded = true;
+	}
+
+	@Override
+	public void onSessionRecreate(@NotNull SessionRecreateEvent event) {
+		// events may have been missed
+		reconcileNeeded = true;
+	}
+
+	@Override
+	public void onMessageReceived(@NotNull MessageReceivedEvent event) {
+		if (!isHelpPost(event.getChannel())) {
+			return;
+		}
+		Message message = event.getMessage();
+		record(new PostActivity(event.getChannel().getIdLong(), event.getGuild().getIdLong(), message.getIdLong(),
+				message.getTimeCreated().toInstant().toEpochMilli(), isThanksMessage(message), true));
+	}
+
+	@Override
+	public void onMessageDelete(@NotNull MessageDeleteEvent event) {
+		if (!isHelpPost(event.getChannel())) {
+			return;
+		}
+		synchronized (this) {
+			PostActivity activity = posts.get(event.getChannel().getIdLong());
+			if (activity != null && activity.lastMessageId() == event.getMessageIdLong()) {
+				// the previous message is unknown, so the history needs to be checked when the post may be dormant
+				update(activity.withUnknownLastMessage());
+			}
+		}
+	}
+
+	@Override
+	public void onChannelCreate(@NotNull ChannelCreateEvent event) {
+		if (isHelpPost(event.getChannel())) {
+			startTracking(event.getChannel().asThreadChannel(), true);
+		}
+	}
+
+	@Override
+	public void onChannelUpdateArchived(@NotNull ChannelUpdateArchivedEvent event) {
+		if (!isHelpPost(event.getChannel())) {
+			return;
+		}
+		if (Boolean.TRUE.equals(event.getNewValue())) {
+			forget(event.getChannel().getIdLong());
+		} else if (!event.getChannel().asThreadChannel().isLocked()) {
+			startTracking(event.getChannel().asThreadChannel(), false);
+		}
+	}
+
+	@Override
+	public void onChannelUpdateLocked(@NotNull ChannelUpdateLockedEvent event) {
+		if (Boolean.TRUE.equals(event.getNewValue())) {
+			forget(event.getChannel().getIdLong());
+		}
+	}
+
+	@Override
+	public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+		forget(event.getChannel().getIdLong());
+	}
+
+	private void reconcile(@NotNull Guild guild) {
+		log.info("Loading open forum posts in {}", guild.getName());
+		ForumChannel forum = botConfig.get(guild).getHelpConfig().getHelpForumChannel();
+		if (forum == null) {
+			log.warn("Could not find forum channel for guild {}", guild.getName());
+			return;
+		}
+		for (ThreadChannel post : forum.getThreadChannels()) {
+			if (post.isArchived() || post.isLocked()) continue;
+			startTracking(post, false);
+		}
+	}
+
+	/**
+	 * Starts tracking a post using the latest message known to JDA.
+	 *
+	 * @param post             The post.
+	 * @param lastMessageKnown {@code true} if the post has just been created, so no messages can have been missed
+	 */
+	private void startTracking(@NotNull ThreadChannel post, boolean lastMessageKnown) {
+		long lastMessageId = post.getLatestMessageIdLong();
+		long lastActivity = lastMessageId == 0 ?
+				post.getTimeCreated().toInstant().toEpochMilli() :
+				TimeUtil.getTimeCreated(lastMessageId).toInstant().toEpochMilli();
+		record(new PostActivity(post.getIdLong(), post.getGuild().getIdLong(), lastMessageId, lastActivity, false, lastMessageKnown));
+	}
+
+	/**
+	 * Records the activity of a post unless newer activity is already known.
+	 *
+	 * @param activity The activity.
+	 */
+	private synchronized void record(@NotNull PostActivity activity) {
+		PostActivity previous = posts.get(activity.postId());
+		if (previous != null && (previous.lastActivity() > activity.lastActivity() ||
+				previous.lastActivity() == activity.lastActivity() && previous.lastMessageKnown())) {
+			return;
+		}
+		update(activity);
+	}
+
+	private void update(@NotNull PostActivity activity) {
+		posts.put(activity.postId(), activity);
+		long dueAt = getDormantTime(activity);
+		Long nextCheck = nextChecks.get(activity.postId());
+		// later deadlines are handled when the current deadline is due
+		if (nextCheck == null || dueAt < nextCheck) {
+			schedule(activity.postId(), dueAt);
+		}
+	}
+
+	private synchronized void forget(long postId) {
+		posts.remove(postId);
+		// the entry in the queue is discarded when it is due
+		nextChecks.remove(postId);
+	}
+
+	private void schedule(long postId, long dueAt) {
+		nextChecks.put(postId, dueAt);
+		deadlines.add(new Deadline(postId, dueAt));
+	}
+
+	/**
+	 * Removes all posts which may be dormant.
+	 * Posts which received messages in the meantime are rescheduled.
+	 *
+	 * @param now The current time in milliseconds.
+	 * @return The activity of all posts which may be dormant.
+	 */
+	private synchronized @NotNull List<PostActivity> pollDuePosts(long now) {
+		List<PostActivity> due = new ArrayList<>();
+		while (!deadlines.isEmpty() && deadlines.peek().dueAt() <= now) {
+			Deadline deadline = deadlines.poll();
+			Long nextCheck = nextChecks.get(deadline.postId());
+			if (nextCheck == null || nextCheck != deadline.dueAt()) {
+				continue;
+			}
+			PostActivity activity = posts.get(deadline.postId());
+			long dueAt = getDormantTime(activity);
+			if (dueAt > now) {
+				schedule(activity.postId(), dueAt);
 			} else {
-				log.warn("Could not find forum channel for guild {}", guild.getName());
+				posts.remove(activity.postId());
+				nextChecks.remove(activity.postId());
+				due.add(activity);
 			}
 		}
+		return due;
 	}
 
-	private void checkForumPost(@NotNull ThreadChannel post, HelpConfig config) {
+	private long getDormantTime(@NotNull PostActivity activity) {
+		Guild guild = jda.getGuildById(activity.guildId());
+		if (guild == null) {
+			return activity.lastActivity();
+		}
+		HelpConfig config = botConfig.get(guild).getHelpConfig();
+		long timeout = config.getInactivityTimeoutMinutes();
+		if (activity.thanksMessage() || !activity.lastMessageKnown()) {
+			timeout = Math.min(timeout, config.getRemoveThanksTimeoutMinutes());
+		}
+		return activity.lastActivity() + TimeUnit.MINUTES.toMillis(timeout);
+	}
+
+	private void checkForumPost(@NotNull PostActivity activity) {
+		ThreadChannel post = jda.getThreadChannelById(activity.postId());
+		if (post == null || post.isArchived() || post.isLocked()) {
+			return;
+		}
+		HelpConfig config = botConfig.get(post.getGuild()).getHelpConfig();
+		if (activity.lastMessageKnown()) {
+			checkForumPost(post, config, activity);
+			return;
+		}
 		post.getHistory().retrievePast(1).queue(messages -> {
 			if (messages.isEmpty()) {
 				log.error("Could not find messages in forum thread {}", post.getId());
@@ -60,24 +271,32 @@ public class HelpForumUpdater {
 			}
 			// Simply get the first one, as we only requested a singular message
 			Message latest = messages.get(0);
-			long minutesAgo = (Instant.now().getEpochSecond() - latest.getTimeCreated().toEpochSecond()) / 60;
-			boolean isThankMessage = isThanksMessage(latest);
-			if (minutesAgo > config.getInactivityTimeoutMinutes() || minutesAgo > config.getRemoveThanksTimeoutMinutes() && isThankMessage) {
-				if (isThankMessage) {
-					latest.delete().queue();
-				}
-				post.sendMessage(config.getDormantChannelMessageTemplate().formatted(config.getInactivityTimeoutMinutes())).queue(s -> {
-					post.getManager().setArchived(true).queue();
-					sendDMDormantInfoIfEnabled(post, config);
-					experienceService.addMessageBasedHelpXP(post, false);
-					log.info("Archived forum thread '{}' (by {}) for inactivity (last message sent {} minutes ago)",
-							post.getName(), post.getOwnerId(), minutesAgo);
-					
-				});
-			}
+			PostActivity latestActivity = new PostActivity(post.getIdLong(), post.getGuild().getIdLong(), latest.getIdLong(),
+					latest.getTimeCreated().toInstant().toEpochMilli(), isThanksMessage(latest), true);
+			checkForumPost(post, config, latestActivity);
 		}, e -> log.error("Could not find latest message in forum thread {}:", post.getId(), e));
 	}
 
+	private void checkForumPost(@NotNull ThreadChannel post, HelpConfig config, @NotNull PostActivity activity) {
+		long minutesAgo = TimeUnit.MILLISECONDS.toMinutes(Instant.now().toEpochMilli() - activity.lastActivity());
+		boolean isThankMessage = activity.thanksMessage();
+		if (minutesAgo < config.getInactivityTimeoutMinutes() && !(minutesAgo >= config.getRemoveThanksTimeoutMinutes() && isThankMessage)) {
+			// the post is still active
+			record(activity);
+			return;
+		}
+		if (isThankMessage) {
+			post.deleteMessageById(activity.lastMessageId()).queue();
+		}
+		post.sendMessage(config.getDormantChannelMessageTemplate().formatted(config.getInactivityTimeoutMinutes())).queue(s -> {
+			post.getManager().setArchived(true).queue();
+			sendDMDormantInfoIfEnabled(post, config);
+			experienceService.addMessageBasedHelpXP(post, false);
+			log.info("Archived forum thread '{}' (by {}) for inactivity (last message sent {} minutes ago)",
+					post.getName(), post.getOwnerId(), minutesAgo);
+		});
+	}
+
 	private void sendDMDormantInfoIfEnabled(ThreadChannel post, HelpConfig config) {
 		if(Boolean.parseBoolean(preferenceService.getOrCreate(post.getOwnerIdLong(), Preference.PRIVATE_DORMANT_NOTIFICATIONS).getState())) {
 			post
@@ -104,8 +323,37 @@ public class HelpForumUpdater {
 				;
 	}
 
+	private boolean isHelpPost(@NotNull Channel channel) {
+		if (channel.getType() != ChannelType.GUILD_PUBLIC_THREAD) {
+			return false;
+		}
+		ThreadChannel post = (ThreadChannel) channel;
+		return post.getParentChannel().getType() == ChannelType.FORUM &&
+				post.getParentChannel().getIdLong() == botConfig.get(post.getGuild()).getHelpConfig().getHelpForumChannelId();
+	}
+
 	private boolean isThanksMessage(@NotNull Message m) {
 		return m.getAuthor().isBot() && !m.getButtons().isEmpty() &&
 				m.getButtons().stream().allMatch(b -> b.getId() != null && b.getId().contains(HelpManager.HELP_THANKS_IDENTIFIER));
 	}
+
+	/**
+	 * The last known activity in a post.
+	 *
+	 * @param postId           The id of the post.
+	 * @param guildId          The id of the guild containing the post.
+	 * @param lastMessageId    The id of the last message or {@code 0} if there is no message.
+	 * @param lastActivity     The time of the last message in milliseconds.
+	 * @param thanksMessage    Whether the last message asks the owner to thank helpers.
+	 * @param lastMessageKnown {@code false} if messages may have been missed, so the history needs to be checked
+	 *                         before the post can be closed.
+	 */
+	private record PostActivity(long postId, long guildId, long lastMessageId, long lastActivity, boolean thanksMessage, boolean lastMessageKnown) {
+		private PostActivity withUnknownLastMessage() {
+			return new PostActivity(postId, guildId, lastMessageId, lastActivity, false, false);
+		}
+	}
+
+	private record Deadline(long postId, long dueAt) {
+	}
 }
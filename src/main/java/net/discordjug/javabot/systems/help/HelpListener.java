@@ -7,6 +7,7 @@ import net.discordjug.javabot.data.config.guild.HelpConfig;
 import net.discordjug.javabot.data.h2db.DbActions;
 import net.discordjug.javabot.systems.help.dao.HelpAccountRepository;
 import net.discordjug.javabot.systems.help.dao.HelpTransactionRepository;
+import net.discordjug.javabot.systems.help.model.HelpPostMessage;
 import net.discordjug.javabot.systems.user_preferences.UserPreferenceService;
 import net.discordjug.javabot.util.InteractionUtils;
 import net.discordjug.javabot.util.Responses;
@@ -18,6 +19,8 @@ import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateArchivedEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -43,10 +46,6 @@ import java.util.*;
 })
 public class HelpListener extends ListenerAdapter implements ButtonHandler {
 
-	/**
-	 * A static Map that holds all messages that was sent in a specific reserved forum channel.
-	 */
-	static final Map<Long, List<Message>> HELP_POST_MESSAGES = new HashMap<>();
 	private static final Set<Long> newThreadChannels;
 
 	static {
@@ -60,6 +59,7 @@ public class HelpListener extends ListenerAdapter implements ButtonHandler {
 	private final HelpExperienceService experienceService;
 	private final DbActions dbActions;
 	private final AutoCodeFormatter autoCodeFormatter;
+	private final HelpPostActivityStore activityStore;
 	private final String[][] closeSuggestionDetectors = {
 			{"close", "post"},
 			{"close", "thread"},
@@ -120,13 +120,18 @@ public class HelpListener extends ListenerAdapter implements ButtonHandler {
 		if (isInvalidHelpForumChannel(post.getParentChannel().asForumChannel())) {
 			return;
 		}
-		// cache messages
-		List<Message> messages = new ArrayList<>();
-		messages.add(event.getMessage());
-		if (HELP_POST_MESSAGES.containsKey(post.getIdLong())) {
-			messages.addAll(HELP_POST_MESSAGES.get(post.getIdLong()));
+		// record message for experience and thanks
+		if (event.getAuthor().getIdLong() != post.getOwnerIdLong()) {
+			String content = event.getMessage().getContentDisplay();
+			HelpPostMessage message = new HelpPostMessage(
+					event.getAuthor().getIdLong(),
+					event.getMember() != null,
+					content.length(),
+					content.trim().length()
+			);
+			HelpConfig config = botConfig.get(event.getGuild()).getHelpConfig();
+			activityStore.recordMessage(post.getIdLong(), message, HelpManager.calculateExperience(message, post.getOwnerIdLong(), config));
 		}
-		HELP_POST_MESSAGES.put(post.getIdLong(), messages);
 		// suggest to close post on "problem solved"-messages
 		replyCloseSuggestionIfPatternMatches(event.getMessage());
 	}
@@ -145,6 +150,18 @@ public class HelpListener extends ListenerAdapter implements ButtonHandler {
 		newThreadChannels.add(event.getChannel().getIdLong());
 	}
 
+	@Override
+	public void onChannelUpdateArchived(@NotNull ChannelUpdateArchivedEvent event) {
+		if (Boolean.TRUE.equals(event.getNewValue())) {
+			activityStore.markClosed(event.getChannel().getIdLong());
+		}
+	}
+
+	@Override
+	public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+		activityStore.remove(event.getChannel().getIdLong());
+	}
+
 	private void replyCloseSuggestionIfPatternMatches(Message msg) {
 		String content = msg.getContentRaw().toLowerCase();
 		if (content.contains("```")) {
@@ -220,7 +237,8 @@ public class HelpListener extends ListenerAdapter implements ButtonHandler {
 				botConfig,
 				helpAccountRepository,
 				helpTransactionRepository,
-				preferenceService
+				preferenceService,
+				activityStore
 		);
 		switch (id[0]) {
 			case HelpManager.HELP_THANKS_IDENTIFIER ->
@@ -280,16 +298,14 @@ public class HelpListener extends ListenerAdapter implements ButtonHandler {
 		manager.close(event, false, null);
 		// delete the message
 		event.getMessage().delete().queue(s -> {
-			experienceService.addMessageBasedHelpXP(post, true);
 			// thank all helpers
-			buttons.stream()
+			List<Long> helperIds = buttons.stream()
 					.filter(ActionComponent::isDisabled)
 					.filter(b -> b.getId() != null)
-					.forEach(b -> manager.thankHelper(
-							event.getGuild(),
-							post,
-							Long.parseLong(ComponentIdBuilder.split(b.getId())[2])
-					));
+					.map(b -> Long.parseLong(ComponentIdBuilder.split(b.getId())[2]))
+					.toList();
+			Map<Long, Double> thankedExperience = manager.thankHelpers(event.getGuild(), post, helperIds);
+			experienceService.addMessageBasedHelpXP(post, true, thankedExperience);
 		});
 	}
 
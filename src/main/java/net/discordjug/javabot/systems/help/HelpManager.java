@@ -7,18 +7,17 @@ import net.discordjug.javabot.data.config.guild.HelpConfig;
 import net.discordjug.javabot.data.h2db.DbActions;
 import net.discordjug.javabot.systems.help.dao.HelpAccountRepository;
 import net.discordjug.javabot.systems.help.dao.HelpTransactionRepository;
+import net.discordjug.javabot.systems.help.model.HelpPostMessage;
 import net.discordjug.javabot.systems.user_preferences.UserPreferenceService;
 import net.discordjug.javabot.systems.user_preferences.model.Preference;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.MessageActionUtils;
 import net.discordjug.javabot.util.Responses;
-import net.discordjug.javabot.util.UserUtils;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.UserSnowflake;
 import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
@@ -38,10 +37,11 @@ import xyz.dynxsty.dih4jda.util.ComponentIdBuilder;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Manages all interactions regarding the help forum system.
@@ -71,6 +71,7 @@ public class HelpManager {
 
 	private final HelpTransactionRepository helpTransactionRepository;
 	private final UserPreferenceService preferenceService;
+	private final HelpPostActivityStore activityStore;
 
 	/**
 	 * Builds and replies {@link ActionRow}s with all members which helped the
@@ -168,38 +169,40 @@ public class HelpManager {
 	}
 	
 	/**
-	 * Thanks a single user.
+	 * Records that the owner of a post thanked some of its helpers.
+	 * The experience for being thanked is not awarded by this method.
 	 *
-	 * @param guild The {@link Guild} the helper is thanked in
+	 * @param guild      The {@link Guild} the helpers are thanked in
 	 * @param postThread The {@link ThreadChannel} post.
-	 * @param helperId   The helpers' discord id.
+	 * @param helperIds  The helpers' discord ids.
+	 * @return The ids of all helpers whose thanks have been recorded as the key and the experience
+	 * they earn for being thanked as the value.
 	 */
-	public void thankHelper(@NotNull Guild guild, ThreadChannel postThread, long helperId) {
-		guild.getJDA().retrieveUserById(helperId).queue(helper -> {
-			// First insert the new thanks data.
+	public Map<Long, Double> thankHelpers(@NotNull Guild guild, ThreadChannel postThread, @NotNull Collection<Long> helperIds) {
+		HelpConfig config = botConfig.get(guild).getHelpConfig();
+		Map<Long, Double> experience = new HashMap<>();
+		for (long helperId : helperIds) {
 			try {
 				dbActions.update(
 						"INSERT INTO help_channel_thanks (reservation_id, user_id, channel_id, helper_id) VALUES (?, ?, ?, ?)",
 						postThread.getIdLong(),
 						postThread.getOwnerIdLong(),
 						postThread.getIdLong(),
-						helper.getIdLong()
+						helperId
 				);
-				HelpConfig config = botConfig.get(guild).getHelpConfig();
-				HelpExperienceService service = new HelpExperienceService(botConfig, helpAccountRepository, helpTransactionRepository);
-				// Perform experience transactions
-				service.performTransaction(helper.getIdLong(), config.getThankedExperience(), guild, postThread.getIdLong());
+				experience.put(helperId, config.getThankedExperience());
 			} catch (SQLException e) {
 				ExceptionLogger.capture(e, getClass().getSimpleName());
 				botConfig.get(guild).getModerationConfig().getLogChannel().sendMessageFormat(
 						"Could not record user %s thanking %s for help in post %s: %s",
-						UserUtils.getUserTag(postThread.getOwner().getUser()),
-						UserUtils.getUserTag(helper),
+						UserSnowflake.fromId(postThread.getOwnerIdLong()).getAsMention(),
+						UserSnowflake.fromId(helperId).getAsMention(),
 						postThread.getAsMention(),
 						e.getMessage()
 				).queue();
 			}
-		});
+		}
+		return experience;
 	}
 
 	/**
@@ -231,35 +234,24 @@ public class HelpManager {
 	}
 
 	private @NotNull List<Member> getPostHelpers() {
-		List<Message> messages = HelpListener.HELP_POST_MESSAGES.get(postThread.getIdLong());
-		if (messages == null) return List.of();
-		return messages.stream()
-				.filter(m -> m.getMember() != null && m.getAuthor().getIdLong() != postThread.getOwnerIdLong())
-				.map(Message::getMember)
-				.distinct()
+		return activityStore.getHelperIds(postThread.getIdLong()).stream()
+				.map(postThread.getGuild()::getMemberById)
+				.filter(Objects::nonNull)
 				.toList();
 	}
 
 	/**
-	 * Calculates the experience for each user, based on the messages they sent.
+	 * Calculates the experience a single message is worth.
 	 *
-	 * @param messages The list of {@link Message}s.
+	 * @param message The {@link HelpPostMessage}.
 	 * @param ownerId The owner id.
 	 * @param config The {@link HelpConfig}, containing some static info for the calculation.
-	 * @return A {@link Map}, containing the users' id as the key, and the amount of xp as the value.
+	 * @return The amount of xp the author of the message earns for it.
 	 */
-	public static Map<Long, Double> calculateExperience(List<Message> messages, long ownerId, HelpConfig config) {
-		Map<Long, Double> experience = new HashMap<>();
-		if (messages == null || messages.isEmpty()) return Map.of();
-		for (User user : messages.stream().map(Message::getAuthor).collect(Collectors.toSet())) {
-			if (user.getIdLong() == ownerId) continue;
-			double xp = 0;
-			for (Message message : messages.stream()
-					.filter(f -> f.getAuthor().getIdLong() != ownerId && f.getContentDisplay().length() > config.getMinimumMessageLength()).toList()) {
-				xp += config.getBaseExperience() + config.getPerCharacterExperience() * (Math.log(message.getContentDisplay().trim().length()) / Math.log(2));
-			}
-			experience.put(user.getIdLong(), Math.min(xp, config.getMaxExperiencePerChannel()));
+	public static double calculateExperience(HelpPostMessage message, long ownerId, HelpConfig config) {
+		if (message.authorId() == ownerId || message.contentLength() <= config.getMinimumMessageLength()) {
+			return 0;
 		}
-		return experience;
+		return config.getBaseExperience() + config.getPerCharacterExperience() * (Math.log(message.trimmedLength()) / Math.log(2));
 	}
 }
@@ -0,0 +1,118 @@
+package net.discordjug.javabot.systems.help;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import net.discordjug.javabot.systems.help.model.HelpPostActivity;
+import net.discordjug.javabot.systems.help.model.HelpPostMessage;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the activity of helpers in open help posts, as far as it is needed for awarding experience and thanking helpers.
+ * <p>
+ * Posts are evicted shortly after they have been closed or archived, when they are deleted, when they did not receive
+ * a message for {@link #OPEN_RETENTION} or when too many posts are stored.
+ */
+@Component
+public class HelpPostActivityStore {
+	private static final int MAX_POSTS = 10_000;
+	/**
+	 * How long an open post is kept after its last message.
+	 */
+	private static final Duration OPEN_RETENTION = Duration.ofDays(3);
+	/**
+	 * How long a post is kept after being closed, so that experience can still be awarded after the post has been archived.
+	 */
+	private static final Duration CLOSED_RETENTION = Duration.ofMinutes(10);
+
+	private final Cache<Long, HelpPostActivity> posts = Caffeine.newBuilder()
+			.maximumSize(MAX_POSTS)
+			.expireAfter(new Expiry<Long, HelpPostActivity>() {
+				@Override
+				public long expireAfterCreate(Long postId, HelpPostActivity activity, long currentTime) {
+					return retention(activity);
+				}
+
+				@Override
+				public long expireAfterUpdate(Long postId, HelpPostActivity activity, long currentTime, long currentDuration) {
+					return retention(activity);
+				}
+
+				@Override
+				public long expireAfterRead(Long postId, HelpPostActivity activity, long currentTime, long currentDuration) {
+					return currentDuration;
+				}
+			})
+			.build();
+
+	/**
+	 * Records a message sent by a helper in a help post. If the post has been closed before, it is considered reopened.
+	 *
+	 * @param postId     The id of the post.
+	 * @param message    The message.
+	 * @param experience The experience the message is worth.
+	 */
+	public void recordMessage(long postId, HelpPostMessage message, double experience) {
+		posts.asMap().compute(postId, (id, activity) -> {
+			if (activity == null) {
+				activity = new HelpPostActivity();
+			}
+			activity.setClosed(false);
+			activity.add(message, experience);
+			return activity;
+		});
+	}
+
+	/**
+	 * Gets the experience each helper earned in a help post.
+	 *
+	 * @param postId        The id of the post.
+	 * @param maxExperience The maximum amount of experience per helper.
+	 * @return A {@link Map} containing the helpers' ids as the key and their experience as the value.
+	 */
+	public Map<Long, Double> getExperience(long postId, double maxExperience) {
+		HelpPostActivity activity = posts.getIfPresent(postId);
+		return activity == null ? Map.of() : activity.getExperience(maxExperience);
+	}
+
+	/**
+	 * Gets the ids of the helpers in a help post who were members of the guild when sending their messages.
+	 *
+	 * @param postId The id of the post.
+	 * @return The ids of the helpers, most recently active first.
+	 */
+	public List<Long> getHelperIds(long postId) {
+		HelpPostActivity activity = posts.getIfPresent(postId);
+		return activity == null ? List.of() : activity.getHelperIds();
+	}
+
+	/**
+	 * Marks a help post as closed, so it is evicted after {@link #CLOSED_RETENTION}.
+	 *
+	 * @param postId The id of the post.
+	 */
+	public void markClosed(long postId) {
+		posts.asMap().computeIfPresent(postId, (id, activity) -> {
+			activity.setClosed(true);
+			return activity;
+		});
+	}
+
+	/**
+	 * Removes a help post immediately.
+	 *
+	 * @param postId The id of the post.
+	 */
+	public void remove(long postId) {
+		posts.invalidate(postId);
+	}
+
+	private static long retention(HelpPostActivity activity) {
+		return (activity.isClosed() ? CLOSED_RETENTION : OPEN_RETENTION).toNanos();
+	}
+}
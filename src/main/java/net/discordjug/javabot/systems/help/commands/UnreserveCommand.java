@@ -8,6 +8,7 @@ import net.discordjug.javabot.annotations.AutoDetectableComponentHandler;
 import net.discordjug.javabot.data.config.BotConfig;
 import net.discordjug.javabot.data.h2db.DbActions;
 import net.discordjug.javabot.systems.help.HelpManager;
+import net.discordjug.javabot.systems.help.HelpPostActivityStore;
 import net.discordjug.javabot.systems.help.dao.HelpAccountRepository;
 import net.discordjug.javabot.systems.help.dao.HelpTransactionRepository;
 import net.discordjug.javabot.systems.user_preferences.UserPreferenceService;
@@ -46,6 +47,7 @@ public class UnreserveCommand extends SlashCommand implements ModalHandler {
 	private final HelpAccountRepository helpAccountRepository;
 	private final HelpTransactionRepository helpTransactionRepository;
 	private final UserPreferenceService preferenceService;
+	private final HelpPostActivityStore activityStore;
 
 	/**
 	 * The constructor of this class, which sets the corresponding {@link net.dv8tion.jda.api.interactions.commands.build.SlashCommandData}.
@@ -54,13 +56,15 @@ public class UnreserveCommand extends SlashCommand implements ModalHandler {
 	 * @param helpTransactionRepository Dao object that represents the HELP_TRANSACTION SQL Table
 	 * @param helpAccountRepository Dao object that represents the HELP_ACCOUNT SQL Table
 	 * @param preferenceService Service for user preferences
+	 * @param activityStore Stores the messages sent in help posts
 	 */
-	public UnreserveCommand(BotConfig botConfig, DbActions dbActions, HelpTransactionRepository helpTransactionRepository, HelpAccountRepository helpAccountRepository, UserPreferenceService preferenceService) {
+	public UnreserveCommand(BotConfig botConfig, DbActions dbActions, HelpTransactionRepository helpTransactionRepository, HelpAccountRepository helpAccountRepository, UserPreferenceService preferenceService, HelpPostActivityStore activityStore) {
 		this.botConfig = botConfig;
 		this.dbActions = dbActions;
 		this.helpAccountRepository = helpAccountRepository;
 		this.helpTransactionRepository = helpTransactionRepository;
 		this.preferenceService = preferenceService;
+		this.activityStore = activityStore;
 		setCommandData(Commands.slash(UNRESERVE_ID, "Unreserves this post marking your question/issue as resolved.")
 				.setGuildOnly(true)
 				.addOption(OptionType.STRING, REASON_ID, "The reason why you're unreserving this channel", false)
@@ -115,7 +119,7 @@ public class UnreserveCommand extends SlashCommand implements ModalHandler {
 			replyInvalidChannel(replyCallback);
 			return;
 		}
-		HelpManager manager = new HelpManager(postThread, dbActions, botConfig, helpAccountRepository, helpTransactionRepository, preferenceService);
+		HelpManager manager = new HelpManager(postThread, dbActions, botConfig, helpAccountRepository, helpTransactionRepository, preferenceService, activityStore);
 		if (manager.isForumEligibleToBeUnreserved(interaction)) {
 			if (replyCallback.getUser().getIdLong() != postThread.getOwnerIdLong() && isReasonInvalid(reason)) {
 				noReasonHandler.run();
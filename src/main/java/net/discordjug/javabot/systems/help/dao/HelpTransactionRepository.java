@@ -9,15 +9,17 @@ import net.discordjug.javabot.util.Pair;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Dao class that represents the HELP_TRANSACTION SQL Table.
@@ -26,29 +28,44 @@ import java.util.Optional;
 @RequiredArgsConstructor
 @Repository
 public class HelpTransactionRepository {
+	private static final int BATCH_SIZE = 100;
 	private final JdbcTemplate jdbcTemplate;
 
 	/**
-	 * Inserts a new {@link HelpTransaction}.
+	 * Inserts multiple {@link HelpTransaction}s and adds their weights to the {@link HelpAccount}s of their recipients
+	 * in a single database transaction. Accounts that do not exist yet are created.
 	 *
-	 * @param transaction The transaction that should be inserted.
-	 * @return The inserted {@link HelpTransaction}.
-	 * @throws SQLException If an error occurs.
+	 * @param transactions The transactions to perform. The weights of multiple transactions to the same recipient are added up.
+	 * @return The updated {@link HelpAccount}s of all recipients, one per recipient.
+	 * @throws DataAccessException If an error occurs.
 	 */
-	public HelpTransaction save(HelpTransaction transaction) throws DataAccessException {
-		SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(jdbcTemplate)
-		.withTableName("help_transaction")
-		.usingColumns("recipient","weight","messageType", "channel")
-		.usingGeneratedKeyColumns("id");
-		Number key = simpleJdbcInsert.executeAndReturnKey(Map.of(
-					"recipient",transaction.getRecipient(),
-					"weight",transaction.getWeight(),
-					"messageType",transaction.getMessageType(),
-					"channel",transaction.getChannelId())
-				);
-		transaction.setId(key.longValue());
-		log.info("Inserted new Help Transaction: {}", transaction);
-		return transaction;
+	@Transactional
+	public List<HelpAccount> performTransactions(List<HelpTransaction> transactions) throws DataAccessException {
+		if (transactions.isEmpty()) {
+			return List.of();
+		}
+		jdbcTemplate.batchUpdate("""
+				MERGE INTO help_account a
+				USING (VALUES (CAST(? AS BIGINT), CAST(? AS DOUBLE))) AS t(user_id, experience)
+				ON a.user_id = t.user_id
+				WHEN MATCHED THEN UPDATE SET experience = a.experience + t.experience
+				WHEN NOT MATCHED THEN INSERT (user_id, experience) VALUES (t.user_id, t.experience)""",
+				transactions, BATCH_SIZE, (stmt, transaction) -> {
+					stmt.setLong(1, transaction.getRecipient());
+					stmt.setDouble(2, transaction.getWeight());
+				});
+		jdbcTemplate.batchUpdate("INSERT INTO help_transaction (recipient, weight, messageType, channel) VALUES (?, ?, ?, ?)",
+				transactions, BATCH_SIZE, (stmt, transaction) -> {
+					stmt.setLong(1, transaction.getRecipient());
+					stmt.setDouble(2, transaction.getWeight());
+					stmt.setInt(3, transaction.getMessageType());
+					stmt.setLong(4, transaction.getChannelId());
+				});
+		log.info("Inserted {} Help Transactions", transactions.size());
+		String placeholders = String.join(",", Collections.nCopies(transactions.size(), "?"));
+		return jdbcTemplate.query("SELECT * FROM help_account WHERE user_id IN (" + placeholders + ")",
+				(rs, row) -> new HelpAccount(rs.getLong("user_id"), rs.getDouble("experience")),
+				transactions.stream().map(HelpTransaction::getRecipient).toArray());
 	}
 
 	/**
@@ -138,16 +155,15 @@ public class HelpTransactionRepository {
 	}
 
 	/**
-	 * Checks whether a transaction with a specific recipient exists in a specific channel.
-	 * @param recipient The ID of the recipient
+	 * Gets all users who received a transaction in a specific channel.
 	 * @param channelId The ID of the channel
-	 * @return {@code true} if it exists, else {@code false}
+	 * @return The IDs of all recipients of transactions in the channel
 	 */
-	public boolean existsTransactionWithRecipientInChannel(long recipient, long channelId) {
-		return jdbcTemplate.queryForObject(
-				"SELECT count(*) FROM help_transaction WHERE recipient=? AND channel = ?",
-				Integer.class,
-				recipient, channelId) > 0;
+	public Set<Long> getRecipientsInChannel(long channelId) {
+		return new HashSet<>(jdbcTemplate.queryForList(
+				"SELECT DISTINCT recipient FROM help_transaction WHERE channel = ?",
+				Long.class,
+				channelId));
 	}
 
 	/**
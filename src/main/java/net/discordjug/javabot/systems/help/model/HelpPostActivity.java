@@ -0,0 +1,100 @@
+package net.discordjug.javabot.systems.help.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The aggregated activity of all helpers in a single help post.
+ * <p>
+ * The experience of each helper is accumulated as messages arrive, so reading the experience of a post
+ * takes time proportional to the amount of helpers instead of the amount of messages.
+ */
+public class HelpPostActivity {
+	/**
+	 * The maximum amount of helpers stored per post. Messages of further helpers are ignored.
+	 */
+	public static final int MAX_HELPERS = 1_000;
+
+	/**
+	 * The helpers of this post, ordered by their last message.
+	 */
+	private final Map<Long, HelperActivity> helpers = new LinkedHashMap<>();
+	private volatile boolean closed;
+
+	/**
+	 * Adds a message sent by a helper to this post.
+	 *
+	 * @param message    The message.
+	 * @param experience The experience the message is worth.
+	 * @return {@code false} if the message has been ignored because the post has too many helpers
+	 */
+	public synchronized boolean add(HelpPostMessage message, double experience) {
+		// reinserting moves the helper to the end
+		HelperActivity helper = helpers.remove(message.authorId());
+		if (helper == null) {
+			if (helpers.size() == MAX_HELPERS) {
+				return false;
+			}
+			helper = new HelperActivity();
+		}
+		helper.memberPresent |= message.memberPresent();
+		helper.experience += experience;
+		helpers.put(message.authorId(), helper);
+		return true;
+	}
+
+	/**
+	 * Gets the experience each helper earned in this post.
+	 *
+	 * @param maxExperience The maximum amount of experience per helper.
+	 * @return A {@link Map} containing the helpers' ids as the key and their capped experience as the value.
+	 */
+	public synchronized Map<Long, Double> getExperience(double maxExperience) {
+		Map<Long, Double> experience = new HashMap<>();
+		helpers.forEach((id, helper) -> experience.put(id, Math.min(helper.experience, maxExperience)));
+		return experience;
+	}
+
+	/**
+	 * Gets the ids of all helpers who were members of the guild when sending a message.
+	 *
+	 * @return The ids of the helpers, most recently active first.
+	 */
+	public synchronized List<Long> getHelperIds() {
+		List<Long> ids = new ArrayList<>(helpers.size());
+		helpers.forEach((id, helper) -> {
+			if (helper.memberPresent) {
+				ids.add(id);
+			}
+		});
+		Collections.reverse(ids);
+		return ids;
+	}
+
+	/**
+	 * Checks whether the post has been closed or archived.
+	 *
+	 * @return {@code true} if the post is closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Marks the post as closed or reopened.
+	 *
+	 * @param closed Whether the post is closed.
+	 */
+	public void setClosed(boolean closed) {
+		this.closed = closed;
+	}
+
+	private static class HelperActivity {
+		private boolean memberPresent;
+		private double experience;
+	}
+}
@@ -0,0 +1,12 @@
+package net.discordjug.javabot.systems.help.model;
+
+/**
+ * The information about a single message in a help post that is needed for awarding experience and thanking helpers.
+ *
+ * @param authorId      The id of the author of the message.
+ * @param memberPresent Whether the author was a member of the guild when the message was sent.
+ * @param contentLength The length of the displayed content of the message.
+ * @param trimmedLength The length of the displayed content without leading and trailing whitespace.
+ */
+public record HelpPostMessage(long authorId, boolean memberPresent, int contentLength, int trimmedLength) {
+}
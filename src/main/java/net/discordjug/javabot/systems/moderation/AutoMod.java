@@ -1,10 +1,13 @@
 package net.discordjug.javabot.systems.moderation;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import net.discordjug.javabot.data.config.BotConfig;
+import net.discordjug.javabot.data.config.guild.ModerationConfig;
+import net.discordjug.javabot.systems.moderation.MessageContentScanner.ContentScan;
 import net.discordjug.javabot.systems.moderation.warn.model.WarnSeverity;
 import net.discordjug.javabot.systems.notification.NotificationService;
-import net.discordjug.javabot.util.ExceptionLogger;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
@@ -16,56 +19,44 @@ import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nonnull;
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
-import java.util.Scanner;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * This class checks all incoming messages for potential spam/advertising and warns or mutes the potential offender.
  */
 @Slf4j
-// TODO: Refactor this to be more efficient. Especially AutoMod#checkNewMessageAutomod
 public class AutoMod extends ListenerAdapter {
 
-	private static final Pattern INVITE_URL = Pattern.compile("discord(?:(\\.(?:me|io|gg)|sites\\.com)/.{0,4}|(?:app)?\\.com.{1,4}(?:invite|oauth2).{0,5}/)\\w+");
-	private static final Pattern URL_PATTERN = Pattern.compile(
-			"(?:^|[\\W])((ht|f)tp(s?)://|www\\.)"
-					+ "(([\\w\\-]+\\.)+?([\\w\\-.~]+/?)*"
-					+ "[\\p{Alnum}.,%_=?&#\\-+()\\[\\]*$~@!:/{};']*)",
-			Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL);
 	private final NotificationService notificationService;
 	private final BotConfig botConfig;
-	private List<String> spamUrls;
 	private final ModerationService moderationService;
+	private final ScamLinkService scamLinkService;
+	private final SpamDetector spamDetector = new SpamDetector();
+	/**
+	 * The results of scanning recent messages, so that the content of a message is only scanned once
+	 * even though multiple listeners check it for links.
+	 */
+	private final Cache<Long, ContentScan> contentScans = Caffeine.newBuilder()
+			.maximumSize(1_000)
+			.expireAfterWrite(1, TimeUnit.MINUTES)
+			.build();
 
 	/**
-	 * Constructor of the class, that creates a list of strings with potential spam/scam urls.
-	 * @param notificationService The {@link QOTWPointsService}
+	 * Constructor of the class.
+	 * @param notificationService The {@link NotificationService}
 	 * @param botConfig The main configuration of the bot
 	 * @param moderationService Service object for moderating members
+	 * @param scamLinkService Service providing the list of known scam domains
 	 */
-	public AutoMod(NotificationService notificationService, BotConfig botConfig, ModerationService moderationService) {
+	public AutoMod(NotificationService notificationService, BotConfig botConfig, ModerationService moderationService, ScamLinkService scamLinkService) {
 		this.notificationService = notificationService;
 		this.botConfig = botConfig;
 		this.moderationService = moderationService;
-		try(Scanner scan = new Scanner(new URL("https://raw.githubusercontent.com/DevSpen/scam-links/master/src/links.txt").openStream()).useDelimiter("\\A")) {
-			String response = scan.next();
-			spamUrls = List.of(response.split("\n"));
-		} catch (IOException e) {
-			ExceptionLogger.capture(e, getClass().getSimpleName());
-			spamUrls = Collections.emptyList();
-		}
-		log.info("Loaded {} spam URLs!", spamUrls.size());
+		this.scamLinkService = scamLinkService;
 	}
 
 	@Override
@@ -101,15 +92,17 @@ public class AutoMod extends ListenerAdapter {
 	 */
 	private void checkNewMessageAutomod(@Nonnull Message message) {
 		// spam
-		message.getChannel().getHistory().retrievePast(10).queue(messages -> {
-			int spamCount = (int) messages.stream().filter(msg -> !msg.equals(message))
-					// filter for spam
-					.filter(msg -> msg.getAuthor().equals(message.getAuthor()) && !msg.getAuthor().isBot())
-					.filter(msg -> (message.getTimeCreated().toEpochSecond() - msg.getTimeCreated().toEpochSecond()) < 6).count();
-			if (spamCount > 5) {
-				handleSpam(message, message.getMember());
-			}
-		});
+		ModerationConfig config = botConfig.get(message.getGuild()).getModerationConfig();
+		boolean spam = spamDetector.recordAndCheck(
+				message.getGuild().getIdLong(),
+				message.getChannel().getIdLong(),
+				message.getAuthor().getIdLong(),
+				message.getTimeCreated().toInstant().toEpochMilli(),
+				config.getAutomodSpamMessageCount(),
+				TimeUnit.SECONDS.toMillis(config.getAutomodSpamIntervalSeconds()));
+		if (spam) {
+			handleSpam(message, message.getMember());
+		}
 
 		checkContentAutomod(message);
 	}
@@ -169,44 +162,15 @@ public class AutoMod extends ListenerAdapter {
 				);
 	}
 
-	/**
-	 * returns the original String cleaned up of unused code points and spaces.
-	 *
-	 * @param input the input String.
-	 * @return the cleaned-up String.
-	 */
-	private @NotNull String cleanString(String input) {
-		input = input.replaceAll("\\p{C}", "");
-		input = input.replace(" ", "");
-		return input;
-	}
-
 	/**
 	 * Checks whether the given message contains a link that might be used to scam people.
+	 * Links to subdomains of blocked domains are considered suspicious as well.
 	 *
 	 * @param message The message to check.
 	 * @return True if a link is found and False if not.
 	 */
 	public boolean hasSuspiciousLink(@NotNull Message message) {
-		final String messageRaw = message.getContentRaw();
-		Matcher urlMatcher = URL_PATTERN.matcher(messageRaw);
-		if (messageRaw.contains("http://") || messageRaw.contains("https://")) {
-			// only do it for a links, so it won't iterate for each message
-			while (urlMatcher.find()) {
-				String url = urlMatcher.group(0).trim();
-				if (url.startsWith("http://") || url.startsWith("https://")) {
-					try {
-						URI uri = new URI(url);
-						if (uri.getHost() != null && spamUrls.contains(uri.getHost())) {
-							return true;
-						}
-					} catch (URISyntaxException e) {
-						ExceptionLogger.capture(e, getClass().getSimpleName());
-					}
-				}
-			}
-		}
-		return false;
+		return scamLinkService.getBlocklist().isAnyBlocked(scan(message).linkHosts());
 	}
 
 	/**
@@ -216,16 +180,28 @@ public class AutoMod extends ListenerAdapter {
 	 * @return True if an invite is found and False if not.
 	 */
 	public boolean hasAdvertisingLink(@NotNull Message message) {
-		// Advertising
-		Matcher matcher = INVITE_URL.matcher(cleanString(message.getContentRaw()));
-		int start = 0;
-		while (matcher.find(start)) {
-			if (botConfig.get(message.getGuild()).getModerationConfig().getAutomodInviteExcludes().stream().noneMatch(matcher.group()::contains)) {
-				return true;
-			}
-			start = matcher.start() + 1;
+		List<String> invites = scan(message).invites();
+		if (invites.isEmpty()) {
+			return false;
+		}
+		List<String> excludes = botConfig.get(message.getGuild()).getModerationConfig().getAutomodInviteExcludes();
+		return invites.stream().anyMatch(invite -> excludes.stream().noneMatch(invite::contains));
+	}
+
+	/**
+	 * Gets the links of a message, scanning its content only if it has not been scanned before or has been edited since.
+	 *
+	 * @param message The message.
+	 * @return The {@link ContentScan} of the current content of the message.
+	 */
+	private @NotNull ContentScan scan(@NotNull Message message) {
+		String content = message.getContentRaw();
+		ContentScan scan = contentScans.getIfPresent(message.getIdLong());
+		if (scan == null || !scan.content().equals(content)) {
+			scan = MessageContentScanner.scan(content);
+			contentScans.put(message.getIdLong(), scan);
 		}
-		return false;
+		return scan;
 	}
 
 	private boolean isSuggestionsChannel(@NotNull MessageChannelUnion channel) {
@@ -0,0 +1,96 @@
+package net.discordjug.javabot.systems.moderation;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * An immutable set of blocked domains, which also blocks all subdomains of its entries.
+ * <p>
+ * Checking a host looks up the host itself and each of its parent domains in a hash set,
+ * so it takes time proportional to the amount of labels of the host instead of the size of the list.
+ */
+public class DomainBlocklist {
+	/**
+	 * A blocklist which does not block anything.
+	 */
+	public static final DomainBlocklist EMPTY = new DomainBlocklist(Set.of());
+
+	private final Set<String> domains;
+
+	private DomainBlocklist(Set<String> domains) {
+		this.domains = domains;
+	}
+
+	/**
+	 * Creates a blocklist from a collection of domains. Blank entries are ignored.
+	 *
+	 * @param entries The domains to block.
+	 * @return The created {@link DomainBlocklist}.
+	 */
+	public static DomainBlocklist of(Collection<String> entries) {
+		Set<String> domains = new HashSet<>(entries.size() * 2);
+		for (String entry : entries) {
+			String domain = normalize(entry.strip());
+			if (!domain.isEmpty()) {
+				domains.add(domain);
+			}
+		}
+		return new DomainBlocklist(Set.copyOf(domains));
+	}
+
+	/**
+	 * Checks whether a host or any of its parent domains is blocked.
+	 *
+	 * @param host The host, e.g. {@code cdn.example.com}.
+	 * @return {@code true} if the host is blocked
+	 */
+	public boolean isBlocked(String host) {
+		String domain = normalize(host);
+		while (!domain.isEmpty()) {
+			if (domains.contains(domain)) {
+				return true;
+			}
+			int dot = domain.indexOf('.');
+			if (dot < 0) {
+				return false;
+			}
+			domain = domain.substring(dot + 1);
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether any of the given hosts is blocked.
+	 *
+	 * @param hosts The hosts to check, e.g. the {@link MessageContentScanner.ContentScan#linkHosts() link hosts} of a message.
+	 * @return {@code true} if at least one host is blocked
+	 */
+	public boolean isAnyBlocked(Collection<String> hosts) {
+		for (String host : hosts) {
+			if (isBlocked(host)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the amount of blocked domains.
+	 *
+	 * @return The amount of entries in this blocklist.
+	 */
+	public int size() {
+		return domains.size();
+	}
+
+	private static String normalize(String host) {
+		String domain = host.toLowerCase(Locale.ROOT);
+		int end = domain.length();
+		while (end > 0 && domain.charAt(end - 1) == '.') {
+			end--;
+		}
+		return domain.substring(0, end);
+	}
+}
@@ -0,0 +1,174 @@
+package net.discordjug.javabot.systems.moderation;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the links relevant for AutoMod from a message in a single pass over its content.
+ * <p>
+ * The scanner collects the host of every http(s) link and finds the positions where Discord invites may start.
+ * The invite pattern is only evaluated if the content contains such a position, so messages without
+ * invites or links are scanned without allocating anything besides the result.
+ */
+public class MessageContentScanner {
+	/**
+	 * The pattern of Discord invites. This is matched against the content without spaces and invisible characters.
+	 */
+	private static final Pattern INVITE_URL = Pattern.compile("discord(?:(\\.(?:me|io|gg)|sites\\.com)/.{0,4}|(?:app)?\\.com.{1,4}(?:invite|oauth2).{0,5}/)\\w+");
+	/**
+	 * Every match of {@link #INVITE_URL} starts with this prefix.
+	 */
+	private static final String INVITE_PREFIX = "discord";
+
+	private MessageContentScanner() {
+	}
+
+	/**
+	 * Scans the content of a message.
+	 *
+	 * @param content The raw content of the message.
+	 * @return The {@link ContentScan} containing all invites and link hosts.
+	 */
+	public static ContentScan scan(String content) {
+		List<String> hosts = List.of();
+		int inviteStart = -1;
+		int prefixStart = 0;
+		int prefixLength = 0;
+		for (int i = 0; i < content.length(); i++) {
+			char c = content.charAt(i);
+			if (c == ':' && content.startsWith("//", i + 1) && isHttpScheme(content, i)) {
+				String host = extractHost(content, i + 3);
+				if (!host.isEmpty()) {
+					if (hosts.isEmpty()) {
+						hosts = new ArrayList<>(2);
+					}
+					hosts.add(host);
+				}
+			}
+			if (inviteStart >= 0 || isIgnoredForInvites(content, i)) {
+				continue;
+			}
+			if (c == INVITE_PREFIX.charAt(prefixLength)) {
+				if (prefixLength == 0) {
+					prefixStart = i;
+				}
+				prefixLength++;
+				if (prefixLength == INVITE_PREFIX.length()) {
+					inviteStart = prefixStart;
+				}
+			} else if (c == INVITE_PREFIX.charAt(0)) {
+				prefixStart = i;
+				prefixLength = 1;
+			} else {
+				prefixLength = 0;
+			}
+		}
+		List<String> invites = inviteStart < 0 ? List.of() : findInvites(content, inviteStart);
+		return new ContentScan(content, invites, hosts);
+	}
+
+	/**
+	 * Finds all invites in the content starting at the given index.
+	 * The content is stripped of spaces and invisible characters before matching.
+	 *
+	 * @param content The raw content.
+	 * @param start   The index of the first possible invite in the raw content.
+	 * @return All matches of {@link #INVITE_URL}, including overlapping ones.
+	 */
+	private static List<String> findInvites(String content, int start) {
+		char[] cleaned = new char[content.length() - start];
+		int length = 0;
+		for (int i = start; i < content.length(); i++) {
+			if (!isIgnoredForInvites(content, i)) {
+				cleaned[length++] = content.charAt(i);
+			}
+		}
+		List<String> invites = new ArrayList<>(1);
+		Matcher matcher = INVITE_URL.matcher(CharBuffer.wrap(cleaned, 0, length));
+		int matchStart = 0;
+		while (matcher.find(matchStart)) {
+			invites.add(matcher.group());
+			matchStart = matcher.start() + 1;
+		}
+		return invites;
+	}
+
+	/**
+	 * Checks whether a character is removed before matching invites. These are spaces and
+	 * all characters of the unicode category {@code C} (control, format, private use, unassigned and lone surrogates).
+	 *
+	 * @param content The content.
+	 * @param index   The index of the character.
+	 * @return {@code true} if the character is ignored
+	 */
+	private static boolean isIgnoredForInvites(String content, int index) {
+		char c = content.charAt(index);
+		if (c == ' ') {
+			return true;
+		}
+		if (Character.isHighSurrogate(c) && index + 1 < content.length() && Character.isLowSurrogate(content.charAt(index + 1))) {
+			return isOtherCategory(Character.getType(content.codePointAt(index)));
+		}
+		if (Character.isLowSurrogate(c) && index > 0 && Character.isHighSurrogate(content.charAt(index - 1))) {
+			return isOtherCategory(Character.getType(content.codePointAt(index - 1)));
+		}
+		return isOtherCategory(Character.getType(c));
+	}
+
+	private static boolean isOtherCategory(int type) {
+		return type == Character.CONTROL || type == Character.FORMAT || type == Character.PRIVATE_USE
+				|| type == Character.SURROGATE || type == Character.UNASSIGNED;
+	}
+
+	private static boolean isHttpScheme(String text, int schemeEnd) {
+		int start;
+		if (text.regionMatches(true, schemeEnd - 5, "https", 0, 5)) {
+			start = schemeEnd - 5;
+		} else if (text.regionMatches(true, schemeEnd - 4, "http", 0, 4)) {
+			start = schemeEnd - 4;
+		} else {
+			return false;
+		}
+		// the scheme must not be part of a longer word, e.g. "xhttp://"
+		return start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1));
+	}
+
+	private static String extractHost(String text, int start) {
+		int authorityEnd = start;
+		while (authorityEnd < text.length() && !isAuthorityTerminator(text.charAt(authorityEnd))) {
+			authorityEnd++;
+		}
+		int hostStart = start;
+		for (int i = start; i < authorityEnd; i++) {
+			if (text.charAt(i) == '@') {
+				hostStart = i + 1;
+			}
+		}
+		int hostEnd = hostStart;
+		while (hostEnd < authorityEnd && isHostCharacter(text.charAt(hostEnd))) {
+			hostEnd++;
+		}
+		return text.substring(hostStart, hostEnd);
+	}
+
+	private static boolean isAuthorityTerminator(char c) {
+		return c == '/' || c == '?' || c == '#' || c == '\\' || c == '<' || c == '>' || c == '"' || Character.isWhitespace(c);
+	}
+
+	private static boolean isHostCharacter(char c) {
+		return c == '.' || c == '-' || c == '_' || Character.isLetterOrDigit(c);
+	}
+
+	/**
+	 * The links found in a message.
+	 *
+	 * @param content   The scanned content.
+	 * @param invites   All Discord invites in the content, as matched after removing spaces and invisible characters.
+	 * @param linkHosts The hosts of all http(s) links in the content.
+	 */
+	public record ContentScan(String content, List<String> invites, List<String> linkHosts) {
+	}
+}
@@ -0,0 +1,151 @@
+package net.discordjug.javabot.systems.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import net.discordjug.javabot.data.config.BotConfig;
+import net.discordjug.javabot.util.ExceptionLogger;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides the list of known scam domains used by {@link AutoMod}.
+ * <p>
+ * On startup, the list is loaded from the last downloaded snapshot (or the bundled {@code spamLinks.txt} resource
+ * if there is none), so the bot does not have to wait for the network. The list is then refreshed periodically
+ * in the background and the current {@link DomainBlocklist} is swapped atomically when a download succeeds.
+ */
+@Slf4j
+@Service
+public class ScamLinkService {
+	private static final URI SCAM_LINKS_URI = URI.create("https://raw.githubusercontent.com/DevSpen/scam-links/master/src/links.txt");
+	private static final String BUNDLED_RESOURCE = "/spamLinks.txt";
+	/**
+	 * The name of the file containing the last successfully downloaded list.
+	 * This is stored in the configuration directory so that it is kept across deployments.
+	 */
+	static final String SNAPSHOT_FILE_NAME = "spamLinks.txt";
+	/**
+	 * How often to download the list, in hours.
+	 */
+	private static final long REFRESH_INTERVAL = 6;
+	/**
+	 * Downloaded lists with fewer entries are considered broken and ignored.
+	 */
+	static final int MIN_ENTRIES = 100;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(10))
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.build();
+	private final Path snapshotFile;
+	private volatile DomainBlocklist blocklist;
+
+	/**
+	 * Loads the stored list and schedules the background refresh.
+	 *
+	 * @param botConfig The main configuration of the bot, whose directory holds the snapshot of the list
+	 * @param asyncPool The thread pool for asynchronous operations
+	 */
+	public ScamLinkService(BotConfig botConfig, ScheduledExecutorService asyncPool) {
+		snapshotFile = botConfig.getDir().resolve(SNAPSHOT_FILE_NAME);
+		blocklist = loadStored();
+		log.info("Loaded {} spam URLs!", blocklist.size());
+		asyncPool.scheduleWithFixedDelay(this::refresh, 0, REFRESH_INTERVAL, TimeUnit.HOURS);
+	}
+
+	/**
+	 * Gets the most recent list of scam domains.
+	 *
+	 * @return The current {@link DomainBlocklist}.
+	 */
+	public DomainBlocklist getBlocklist() {
+		return blocklist;
+	}
+
+	/**
+	 * Downloads the current list of scam domains. If this succeeds, the list is used from now on
+	 * and saved as the new snapshot, otherwise the previous list stays in use.
+	 */
+	public void refresh() {
+		try {
+			HttpRequest request = HttpRequest.newBuilder(SCAM_LINKS_URI)
+					.timeout(Duration.ofSeconds(30))
+					.build();
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+			if (response.statusCode() != 200) {
+				log.warn("Could not refresh spam URLs: received status code {}", response.statusCode());
+				return;
+			}
+			update(response.body());
+		} catch (IOException e) {
+			ExceptionLogger.capture(e, getClass().getSimpleName());
+			log.warn("Could not refresh spam URLs.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Uses a downloaded list from now on and saves it as the new snapshot.
+	 *
+	 * @param content The downloaded list, one domain per line.
+	 * @return {@code true} if the list has been accepted, {@code false} if it has fewer than {@link #MIN_ENTRIES} entries
+	 * @throws IOException If the snapshot could not be saved.
+	 */
+	boolean update(String content) throws IOException {
+		List<String> entries = content.lines().toList();
+		if (entries.size() < MIN_ENTRIES) {
+			log.warn("Could not refresh spam URLs: received only {} entries", entries.size());
+			return false;
+		}
+		blocklist = DomainBlocklist.of(entries);
+		log.info("Refreshed spam URLs, {} entries loaded.", blocklist.size());
+		saveSnapshot(content);
+		return true;
+	}
+
+	private DomainBlocklist loadStored() {
+		if (Files.exists(snapshotFile)) {
+			try {
+				return DomainBlocklist.of(Files.readAllLines(snapshotFile, StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				ExceptionLogger.capture(e, getClass().getSimpleName());
+				log.error("Could not read spam URL snapshot, using bundled list instead.", e);
+			}
+		}
+		try (InputStream is = getClass().getResourceAsStream(BUNDLED_RESOURCE)) {
+			if (is == null) {
+				log.error("Could not find bundled spam URLs.");
+				return DomainBlocklist.EMPTY;
+			}
+			return DomainBlocklist.of(new String(is.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+		} catch (IOException e) {
+			ExceptionLogger.capture(e, getClass().getSimpleName());
+			return DomainBlocklist.EMPTY;
+		}
+	}
+
+	private void saveSnapshot(String content) throws IOException {
+		Path tempFile = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(), "spamLinks", ".tmp");
+		try {
+			Files.writeString(tempFile, content, StandardCharsets.UTF_8);
+			Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package net.discordjug.javabot.systems.moderation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects users sending many messages in a short time using local sliding windows.
+ * <p>
+ * For every combination of guild, channel and author, the timestamps of the most recent messages are kept
+ * in a small ring. Windows of users who stopped writing are expired automatically and the total amount of
+ * windows is bounded, so memory usage does not grow with the amount of users.
+ */
+public class SpamDetector {
+	/**
+	 * The maximum amount of (guild, channel, author) combinations that are tracked at once.
+	 */
+	private static final int MAX_TRACKED_AUTHORS = 10_000;
+	/**
+	 * The time (in minutes) after which the window of an author who did not write any messages is discarded.
+	 * This must be longer than any configured spam interval.
+	 */
+	private static final int WINDOW_EXPIRY = 10;
+
+	private final Cache<Key, Window> windows = Caffeine.newBuilder()
+			.maximumSize(MAX_TRACKED_AUTHORS)
+			.expireAfterAccess(WINDOW_EXPIRY, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * Records a new message and checks whether the author has sent too many messages in the same channel recently.
+	 *
+	 * @param guildId        The ID of the guild the message was sent in.
+	 * @param channelId      The ID of the channel the message was sent in.
+	 * @param authorId       The ID of the message author.
+	 * @param timestamp      The time the message was created at, in epoch milliseconds.
+	 * @param maxMessages    The amount of previous messages within the interval that is still allowed.
+	 * @param intervalMillis The length of the interval in milliseconds.
+	 * @return {@code true} if more than {@code maxMessages} previous messages by the author were sent within the interval
+	 */
+	public boolean recordAndCheck(long guildId, long channelId, long authorId, long timestamp, int maxMessages, long intervalMillis) {
+		Key key = new Key(guildId, channelId, authorId);
+		Window window = windows.get(key, k -> new Window(maxMessages + 1));
+		if (window.capacity() != maxMessages + 1) {
+			// the configuration has changed
+			window = new Window(maxMessages + 1);
+			windows.put(key, window);
+		}
+		return window.record(timestamp, intervalMillis) > maxMessages;
+	}
+
+	private record Key(long guildId, long channelId, long authorId) {
+	}
+
+	/**
+	 * A ring containing the timestamps of the most recent messages of an author.
+	 */
+	private static class Window {
+		private final long[] timestamps;
+		private int next = 0;
+
+		Window(int capacity) {
+			timestamps = new long[capacity];
+		}
+
+		int capacity() {
+			return timestamps.length;
+		}
+
+		/**
+		 * Adds a timestamp to the window.
+		 *
+		 * @param timestamp      The timestamp of the new message.
+		 * @param intervalMillis The length of the interval in milliseconds.
+		 * @return The amount of previous messages that have been sent less than {@code intervalMillis} before the new message
+		 */
+		synchronized int record(long timestamp, long intervalMillis) {
+			int count = 0;
+			for (long previous : timestamps) {
+				if (previous != 0 && timestamp - previous < intervalMillis) {
+					count++;
+				}
+			}
+			timestamps[next] = timestamp;
+			next = (next + 1) % timestamps.length;
+			return count;
+		}
+	}
+}
@@ -15,12 +15,13 @@ import java.util.function.Function;
  */
 @Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
-public final class GuildNotificationService extends NotificationService.MessageChannelNotification {
-
+public final class GuildNotificationService {
+	private final NotificationDispatcher dispatcher;
 	private final GuildConfig guildConfig;
 
 	/**
-	 * Sends a notification to the log channel.
+	 * Sends a notification to the log channel. These notifications are sent before other notifications
+	 * queued for the same channel.
 	 *
 	 * @param function The {@link Function} to use which MUST return a {@link MessageCreateAction}.
 	 */
@@ -30,7 +31,7 @@ public final class GuildNotificationService extends NotificationService.MessageC
 			log.error("Could not send message to LogChannel in guild " + guildConfig.getGuild().getId());
 			return;
 		}
-		send(channel, function);
+		dispatcher.dispatch(channel, function, NotificationDispatcher.Priority.MODERATION);
 	}
 
 	/**
@@ -44,6 +45,6 @@ public final class GuildNotificationService extends NotificationService.MessageC
 			log.error("Could not find MessageCacheLogChannel in guild " + guildConfig.getGuild().getId());
 			return;
 		}
-		send(channel, function);
+		dispatcher.dispatch(channel, function, NotificationDispatcher.Priority.INFORMATIONAL);
 	}
 }
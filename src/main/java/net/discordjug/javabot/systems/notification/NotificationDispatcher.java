@@ -0,0 +1,320 @@
+package net.discordjug.javabot.systems.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.exceptions.PermissionException;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Sends notifications to {@link MessageChannel}s, combining bursts of notifications into fewer messages.
+ * <p>
+ * Notifications are queued per channel and sent after a short linger window. Notifications only consisting of
+ * embeds are combined into messages with up to {@link Message#MAX_EMBED_COUNT} embeds, notifications only consisting
+ * of text are joined into messages with up to {@link Message#MAX_CONTENT_LENGTH} characters. All other notifications
+ * are sent on their own. Each channel has at most one message in flight, so a burst of notifications is sent
+ * one message at a time instead of competing with other requests (like replies to commands) for the rate limit.
+ * {@link Priority#MODERATION} notifications are sent before {@link Priority#INFORMATIONAL} notifications
+ * of the same channel.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+	private final Map<Long, ChannelQueue> queues = new ConcurrentHashMap<>();
+	private final AtomicLong[] queueDepths = {new AtomicLong(), new AtomicLong()};
+	private final AtomicLong dispatchedNotifications = new AtomicLong();
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final ScheduledExecutorService asyncPool;
+
+	/**
+	 * Creates the dispatcher.
+	 *
+	 * @param asyncPool The thread pool used for sending the queued notifications.
+	 */
+	public NotificationDispatcher(ScheduledExecutorService asyncPool) {
+		this.asyncPool = asyncPool;
+	}
+
+	/**
+	 * Queues a notification. If it can't be sent, the error is logged.
+	 *
+	 * @param channel  The target {@link MessageChannel}.
+	 * @param function The {@link Function} which creates the message.
+	 * @param priority The {@link Priority} of the notification.
+	 */
+	public void dispatch(MessageChannel channel, @NotNull Function<MessageChannel, MessageCreateAction> function, Priority priority) {
+		dispatch(channel, function, priority, err -> {});
+	}
+
+	/**
+	 * Queues a notification. If it can't be sent, the error is logged once for the whole message
+	 * it was sent in, and the callback is called for every notification in that message.
+	 *
+	 * @param channel   The target {@link MessageChannel}.
+	 * @param function  The {@link Function} which creates the message.
+	 * @param priority  The {@link Priority} of the notification.
+	 * @param onFailure Called if the notification could not be sent.
+	 */
+	public void dispatch(MessageChannel channel, @NotNull Function<MessageChannel, MessageCreateAction> function, Priority priority, Consumer<? super Throwable> onFailure) {
+		Notification notification = new Notification(function.apply(channel), onFailure);
+		dispatchedNotifications.incrementAndGet();
+		queueDepths[priority.ordinal()].incrementAndGet();
+		queues.compute(channel.getIdLong(), (id, queue) -> {
+			if (queue == null) {
+				queue = new ChannelQueue(channel);
+			}
+			queue.get(priority).add(notification);
+			long flushAt = System.nanoTime() + priority.getLinger();
+			if (!queue.inFlight && (queue.flushAt == 0 || flushAt - queue.flushAt < 0)) {
+				queue.flushAt = flushAt;
+				asyncPool.schedule(() -> flush(id), priority.getLinger(), TimeUnit.NANOSECONDS);
+			}
+			return queue;
+		});
+	}
+
+	/**
+	 * Gets the number of notifications which have not been sent yet.
+	 *
+	 * @param priority The {@link Priority} of the notifications to count.
+	 * @return The number of queued notifications with that priority.
+	 */
+	public long getQueueDepth(Priority priority) {
+		return queueDepths[priority.ordinal()].get();
+	}
+
+	/**
+	 * Gets the number of notifications which have been dispatched since startup.
+	 *
+	 * @return The number of dispatched notifications.
+	 */
+	public long getDispatchedNotificationCount() {
+		return dispatchedNotifications.get();
+	}
+
+	/**
+	 * Gets the number of messages which have been sent for all dispatched notifications since startup.
+	 *
+	 * @return The number of sent messages.
+	 */
+	public long getSentMessageCount() {
+		return sentMessages.get();
+	}
+
+	private void flush(long channelId) {
+		AtomicReference<Batch> batch = new AtomicReference<>();
+		queues.computeIfPresent(channelId, (id, queue) -> {
+			if (queue.inFlight) {
+				return queue;
+			}
+			queue.flushAt = 0;
+			Batch next = queue.poll();
+			if (next == null) {
+				return null;
+			}
+			queue.inFlight = true;
+			batch.set(next);
+			return queue;
+		});
+		if (batch.get() != null) {
+			send(channelId, batch.get());
+		}
+	}
+
+	private void send(long channelId, Batch batch) {
+		sentMessages.incrementAndGet();
+		try {
+			batch.action().queue(msg -> onSent(channelId), err -> onFailed(channelId, batch, err));
+		} catch (PermissionException | IllegalStateException | RejectedExecutionException e) {
+			// the channel must not stay blocked by a message which is never sent
+			onFailed(channelId, batch, e);
+		}
+	}
+
+	private void onFailed(long channelId, Batch batch, Throwable err) {
+		log.error("Could not send " + batch.notifications().size() + " notification(s) to channel \"" + batch.channel().getName() + "\": ", err);
+		for (Notification notification : batch.notifications()) {
+			notification.onFailure().accept(err);
+		}
+		onSent(channelId);
+	}
+
+	private void onSent(long channelId) {
+		queues.computeIfPresent(channelId, (id, queue) -> {
+			queue.inFlight = false;
+			if (queue.isEmpty()) {
+				return null;
+			}
+			// the remaining notifications have been waiting during the last request already
+			queue.flushAt = System.nanoTime();
+			asyncPool.execute(() -> flush(id));
+			return queue;
+		});
+	}
+
+	/**
+	 * The priority of a notification.
+	 */
+	public enum Priority {
+		/**
+		 * Moderation alerts, which are sent first and after a short linger window.
+		 */
+		MODERATION(TimeUnit.MILLISECONDS.toNanos(250)),
+		/**
+		 * Informational notifications.
+		 */
+		INFORMATIONAL(TimeUnit.SECONDS.toNanos(2));
+
+		private final long linger;
+
+		Priority(long linger) {
+			this.linger = linger;
+		}
+
+		long getLinger() {
+			return linger;
+		}
+	}
+
+	private record Notification(MessageCreateAction action, Consumer<? super Throwable> onFailure) {
+		boolean isEmbedsOnly() {
+			return isPlain() && action.getContent().isEmpty() && !action.getEmbeds().isEmpty();
+		}
+
+		boolean isTextOnly() {
+			return isPlain() && action.getEmbeds().isEmpty() && !action.getContent().isEmpty();
+		}
+
+		private boolean isPlain() {
+			return action.getAttachments().isEmpty() && action.getComponents().isEmpty();
+		}
+
+		int getEmbedLength() {
+			return action.getEmbeds().stream().mapToInt(MessageEmbed::getLength).sum();
+		}
+	}
+
+	private record Batch(MessageChannel channel, RestAction<Message> action, List<Notification> notifications) {
+	}
+
+	/**
+	 * The queued notifications of a single channel. This is only accessed while holding the lock
+	 * of the channel's entry in {@link #queues}.
+	 */
+	private final class ChannelQueue {
+		private final MessageChannel channel;
+		private final ArrayDeque<Notification> moderation = new ArrayDeque<>();
+		private final ArrayDeque<Notification> informational = new ArrayDeque<>();
+		private boolean inFlight;
+		private long flushAt;
+
+		private ChannelQueue(MessageChannel channel) {
+			this.channel = channel;
+		}
+
+		private ArrayDeque<Notification> get(Priority priority) {
+			return priority == Priority.MODERATION ? moderation : informational;
+		}
+
+		private boolean isEmpty() {
+			return moderation.isEmpty() && informational.isEmpty();
+		}
+
+		private Notification remove() {
+			Priority priority = moderation.isEmpty() ? Priority.INFORMATIONAL : Priority.MODERATION;
+			queueDepths[priority.ordinal()].decrementAndGet();
+			return get(priority).remove();
+		}
+
+		/**
+		 * Removes the notifications to send in the next message.
+		 *
+		 * @return The {@link Batch} to send or {@code null} if no notification is queued.
+		 */
+		private Batch poll() {
+			if (isEmpty()) {
+				return null;
+			}
+			Iterator<Notification> queued = Stream.concat(moderation.stream(), informational.stream()).iterator();
+			Notification first = queued.next();
+			List<Notification> notifications = new ArrayList<>();
+			notifications.add(first);
+			RestAction<Message> action = first.action();
+			if (first.isEmbedsOnly()) {
+				List<MessageEmbed> embeds = new ArrayList<>(first.action().getEmbeds());
+				int length = first.getEmbedLength();
+				while (queued.hasNext()) {
+					Notification next = queued.next();
+					if (!next.isEmbedsOnly() || embeds.size() + next.action().getEmbeds().size() > Message.MAX_EMBED_COUNT
+							|| length + next.getEmbedLength() > MessageEmbed.EMBED_MAX_LENGTH_BOT) {
+						break;
+					}
+					embeds.addAll(next.action().getEmbeds());
+					length += next.getEmbedLength();
+					notifications.add(next);
+				}
+				if (notifications.size() > 1) {
+					action = merge(notifications, () -> channel.sendMessageEmbeds(embeds));
+				}
+			} else if (first.isTextOnly()) {
+				StringBuilder content = new StringBuilder(first.action().getContent());
+				while (queued.hasNext()) {
+					Notification next = queued.next();
+					if (!next.isTextOnly() || content.length() + 1 + next.action().getContent().length() > Message.MAX_CONTENT_LENGTH) {
+						break;
+					}
+					content.append('\n').append(next.action().getContent());
+					notifications.add(next);
+				}
+				if (notifications.size() > 1) {
+					action = merge(notifications, () -> channel.sendMessage(content));
+				}
+			}
+			// notifications are only removed once their message has been created, so none of them can get lost
+			for (int i = 0; i < notifications.size(); i++) {
+				remove();
+			}
+			return new Batch(channel, action, notifications);
+		}
+
+		/**
+		 * Creates a message combining multiple notifications. If that fails (for example because
+		 * a permission has been removed in the meantime), only the first notification is sent
+		 * and the others stay queued.
+		 *
+		 * @param notifications The notifications to combine. If the message can't be created, all but the first one are removed from this list.
+		 * @param merged        Creates the combined message.
+		 * @return The action sending the notifications.
+		 */
+		private RestAction<Message> merge(List<Notification> notifications, Supplier<RestAction<Message>> merged) {
+			try {
+				return merged.get();
+			} catch (PermissionException | IllegalArgumentException | IllegalStateException e) {
+				log.warn("Could not combine " + notifications.size() + " notifications for channel \"" + channel.getName() + "\", sending the first one on its own: ", e);
+				notifications.subList(1, notifications.size()).clear();
+				return notifications.get(0).action();
+			}
+		}
+	}
+}
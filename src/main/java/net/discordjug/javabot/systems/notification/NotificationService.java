@@ -1,18 +1,19 @@
 package net.discordjug.javabot.systems.notification;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import net.discordjug.javabot.data.config.BotConfig;
 import net.discordjug.javabot.systems.qotw.QOTWPointsService;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.User;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
-import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles all types of guild & user notifications.
@@ -22,20 +23,30 @@ import java.util.function.Function;
 public class NotificationService {
 	private final QOTWPointsService qotwPointsService;
 	private final BotConfig botConfig;
+	private final NotificationDispatcher dispatcher;
+	/**
+	 * The private threads used for notifying users who can't receive direct messages, by the users' IDs.
+	 * Threads are stored while they are being created, so all notifications share the same thread.
+	 * These threads are archived an hour after their last message.
+	 */
+	private final Cache<Long, CompletableFuture<ThreadChannel>> notificationThreads = Caffeine.newBuilder()
+			.expireAfterWrite(1, TimeUnit.HOURS)
+			.maximumSize(1_000)
+			.build();
 
 	@Contract("_ -> new")
 	public @NotNull GuildNotificationService withGuild(Guild guild) {
-		return new GuildNotificationService(botConfig.get(guild));
+		return new GuildNotificationService(dispatcher, botConfig.get(guild));
 	}
 
 	@Contract("_ -> new")
 	public @NotNull UserNotificationService withUser(User user) {
-		return new UserNotificationService(user);
+		return new UserNotificationService(dispatcher, notificationThreads, user);
 	}
 
 	@Contract("_ -> new")
 	public @NotNull UserNotificationService withUser(User user, Guild guild) {
-		return new UserNotificationService(user, botConfig.get(guild).getModerationConfig());
+		return new UserNotificationService(dispatcher, notificationThreads, user, botConfig.get(guild).getModerationConfig());
 	}
 
 	public @NotNull QOTWGuildNotificationService withQOTW(Guild guild) {
@@ -45,23 +56,4 @@ public class NotificationService {
 	public @NotNull QOTWNotificationService withQOTW(Guild guild, User user) {
 		return new QOTWNotificationService(this, qotwPointsService, user, guild, botConfig.getSystems());
 	}
-
-	/**
-	 * Abstract class which streamlines the logic of sending messages to a {@link MessageChannel}.
-	 */
-	@Slf4j
-	abstract static class MessageChannelNotification {
-		/**
-		 * Sends a single message to the specified {@link MessageChannel} using the
-		 * specified {@link Function}.
-		 *
-		 * @param channel  The target {@link MessageChannel}.
-		 * @param function The {@link Function} which is used in order to send the message.
-		 */
-		protected void send(MessageChannel channel, @NotNull Function<MessageChannel, MessageCreateAction> function) {
-			function.apply(channel).queue(s -> {},
-					err -> log.error("Could not send message to channel \" " + channel.getName() + "\": ", err)
-			);
-		}
-	}
 }
@@ -1,5 +1,6 @@
 package net.discordjug.javabot.systems.notification;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
@@ -8,12 +9,14 @@ import net.discordjug.javabot.data.config.guild.ModerationConfig;
 import net.discordjug.javabot.util.UserUtils;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel.AutoArchiveDuration;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -22,33 +25,75 @@ import java.util.function.Function;
 @Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
-public final class UserNotificationService extends NotificationService.MessageChannelNotification {
+public final class UserNotificationService {
+	private final NotificationDispatcher dispatcher;
+	private final Cache<Long, CompletableFuture<ThreadChannel>> notificationThreads;
 	private final User user;
 	private ModerationConfig config;
 
 	/**
 	 * Sends a notification to a {@link User}s' {@link net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel}.
+	 * If the user does not accept direct messages, the notification is sent to a private thread instead.
+	 * Notifications to the same user are sent in that thread until it is archived.
 	 *
 	 * @param function The {@link Function} to use which MUST return a {@link MessageCreateAction}.
 	 */
 	public void sendDirectMessage(@NotNull Function<MessageChannel, MessageCreateAction> function) {
-		user.openPrivateChannel().flatMap(function::apply).queue(
-				msg -> {},
+		user.openPrivateChannel().queue(
+				// failed batches are logged by the dispatcher
+				channel -> dispatcher.dispatch(channel, function, NotificationDispatcher.Priority.INFORMATIONAL, error -> sendToNotificationThread(function)),
 				error -> {
 					log.error("Could not open PrivateChannel with user " + UserUtils.getUserTag(user), error);
-					if(config != null) {
-						TextChannel container = config.getNotificationThreadChannel();
-						if(container != null) {
-							container
-								.createThreadChannel("JavaBot notification", true)
-								.setAutoArchiveDuration(AutoArchiveDuration.TIME_1_HOUR)
-								.queue(c -> {
-									c.addThreadMember(user).queue();
-									send(c, function);
-								});
-						}
-					}
+					sendToNotificationThread(function);
 				}
 		);
 	}
+
+	private void sendToNotificationThread(@NotNull Function<MessageChannel, MessageCreateAction> function) {
+		if (config == null) {
+			return;
+		}
+		TextChannel container = config.getNotificationThreadChannel();
+		if (container == null) {
+			return;
+		}
+		getNotificationThread(container)
+				.thenAccept(thread -> dispatcher.dispatch(thread, function, NotificationDispatcher.Priority.INFORMATIONAL));
+	}
+
+	/**
+	 * Gets the private thread used for notifying the user, creating it if there is none yet.
+	 * All notifications of a failed batch share the same thread, so it is only created once.
+	 *
+	 * @param container The channel containing the notification threads.
+	 * @return A {@link CompletableFuture} which is completed with the thread once it has been created.
+	 */
+	private CompletableFuture<ThreadChannel> getNotificationThread(TextChannel container) {
+		return notificationThreads.asMap().compute(user.getIdLong(), (id, pending) -> {
+			if (pending != null && (!pending.isDone() || isUsable(container, pending))) {
+				return pending;
+			}
+			log.info("Creating notification thread for user {}", UserUtils.getUserTag(user));
+			CompletableFuture<ThreadChannel> thread = container
+					.createThreadChannel("JavaBot notification", true)
+					.setAutoArchiveDuration(AutoArchiveDuration.TIME_1_HOUR)
+					.submit();
+			thread.whenComplete((c, err) -> {
+				if (err == null) {
+					c.addThreadMember(user).queue();
+				} else {
+					log.error("Could not create notification thread for user " + UserUtils.getUserTag(user), err);
+				}
+			});
+			return thread;
+		});
+	}
+
+	private boolean isUsable(TextChannel container, CompletableFuture<ThreadChannel> pending) {
+		if (pending.isCompletedExceptionally()) {
+			return false;
+		}
+		ThreadChannel thread = container.getGuild().getThreadChannelById(pending.join().getIdLong());
+		return thread != null && !thread.isArchived();
+	}
 }
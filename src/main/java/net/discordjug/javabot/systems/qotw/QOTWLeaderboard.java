@@ -0,0 +1,158 @@
+package net.discordjug.javabot.systems.qotw;
+
+import net.discordjug.javabot.systems.qotw.model.QOTWAccount;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The QOTW points of all users in a single month, ranked by their points.
+ * <p>
+ * The users are stored in an array sorted by their points (descending) and their ID (ascending),
+ * with an index from the user ID to the points. Ranks are found with a binary search and pages are
+ * slices of the array, so no query needs to aggregate the points table.
+ * Changing the points of a user moves them to their new position.
+ */
+class QOTWLeaderboard {
+	private final Map<Long, Long> pointsByUser = new HashMap<>();
+	private long[] userIds;
+	private long[] points;
+	private int size;
+
+	/**
+	 * Creates the leaderboard from the accounts of all users.
+	 *
+	 * @param accounts The {@link QOTWAccount}s of all users with points in the month, in any order.
+	 */
+	QOTWLeaderboard(List<QOTWAccount> accounts) {
+		userIds = new long[Math.max(16, accounts.size())];
+		points = new long[userIds.length];
+		for (QOTWAccount account : accounts) {
+			pointsByUser.merge(account.getUserId(), account.getPoints(), Long::sum);
+		}
+		pointsByUser.entrySet()
+				.stream()
+				.sorted((a, b) -> compare(a.getValue(), a.getKey(), b.getValue(), b.getKey()))
+				.forEach(entry -> {
+					userIds[size] = entry.getKey();
+					points[size] = entry.getValue();
+					size++;
+				});
+	}
+
+	/**
+	 * Adds points to a user.
+	 *
+	 * @param userId The ID of the user.
+	 * @param delta  The number of points to add, this may be negative.
+	 * @return The total points of the user after the update.
+	 */
+	synchronized long add(long userId, long delta) {
+		Long oldPoints = pointsByUser.get(userId);
+		long newPoints = (oldPoints == null ? 0 : oldPoints) + delta;
+		if (oldPoints != null) {
+			int index = indexOf(oldPoints, userId);
+			System.arraycopy(userIds, index + 1, userIds, index, size - index - 1);
+			System.arraycopy(points, index + 1, points, index, size - index - 1);
+			size--;
+		} else if (size == userIds.length) {
+			userIds = Arrays.copyOf(userIds, size * 2);
+			points = Arrays.copyOf(points, size * 2);
+		}
+		int index = -indexOf(newPoints, userId) - 1;
+		System.arraycopy(userIds, index, userIds, index + 1, size - index);
+		System.arraycopy(points, index, points, index + 1, size - index);
+		userIds[index] = userId;
+		points[index] = newPoints;
+		size++;
+		pointsByUser.put(userId, newPoints);
+		return newPoints;
+	}
+
+	/**
+	 * Gets the points of a user.
+	 *
+	 * @param userId The ID of the user.
+	 * @return The points of the user or {@code 0} if the user has no points in this month.
+	 */
+	synchronized long getPoints(long userId) {
+		return pointsByUser.getOrDefault(userId, 0L);
+	}
+
+	/**
+	 * Gets the rank of a user. Users with the same points share the same rank.
+	 *
+	 * @param userId The ID of the user.
+	 * @return The rank of the user, starting at 1, or {@code -1} if the user is not ranked.
+	 */
+	synchronized int getRank(long userId) {
+		Long userPoints = pointsByUser.get(userId);
+		if (userPoints == null) {
+			return -1;
+		}
+		return countAbove(userPoints) + 1;
+	}
+
+	/**
+	 * Gets a page of the users with a positive amount of points, sorted by their points.
+	 *
+	 * @param page     The page, starting at 1.
+	 * @param pageSize The number of accounts per page.
+	 * @return A {@link List} containing the accounts on that page.
+	 */
+	synchronized List<QOTWAccount> getTopAccounts(int page, int pageSize) {
+		int start = Math.max(0, (page - 1) * pageSize);
+		int end = Math.min(start + pageSize, countAbove(0));
+		List<QOTWAccount> accounts = new ArrayList<>(Math.max(0, end - start));
+		for (int i = start; i < end; i++) {
+			QOTWAccount account = new QOTWAccount();
+			account.setUserId(userIds[i]);
+			account.setPoints(points[i]);
+			accounts.add(account);
+		}
+		return accounts;
+	}
+
+	/**
+	 * Counts the users with more points than the specified amount.
+	 *
+	 * @param threshold The amount of points.
+	 * @return The number of users with more points.
+	 */
+	private int countAbove(long threshold) {
+		// no user ID is smaller than Long.MIN_VALUE, so this is the position of the first user with these points
+		return -indexOf(threshold, Long.MIN_VALUE) - 1;
+	}
+
+	/**
+	 * Finds the position of a user in the sorted arrays.
+	 *
+	 * @param userPoints The points of the user.
+	 * @param userId     The ID of the user.
+	 * @return The index of the user if present, else {@code -(insertion point) - 1}.
+	 */
+	private int indexOf(long userPoints, long userId) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = compare(points[mid], userIds[mid], userPoints, userId);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private static int compare(long pointsA, long userA, long pointsB, long userB) {
+		int cmp = Long.compare(pointsB, pointsA);
+		return cmp != 0 ? cmp : Long.compare(userA, userB);
+	}
+}
@@ -10,20 +10,26 @@ import net.dv8tion.jda.api.entities.Member;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 /**
  * Service class which is used to get and manipulate other {@link QOTWAccount}s.
+ * <p>
+ * The points of the current month are kept in a {@link QOTWLeaderboard} which is loaded once per month
+ * and updated whenever points are changed using this service.
  */
 @RequiredArgsConstructor
 @Service
 public class QOTWPointsService {
 	private final QuestionPointsRepository pointsRepository;
+	private final Object leaderboardLock = new Object();
+	private volatile MonthlyLeaderboard leaderboard;
 
 	/**
 	 * Creates a new QOTW Account if none exists.
@@ -32,17 +38,10 @@ public class QOTWPointsService {
 	 * @return An {@link QOTWAccount} object.
 	 * @throws DataAccessException If an error occurs.
 	 */
-	@Transactional
 	public QOTWAccount getOrCreateAccount(long userId) throws DataAccessException {
-		QOTWAccount account;
-		Optional<QOTWAccount> optional = pointsRepository.getByUserId(userId, getCurrentMonth());
-		if (optional.isPresent()) {
-			account = optional.get();
-		} else {
-			account = new QOTWAccount();
-			account.setUserId(userId);
-			account.setPoints(0);
-		}
+		QOTWAccount account = new QOTWAccount();
+		account.setUserId(userId);
+		account.setPoints(getLeaderboard().getPoints(userId));
 		return account;
 	}
 
@@ -53,10 +52,8 @@ public class QOTWPointsService {
 	 * @return The QOTW-Rank as an integer.
 	 */
 	public int getQOTWRank(long userId) {
-		try{
-			List<QOTWAccount> accounts = pointsRepository.sortByPoints(getCurrentMonth());
-			int currentRank = getQOTWRank(userId, accounts);
-			return currentRank;
+		try {
+			return getLeaderboard().getRank(userId);
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			return -1;
@@ -109,13 +106,21 @@ public class QOTWPointsService {
 	 */
 	public List<Pair<QOTWAccount, Member>> getTopMembers(int n, Guild guild) {
 		try {
-			List<QOTWAccount> accounts = pointsRepository.getTopAccounts(getCurrentMonth(),1,(int)Math.ceil(n*1.5));
-			return accounts.stream()
-					.map(s -> new Pair<>(s, guild.getMemberById(s.getUserId())))
-					.filter(p->p.first().getPoints() > 0)
-					.filter(p -> p.second() != null)
-					.limit(n)
-					.toList();
+			QOTWLeaderboard currentLeaderboard = getLeaderboard();
+			List<Pair<QOTWAccount, Member>> members = new ArrayList<>(n);
+			// users who left the guild are skipped, so further pages may be needed
+			for (int page = 1; members.size() < n; page++) {
+				List<QOTWAccount> accounts = currentLeaderboard.getTopAccounts(page, n);
+				if (accounts.isEmpty()) {
+					break;
+				}
+				accounts.stream()
+						.map(s -> new Pair<>(s, guild.getMemberById(s.getUserId())))
+						.filter(p -> p.second() != null)
+						.limit(n - members.size())
+						.forEach(members::add);
+			}
+			return members;
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			return List.of();
@@ -131,7 +136,7 @@ public class QOTWPointsService {
 	 */
 	public List<QOTWAccount> getTopAccounts(int amount, int page) {
 		try {
-			return pointsRepository.getTopAccounts(getCurrentMonth(), page, amount);
+			return getLeaderboard().getTopAccounts(page, amount);
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			return List.of();
@@ -157,19 +162,66 @@ public class QOTWPointsService {
 	 */
 	public long increment(long userId, int incrementCount) {
 		try {
-			LocalDate date=LocalDate.now();
-			int points = pointsRepository.getPointsAtDate(userId, date) + incrementCount;
-			pointsRepository.setPointsAtDate(userId, date, points);
-			LocalDate month = getCurrentMonth();
-			long newScore = pointsRepository.getByUserId(userId, month).map(QOTWAccount::getPoints).orElse(0L);
-			return newScore;
+			// changes are serialized so that the leaderboard can't be reloaded between writing and applying a change
+			synchronized (leaderboardLock) {
+				QOTWLeaderboard currentLeaderboard = getLeaderboard();
+				pointsRepository.addPointsAtDate(userId, LocalDate.now(), incrementCount);
+				return currentLeaderboard.add(userId, incrementCount);
+			}
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			return 0;
 		}
 	}
 
+	/**
+	 * Increments the QOTW-Points of multiple users at once, e.g. when reviewing multiple submissions.
+	 * Either all or none of the points are added.
+	 *
+	 * @param increments The number of points to add for each user ID.
+	 * @return The total points of each user after the update or an empty {@link Map} if the update failed.
+	 */
+	public Map<Long, Long> incrementAll(Map<Long, Long> increments) {
+		try {
+			synchronized (leaderboardLock) {
+				QOTWLeaderboard currentLeaderboard = getLeaderboard();
+				pointsRepository.addPointsAtDate(increments, LocalDate.now());
+				Map<Long, Long> newPoints = new HashMap<>(increments.size());
+				increments.forEach((userId, increment) -> newPoints.put(userId, currentLeaderboard.add(userId, increment)));
+				return newPoints;
+			}
+		} catch (DataAccessException e) {
+			ExceptionLogger.capture(e, getClass().getSimpleName());
+			return Map.of();
+		}
+	}
+
+	/**
+	 * Gets the leaderboard of the current month, loading it if it has not been loaded yet in this month.
+	 *
+	 * @return The {@link QOTWLeaderboard} of the current month.
+	 * @throws DataAccessException If the leaderboard could not be loaded.
+	 */
+	private QOTWLeaderboard getLeaderboard() throws DataAccessException {
+		LocalDate month = getCurrentMonth();
+		MonthlyLeaderboard current = leaderboard;
+		if (current != null && current.month().equals(month)) {
+			return current.leaderboard();
+		}
+		synchronized (leaderboardLock) {
+			current = leaderboard;
+			if (current == null || !current.month().equals(month)) {
+				current = new MonthlyLeaderboard(month, new QOTWLeaderboard(pointsRepository.sortByPoints(month)));
+				leaderboard = current;
+			}
+			return current.leaderboard();
+		}
+	}
+
 	public static LocalDate getCurrentMonth() {
 		return YearMonth.from(LocalDate.now()).atDay(1);
 	}
+
+	private record MonthlyLeaderboard(LocalDate month, QOTWLeaderboard leaderboard) {
+	}
 }
@@ -4,12 +4,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import net.discordjug.javabot.systems.qotw.model.QOTWAccount;
@@ -20,6 +22,14 @@ import net.discordjug.javabot.systems.qotw.model.QOTWAccount;
 @RequiredArgsConstructor
 @Repository
 public class QuestionPointsRepository {
+	private static final String ADD_POINTS_QUERY = """
+			MERGE INTO qotw_points p
+			USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT))) AS v(user_id, obtained_at, points)
+			ON p.user_id = v.user_id AND p.obtained_at = v.obtained_at
+			WHEN MATCHED THEN UPDATE SET p.points = p.points + v.points
+			WHEN NOT MATCHED THEN INSERT (user_id, obtained_at, points) VALUES (v.user_id, v.obtained_at, v.points)
+			""";
+
 	private final JdbcTemplate jdbcTemplate;
 
 	/**
@@ -46,33 +56,32 @@ public class QuestionPointsRepository {
 	}
 
 	/**
-	 * Gets the number points given to a user at a certain date.
+	 * Atomically adds points to the points a user obtained at a certain date.
+	 * If the user has not obtained any points at that date, a new entry is created.
 	 *
-	 * @param userId the ID of the user
-	 * @param date the date where the points are given to that user
-	 * @return the number of points the user obtained at the given date
+	 * @param userId the id of the user to add points to
+	 * @param date the date when the points should be marked as obtained
+	 * @param points the number of points to add, this may be negative
+	 * @throws DataAccessException If an error occurs.
 	 */
-	public int getPointsAtDate(long userId, LocalDate date) {
-		try {
-			return jdbcTemplate.queryForObject("SELECT SUM(points) FROM qotw_points WHERE user_id = ? AND obtained_at >= ?",
-					(rs, row) -> rs.getInt(1),
-					userId, date);
-		}catch (EmptyResultDataAccessException e) {
-			return 0;
-		}
+	public void addPointsAtDate(long userId, LocalDate date, long points) throws DataAccessException {
+		jdbcTemplate.update(ADD_POINTS_QUERY, userId, date, points);
 	}
 
 	/**
-	 * Sets the points of a user at a certain date.
+	 * Atomically adds points to multiple users in a single transaction.
 	 *
-	 * @param userId the id of the user to set to points of
-	 * @param date the date when the points should be marked as set
-	 * @param points the (new) number of points the user got at that date
-	 * @return {@code true} if a change was made, else {@code false}
+	 * @param points the number of points to add for each user ID, these may be negative
+	 * @param date the date when the points should be marked as obtained
+	 * @throws DataAccessException If an error occurs.
 	 */
-	public boolean setPointsAtDate(long userId, LocalDate date, long points) {
-		return jdbcTemplate.update("MERGE INTO qotw_points (user_id,obtained_at,points) KEY(user_id,obtained_at) VALUES (?,?,?)",
-				userId, date, points) > 0;
+	@Transactional
+	public void addPointsAtDate(Map<Long, Long> points, LocalDate date) throws DataAccessException {
+		List<Object[]> args = points.entrySet()
+				.stream()
+				.map(entry -> new Object[] {entry.getKey(), date, entry.getValue()})
+				.toList();
+		jdbcTemplate.batchUpdate(ADD_POINTS_QUERY, args);
 	}
 
 	/**
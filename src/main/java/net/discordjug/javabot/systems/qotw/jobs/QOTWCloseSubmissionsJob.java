@@ -10,6 +10,7 @@ import net.discordjug.javabot.systems.qotw.QOTWPointsService;
 import net.discordjug.javabot.systems.qotw.dao.QuestionQueueRepository;
 import net.discordjug.javabot.systems.qotw.model.QOTWQuestion;
 import net.discordjug.javabot.systems.qotw.model.QOTWSubmission;
+import net.discordjug.javabot.systems.qotw.submissions.QOTWAnswerArchive;
 import net.discordjug.javabot.systems.qotw.submissions.SubmissionManager;
 import net.discordjug.javabot.systems.qotw.submissions.SubmissionStatus;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -58,6 +59,7 @@ public class QOTWCloseSubmissionsJob {
 	private final JDA jda;
 	private final QuestionQueueRepository questionQueueRepository;
 	private final ExecutorService asyncPool;
+	private final QOTWAnswerArchive answerArchive;
 	private final QOTWPointsService pointsService;
 	private final NotificationService notificationService;
 	private final BotConfig botConfig;
@@ -94,7 +96,7 @@ public class QOTWCloseSubmissionsJob {
 						s.retrieveAuthor(author -> {
 							submission.removeThreadMember(author).queue();
 							if (author.getIdLong() == qotwConfig.getQotwSampleAnswerUserId()) {
-								SubmissionManager manager = new SubmissionManager(botConfig.get(guild).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool);
+								SubmissionManager manager = new SubmissionManager(botConfig.get(guild).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool, answerArchive);
 								manager.copySampleAnswerSubmission(submission, author);
 							} else {
 								thread
@@ -6,6 +6,7 @@ import net.discordjug.javabot.systems.notification.NotificationService;
 import net.discordjug.javabot.systems.qotw.QOTWPointsService;
 import net.discordjug.javabot.systems.qotw.dao.QuestionQueueRepository;
 import net.discordjug.javabot.systems.qotw.model.QOTWSubmission;
+import net.discordjug.javabot.systems.qotw.submissions.QOTWAnswerArchive;
 import net.discordjug.javabot.systems.qotw.submissions.SubmissionManager;
 import net.discordjug.javabot.systems.user_preferences.UserPreferenceService;
 import net.discordjug.javabot.systems.user_preferences.model.Preference;
@@ -34,6 +35,7 @@ public class QOTWUserReminderJob {
 	private final NotificationService notificationService;
 	private final QuestionQueueRepository questionQueueRepository;
 	private final ExecutorService asyncPool;
+	private final QOTWAnswerArchive answerArchive;
 
 	/**
 	 * Checks that there's a question in the QOTW queue ready for posting soon.
@@ -42,7 +44,7 @@ public class QOTWUserReminderJob {
 	public void execute() {
 		for (Guild guild : jda.getGuilds()) {
 			QOTWConfig config = botConfig.get(guild).getQotwConfig();
-			List<QOTWSubmission> submissions = new SubmissionManager(config, pointsService, questionQueueRepository, notificationService, asyncPool).getActiveSubmissions();
+			List<QOTWSubmission> submissions = new SubmissionManager(config, pointsService, questionQueueRepository, notificationService, asyncPool, answerArchive).getActiveSubmissions();
 			for (QOTWSubmission submission : submissions) {
 				submission.retrieveAuthor(author -> {
 					UserPreference preference = userPreferenceService.getOrCreate(author.getIdLong(), Preference.QOTW_REMINDER);
@@ -0,0 +1,187 @@
+package net.discordjug.javabot.systems.qotw.submissions;
+
+import club.minnced.discord.webhook.send.WebhookMessageBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.discordjug.javabot.systems.notification.NotificationService;
+import net.discordjug.javabot.util.ExceptionLogger;
+import net.discordjug.javabot.util.UserUtils;
+import net.discordjug.javabot.util.WebhookUtil;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.MessageType;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.Webhook;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Copies accepted QOTW submissions to a post in the QOTW answer archive.
+ * <p>
+ * The history of a submission is paged lazily and the attachments of each message are downloaded as soon as
+ * the message has been found, while the messages of other submissions are still being sent.
+ * Up to {@link #MAX_CONCURRENT_SUBMISSIONS} submissions are processed at the same time. The messages of a
+ * submission are sent in order, and only after the submissions archived earlier in the same post,
+ * so submissions are never interleaved.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QOTWAnswerArchive {
+	private static final int MAX_CONCURRENT_SUBMISSIONS = 3;
+	private static final int MAX_MESSAGE_LENGTH = Message.MAX_CONTENT_LENGTH;
+
+	private final NotificationService notificationService;
+	private final Semaphore permits = new Semaphore(MAX_CONCURRENT_SUBMISSIONS);
+	private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+	/**
+	 * Completed once the last submission queued for an archive post has been archived, by the ID of the post.
+	 */
+	private final Map<Long, CompletableFuture<Void>> lastSubmissions = new ConcurrentHashMap<>();
+
+	/**
+	 * Copies all messages of a submission to an archive post.
+	 * The result is logged and failures are reported in the moderation log.
+	 *
+	 * @param archivePost The post to copy the submission to.
+	 * @param submission  The submission thread.
+	 * @param author      The author of the submission, only messages by this user are copied.
+	 * @param authorEmbed The embed which is added to the last message of the submission.
+	 * @return A {@link CompletableFuture} which is completed with the number of sent messages.
+	 */
+	public CompletableFuture<Integer> archive(@NotNull ThreadChannel archivePost, @NotNull ThreadChannel submission, @NotNull User author, @NotNull MessageEmbed authorEmbed) {
+		CompletableFuture<Void> archived = new CompletableFuture<>();
+		CompletableFuture<Integer> result;
+		// submissions have to be started in the order they wait for each other, otherwise they could wait for a permit
+		synchronized (lastSubmissions) {
+			CompletableFuture<Void> previous = lastSubmissions.put(archivePost.getIdLong(), archived);
+			CompletableFuture<Void> turn = previous == null ? CompletableFuture.completedFuture(null) : previous;
+			result = runLimited(() -> {
+				CompletableFuture<Webhook> webhook = new CompletableFuture<>();
+				WebhookUtil.ensureWebhookExists(archivePost.getParentChannel().asForumChannel(), webhook::complete, webhook::completeExceptionally);
+				CompletableFuture<List<CompletableFuture<WebhookMessageBuilder>>> messages = prepareMessages(submission, author, authorEmbed);
+				return turn
+						.thenCompose(unused -> webhook)
+						.thenCombine(messages, (wh, prepared) -> send(wh, archivePost, prepared))
+						.thenCompose(sent -> sent);
+			});
+		}
+		result.whenComplete((count, err) -> {
+			archived.complete(null);
+			lastSubmissions.remove(archivePost.getIdLong(), archived);
+			if (err == null) {
+				log.info("Archived {} messages of the QOTW submission by {} in {}", count, UserUtils.getUserTag(author), archivePost.getName());
+			} else {
+				reportFailure(submission, author, err);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Pages through the history of a submission and prepares a copy of every message by the author.
+	 *
+	 * @param submission  The submission thread.
+	 * @param author      The author of the submission.
+	 * @param authorEmbed The embed which is added to the last message.
+	 * @return The copies of all messages in order, each completed once its attachments have been downloaded.
+	 */
+	private CompletableFuture<List<CompletableFuture<WebhookMessageBuilder>>> prepareMessages(ThreadChannel submission, User author, MessageEmbed authorEmbed) {
+		List<CompletableFuture<WebhookMessageBuilder>> messages = new ArrayList<>();
+		// a message is only prepared once the next message has been found, as the last message gets the author embed
+		AtomicReference<Message> previous = new AtomicReference<>();
+		return submission.getIterableHistory()
+				.reverse()
+				.forEachAsync(message -> {
+					if (message.getAuthor().equals(author) && message.getType() == MessageType.DEFAULT) {
+						Message last = previous.getAndSet(message);
+						if (last != null) {
+							prepareMessage(last, null, messages);
+						}
+					}
+					return true;
+				})
+				.thenApply(unused -> {
+					Message last = previous.get();
+					if (last != null) {
+						prepareMessage(last, List.of(authorEmbed), messages);
+					}
+					return messages;
+				});
+	}
+
+	private void prepareMessage(Message message, List<MessageEmbed> embeds, List<CompletableFuture<WebhookMessageBuilder>> messages) {
+		String content = message.getContentRaw();
+		if (content.length() > MAX_MESSAGE_LENGTH) {
+			messages.add(WebhookUtil.prepareMirroredMessage(message, content.substring(0, MAX_MESSAGE_LENGTH), null, null));
+			messages.add(WebhookUtil.prepareMirroredMessage(message, content.substring(MAX_MESSAGE_LENGTH), null, embeds));
+		} else {
+			messages.add(WebhookUtil.prepareMirroredMessage(message, content, null, embeds));
+		}
+	}
+
+	private CompletableFuture<Integer> send(Webhook webhook, ThreadChannel archivePost, List<CompletableFuture<WebhookMessageBuilder>> messages) {
+		CompletableFuture<?> sent = CompletableFuture.completedFuture(null);
+		for (CompletableFuture<WebhookMessageBuilder> message : messages) {
+			sent = sent.thenCompose(unused -> message)
+					.thenCompose(prepared -> WebhookUtil.sendMirroredMessage(webhook, archivePost.getIdLong(), prepared));
+		}
+		return sent.thenApply(unused -> messages.size());
+	}
+
+	private void reportFailure(ThreadChannel submission, User author, Throwable err) {
+		ExceptionLogger.capture(err, getClass().getSimpleName());
+		notificationService.withGuild(submission.getGuild()).sendToModerationLog(c -> c.sendMessageFormat(
+				"Could not archive the QOTW submission %s by %s: %s",
+				submission.getAsMention(), author.getAsMention(), err.getMessage()));
+	}
+
+	/**
+	 * Runs a task once fewer than {@link #MAX_CONCURRENT_SUBMISSIONS} other tasks are running.
+	 * Tasks are started in the order they have been submitted.
+	 *
+	 * @param task The task to run.
+	 * @param <T>  The type of the result of the task.
+	 * @return A {@link CompletableFuture} which is completed with the result of the task.
+	 */
+	private <T> CompletableFuture<T> runLimited(Supplier<CompletableFuture<T>> task) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		pending.add(() -> CompletableFuture.completedFuture(null)
+				.thenCompose(unused -> task.get())
+				.whenComplete((value, err) -> {
+					permits.release();
+					startPending();
+					if (err == null) {
+						result.complete(value);
+					} else {
+						result.completeExceptionally(err);
+					}
+				}));
+		startPending();
+		return result;
+	}
+
+	private void startPending() {
+		while (!pending.isEmpty() && permits.tryAcquire()) {
+			Runnable next = pending.poll();
+			if (next == null) {
+				permits.release();
+				return;
+			}
+			next.run();
+		}
+	}
+}
@@ -30,10 +30,11 @@ public class SubmissionInteractionManager implements ButtonHandler, StringSelect
 	private final BotConfig botConfig;
 	private final QuestionQueueRepository questionQueueRepository;
 	private final ExecutorService asyncPool;
+	private final QOTWAnswerArchive answerArchive;
 
 	@Override
 	public void handleButton(@NotNull ButtonInteractionEvent event, Button button) {
-		SubmissionManager manager = new SubmissionManager(botConfig.get(event.getGuild()).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool);
+		SubmissionManager manager = new SubmissionManager(botConfig.get(event.getGuild()).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool, answerArchive);
 		String[] id = ComponentIdBuilder.split(event.getComponentId());
 		switch (id[1]) {
 			case "submit" -> manager.handleSubmission(event, Integer.parseInt(id[2])).queue();
@@ -43,7 +44,7 @@ public class SubmissionInteractionManager implements ButtonHandler, StringSelect
 
 	@Override
 	public void handleStringSelectMenu(@NotNull StringSelectInteractionEvent event, @NotNull List<String> values) {
-		SubmissionManager manager = new SubmissionManager(botConfig.get(event.getGuild()).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool);
+		SubmissionManager manager = new SubmissionManager(botConfig.get(event.getGuild()).getQotwConfig(), pointsService, questionQueueRepository, notificationService, asyncPool, answerArchive);
 		String[] id = ComponentIdBuilder.split(event.getComponentId());
 		switch (id[1]) {
 			case "review" -> manager.handleSelectReview(event, id[2]);
@@ -12,12 +12,9 @@ import net.discordjug.javabot.systems.qotw.model.QOTWSubmission;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.Responses;
 import net.discordjug.javabot.util.UserUtils;
-import net.discordjug.javabot.util.WebhookUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Member;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
-import net.dv8tion.jda.api.entities.MessageType;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
@@ -36,7 +33,6 @@ import java.time.Instant;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -57,6 +53,7 @@ public class SubmissionManager {
 	private final QuestionQueueRepository questionQueueRepository;
 	private final NotificationService notificationService;
 	private final ExecutorService asyncPool;
+	private final QOTWAnswerArchive answerArchive;
 
 	/**
 	 * Handles the "Submit your Answer" Button interaction.
@@ -192,10 +189,9 @@ public class SubmissionManager {
 	 */
 	public void acceptSubmission(@NotNull ThreadChannel thread, @NotNull User author, Member reviewedBy, boolean bestAnswer) {
 		thread.getManager().setName(SUBMISSION_ACCEPTED + thread.getName().substring(1)).queue();
-		pointsService.increment(author.getIdLong());
+		pointsService.increment(author.getIdLong(), bestAnswer ? 2 : 1);
 		notificationService.withQOTW(thread.getGuild(), author).sendAccountIncrementedNotification();
 		if (bestAnswer) {
-			pointsService.increment(author.getIdLong());
 			notificationService.withQOTW(thread.getGuild(), author).sendBestAnswerNotification();
 		}
 		notificationService.withQOTW(thread.getGuild()).sendSubmissionActionNotification(reviewedBy.getUser(), new QOTWSubmission(thread), bestAnswer ? SubmissionStatus.ACCEPT_BEST : SubmissionStatus.ACCEPT);
@@ -209,25 +205,7 @@ public class SubmissionManager {
 	private void sendToQOTWAnswerArchive(ThreadChannel thread, User author, AcceptedAnswerType type) {
 		Optional<ThreadChannel> newestPostOptional = config.getSubmissionsForumChannel().getThreadChannels()
 				.stream().max(Comparator.comparing(ThreadChannel::getTimeCreated));
-		if (newestPostOptional.isPresent()) {
-			ThreadChannel newestPost = newestPostOptional.get();
-			WebhookUtil.ensureWebhookExists(newestPost.getParentChannel().asForumChannel(), wh ->
-					getMessagesByUser(thread, author).thenAccept(messages -> {
-						for (Message message : messages) {
-							boolean lastMessage = messages.indexOf(message) + 1 == messages.size();
-							if (message.getAuthor().isBot() || message.getType() != MessageType.DEFAULT) continue;
-							if (message.getContentRaw().length() > 2000) {
-								WebhookUtil.mirrorMessageToWebhook(wh, message, message.getContentRaw().substring(0, 2000), newestPost.getIdLong(), null, null).join();
-								WebhookUtil.mirrorMessageToWebhook(wh, message, message.getContentRaw().substring(2000), newestPost.getIdLong(), null, lastMessage ? List.of(buildAuthorEmbed(author, type)) : null).join();
-							} else {
-								WebhookUtil.mirrorMessageToWebhook(wh, message, message.getContentRaw(), newestPost.getIdLong(), null, lastMessage ? List.of(buildAuthorEmbed(author, type)) : null).join();
-							}
-						}
-					}).exceptionally(err->{
-						ExceptionLogger.capture(err,getClass().getSimpleName());
-						return null;
-					}));
-		}
+		newestPostOptional.ifPresent(newestPost -> answerArchive.archive(newestPost, thread, author, buildAuthorEmbed(author, type)));
 		thread.getManager().setLocked(true).setArchived(true).queue();
 	}
 
@@ -255,13 +233,6 @@ public class SubmissionManager {
 		thread.getManager().setLocked(true).setArchived(true).queue();
 	}
 
-	private CompletableFuture<List<Message>> getMessagesByUser(@NotNull ThreadChannel channel, User user) {
-		return channel.getIterableHistory()
-				.reverse()
-				.takeAsync(channel.getMessageCount())
-				.thenApply(list -> list.stream().filter(m -> m.getAuthor().equals(user)).toList());
-	}
-
 	private @NotNull MessageEmbed buildAuthorEmbed(@NotNull User user, AcceptedAnswerType answerType) {
 		return new EmbedBuilder()
 				.setAuthor(answerType.getPrefix() + " from " + UserUtils.getUserTag(user), null, user.getAvatarUrl())
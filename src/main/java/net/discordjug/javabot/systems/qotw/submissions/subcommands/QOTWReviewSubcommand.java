@@ -6,6 +6,7 @@ import net.discordjug.javabot.systems.notification.NotificationService;
 import net.discordjug.javabot.systems.qotw.QOTWPointsService;
 import net.discordjug.javabot.systems.qotw.dao.QuestionQueueRepository;
 import net.discordjug.javabot.systems.qotw.model.QOTWSubmission;
+import net.discordjug.javabot.systems.qotw.submissions.QOTWAnswerArchive;
 import net.discordjug.javabot.systems.qotw.submissions.SubmissionManager;
 import net.discordjug.javabot.systems.qotw.submissions.SubmissionStatus;
 import net.discordjug.javabot.util.Responses;
@@ -34,6 +35,7 @@ public class QOTWReviewSubcommand extends SlashCommand.Subcommand {
 	private final QuestionQueueRepository questionQueueRepository;
 	private final BotConfig botConfig;
 	private final ExecutorService asyncPool;
+	private final QOTWAnswerArchive answerArchive;
 
 
 	/**
@@ -43,13 +45,15 @@ public class QOTWReviewSubcommand extends SlashCommand.Subcommand {
 	 * @param questionQueueRepository The {@link QuestionQueueRepository}.
 	 * @param botConfig The main configuration of the bot
 	 * @param asyncPool The main thread pool for asynchronous operations
+	 * @param answerArchive The {@link QOTWAnswerArchive} accepted submissions are copied to
 	 */
-	public QOTWReviewSubcommand(QOTWPointsService pointsService, NotificationService notificationService, QuestionQueueRepository questionQueueRepository, BotConfig botConfig, ExecutorService asyncPool) {
+	public QOTWReviewSubcommand(QOTWPointsService pointsService, NotificationService notificationService, QuestionQueueRepository questionQueueRepository, BotConfig botConfig, ExecutorService asyncPool, QOTWAnswerArchive answerArchive) {
 		this.pointsService = pointsService;
 		this.notificationService = notificationService;
 		this.questionQueueRepository = questionQueueRepository;
 		this.botConfig = botConfig;
 		this.asyncPool = asyncPool;
+		this.answerArchive = answerArchive;
 		setCommandData(new SubcommandData("review", "Administrative command for reviewing QOTW-submissions")
 				.addOptions(
 						new OptionData(OptionType.CHANNEL, "submission", "A users' submission", true)
@@ -80,7 +84,7 @@ public class QOTWReviewSubcommand extends SlashCommand.Subcommand {
 		event.deferReply().queue();
 		QOTWSubmission submission = new QOTWSubmission(submissionThread);
 		submission.retrieveAuthor(author -> {
-			SubmissionManager manager = new SubmissionManager(qotwConfig, pointsService, questionQueueRepository, notificationService, asyncPool);
+			SubmissionManager manager = new SubmissionManager(qotwConfig, pointsService, questionQueueRepository, notificationService, asyncPool, answerArchive);
 			if (state.contains("ACCEPT")) {
 				manager.acceptSubmission(submissionThread, author, event.getMember(), state.equals("ACCEPT_BEST"));
 				Responses.success(event.getHook(), "Submission Accepted", "Successfully accepted submission by " + author.getAsMention()).queue();
@@ -50,7 +50,7 @@ public class RedeployCommand extends SlashCommand {
 		}
 		log.warn("Redeploying... Requested by: " + UserUtils.getUserTag(event.getUser()));
 		event.reply("**Redeploying...** This may take some time.").queue();
-		messageCache.synchronize();
+		messageCache.flush();
 		System.exit(0);
 	}
 }
\ No newline at end of file
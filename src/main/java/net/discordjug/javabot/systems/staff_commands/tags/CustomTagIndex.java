@@ -0,0 +1,292 @@
+package net.discordjug.javabot.systems.staff_commands.tags;
+
+import net.discordjug.javabot.systems.staff_commands.tags.model.CustomTag;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The {@link CustomTag}s of a single guild, indexed for lookups by name, autocompletion and search.
+ * <p>
+ * Tags are stored in a hash map and a sorted map by their (lowercase) name, so autocompletion only visits the
+ * tags starting with the entered text. For searching, every trigram of the names and responses is mapped to the
+ * sorted IDs of all tags containing it. A search intersects the ID lists of the trigrams of the query and only
+ * checks the remaining candidates.
+ * <p>
+ * Reads don't block. Changes are synchronized and update the index in place, replacing the ID lists of the
+ * affected trigrams.
+ */
+class CustomTagIndex {
+	private static final int GRAM_LENGTH = 3;
+	private static final long[] NO_IDS = new long[0];
+
+	private final Map<Long, CustomTag> tagsById = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListMap<String, CustomTag> tagsByName = new ConcurrentSkipListMap<>();
+	private final Map<Long, long[]> tagIdsByGram = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the index.
+	 *
+	 * @param tags All {@link CustomTag}s of the guild.
+	 */
+	CustomTagIndex(@NotNull Collection<CustomTag> tags) {
+		// builds the ID lists at once instead of copying them for every tag
+		Map<Long, List<Long>> ids = new HashMap<>();
+		for (CustomTag tag : tags) {
+			tagsById.put(tag.getId(), tag);
+			tagsByName.put(normalize(tag.getName()), tag);
+			for (long gram : getGrams(tag)) {
+				ids.computeIfAbsent(gram, g -> new ArrayList<>()).add(tag.getId());
+			}
+		}
+		ids.forEach((gram, list) -> {
+			long[] array = list.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+			tagIdsByGram.put(gram, array);
+		});
+	}
+
+	/**
+	 * Gets the number of tags.
+	 *
+	 * @return The number of tags in this index.
+	 */
+	int size() {
+		return tagsByName.size();
+	}
+
+	/**
+	 * Gets all tags.
+	 *
+	 * @return An unmodifiable view of all tags, sorted by their name.
+	 */
+	Collection<CustomTag> getAll() {
+		return Collections.unmodifiableCollection(tagsByName.values());
+	}
+
+	/**
+	 * Gets a tag by its name, ignoring its case.
+	 *
+	 * @param name The name of the tag.
+	 * @return The {@link CustomTag}, if there is a tag with that name.
+	 */
+	Optional<CustomTag> getByName(@NotNull String name) {
+		return Optional.ofNullable(tagsByName.get(normalize(name)));
+	}
+
+	/**
+	 * Finds tags for autocompletion. Tags starting with the text are returned first,
+	 * followed by tags containing the text somewhere else in their name.
+	 *
+	 * @param text  The entered text.
+	 * @param limit The maximum number of tags.
+	 * @return The matching {@link CustomTag}s.
+	 */
+	List<CustomTag> autocomplete(@NotNull String text, int limit) {
+		String prefix = normalize(text);
+		List<CustomTag> tags = new ArrayList<>(limit);
+		for (CustomTag tag : tagsByName.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+			if (tags.size() >= limit) {
+				return tags;
+			}
+			tags.add(tag);
+		}
+		for (CustomTag tag : findCandidates(prefix)) {
+			if (tags.size() >= limit) {
+				break;
+			}
+			String name = normalize(tag.getName());
+			if (!name.startsWith(prefix) && name.contains(prefix)) {
+				tags.add(tag);
+			}
+		}
+		return tags;
+	}
+
+	/**
+	 * Searches for tags whose name or response contains the query, ignoring its case.
+	 *
+	 * @param query The search query.
+	 * @return The matching {@link CustomTag}s, sorted by their name.
+	 */
+	List<CustomTag> search(@NotNull String query) {
+		String normalized = normalize(query);
+		List<CustomTag> tags = new ArrayList<>();
+		for (CustomTag tag : findCandidates(normalized)) {
+			if (normalize(tag.getName()).contains(normalized) || normalize(tag.getResponse()).contains(normalized)) {
+				tags.add(tag);
+			}
+		}
+		return tags;
+	}
+
+	/**
+	 * Adds a tag or replaces the tag with the same ID.
+	 *
+	 * @param tag The {@link CustomTag}.
+	 */
+	synchronized void put(@NotNull CustomTag tag) {
+		CustomTag previous = tagsById.put(tag.getId(), tag);
+		long[] previousGrams = NO_IDS;
+		if (previous != null) {
+			tagsByName.remove(normalize(previous.getName()), previous);
+			previousGrams = getGrams(previous);
+		}
+		tagsByName.put(normalize(tag.getName()), tag);
+		long[] grams = getGrams(tag);
+		for (long gram : previousGrams) {
+			if (Arrays.binarySearch(grams, gram) < 0) {
+				tagIdsByGram.computeIfPresent(gram, (g, ids) -> removeId(ids, tag.getId()));
+			}
+		}
+		for (long gram : grams) {
+			if (Arrays.binarySearch(previousGrams, gram) < 0) {
+				tagIdsByGram.merge(gram, new long[] {tag.getId()}, (ids, unused) -> addId(ids, tag.getId()));
+			}
+		}
+	}
+
+	/**
+	 * Removes a tag.
+	 *
+	 * @param tag The {@link CustomTag}, identified by its ID.
+	 */
+	synchronized void remove(@NotNull CustomTag tag) {
+		CustomTag previous = tagsById.remove(tag.getId());
+		if (previous == null) {
+			return;
+		}
+		tagsByName.remove(normalize(previous.getName()), previous);
+		for (long gram : getGrams(previous)) {
+			tagIdsByGram.computeIfPresent(gram, (g, ids) -> removeId(ids, previous.getId()));
+		}
+	}
+
+	/**
+	 * Finds all tags which could contain a text in their name or response.
+	 *
+	 * @param text The normalized text.
+	 * @return The candidates, sorted by their name.
+	 */
+	private List<CustomTag> findCandidates(String text) {
+		if (text.length() < GRAM_LENGTH) {
+			return new ArrayList<>(tagsByName.values());
+		}
+		long[] candidates = null;
+		for (long gram : getGrams(text)) {
+			long[] ids = tagIdsByGram.getOrDefault(gram, NO_IDS);
+			candidates = candidates == null ? ids : intersect(candidates, ids);
+			if (candidates.length == 0) {
+				return List.of();
+			}
+		}
+		List<CustomTag> tags = new ArrayList<>(candidates.length);
+		for (long id : candidates) {
+			CustomTag tag = tagsById.get(id);
+			if (tag != null) {
+				tags.add(tag);
+			}
+		}
+		tags.sort((a, b) -> normalize(a.getName()).compareTo(normalize(b.getName())));
+		return tags;
+	}
+
+	private static long[] getGrams(CustomTag tag) {
+		String name = normalize(tag.getName());
+		String response = normalize(tag.getResponse());
+		long[] grams = new long[Math.max(0, name.length() - GRAM_LENGTH + 1) + Math.max(0, response.length() - GRAM_LENGTH + 1)];
+		int count = addGrams(name, grams, 0);
+		count = addGrams(response, grams, count);
+		return distinct(grams, count);
+	}
+
+	private static long[] getGrams(String text) {
+		long[] grams = new long[Math.max(0, text.length() - GRAM_LENGTH + 1)];
+		return distinct(grams, addGrams(text, grams, 0));
+	}
+
+	/**
+	 * Encodes the trigrams of a text as longs, using 16 bits per character.
+	 *
+	 * @param text   The normalized text.
+	 * @param grams  The array to store the trigrams in.
+	 * @param offset The index of the first trigram in the array.
+	 * @return The index after the last trigram in the array.
+	 */
+	private static int addGrams(String text, long[] grams, int offset) {
+		int count = offset;
+		for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+			grams[count++] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+		}
+		return count;
+	}
+
+	private static long[] distinct(long[] values, int length) {
+		Arrays.sort(values, 0, length);
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			if (count == 0 || values[count - 1] != values[i]) {
+				values[count++] = values[i];
+			}
+		}
+		return Arrays.copyOf(values, count);
+	}
+
+	private static long[] intersect(long[] a, long[] b) {
+		long[] result = new long[Math.min(a.length, b.length)];
+		int count = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[count++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private static long[] addId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index >= 0) {
+			return ids;
+		}
+		int insertAt = -index - 1;
+		long[] result = new long[ids.length + 1];
+		System.arraycopy(ids, 0, result, 0, insertAt);
+		result[insertAt] = id;
+		System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+		return result;
+	}
+
+	private static long[] removeId(long[] ids, long id) {
+		int index = Arrays.binarySearch(ids, id);
+		if (index < 0) {
+			return ids;
+		}
+		if (ids.length == 1) {
+			return null;
+		}
+		long[] result = new long[ids.length - 1];
+		System.arraycopy(ids, 0, result, 0, index);
+		System.arraycopy(ids, index + 1, result, index, result.length - index);
+		return result;
+	}
+
+	private static String normalize(String text) {
+		return text == null ? "" : text.toLowerCase(Locale.ROOT);
+	}
+}
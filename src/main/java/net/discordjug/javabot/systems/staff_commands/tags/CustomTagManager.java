@@ -11,6 +11,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.interactions.AutoCompleteCallbackAction;
 
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -31,10 +33,10 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class CustomTagManager {
-	private static final Map<Long, Set<CustomTag>> LOADED_TAGS;
+	private static final Map<Long, CustomTagIndex> LOADED_TAGS;
 
 	static {
-		LOADED_TAGS = new HashMap<>();
+		LOADED_TAGS = new ConcurrentHashMap<>();
 	}
 
 	private final CustomTagRepository customTagRepository;
@@ -60,13 +62,13 @@ public class CustomTagManager {
 	 * @return A {@link List} with all Option Choices.
 	 */
 	public static @NotNull List<Command.Choice> replyTags(@NotNull Guild guild, String text) {
-		List<Command.Choice> choices = new ArrayList<>(25);
-		for (CustomTag command : LOADED_TAGS.get(guild.getIdLong())) {
-			if (choices.size() < 26 && command.getName().toLowerCase().contains(text)) {
-				choices.add(new Command.Choice(command.getName(), command.getName()));
-			}
+		CustomTagIndex index = LOADED_TAGS.get(guild.getIdLong());
+		if (index == null) {
+			return List.of();
 		}
-		return choices;
+		return index.autocomplete(text, OptionData.MAX_CHOICES).stream()
+				.map(tag -> new Command.Choice(tag.getName(), tag.getName()))
+				.toList();
 	}
 
 	public static @NotNull AutoCompleteCallbackAction handleAutoComplete(@NotNull CommandAutoCompleteInteractionEvent event) {
@@ -108,34 +110,56 @@ public class CustomTagManager {
 	 */
 	public void init(JDA jda) throws SQLException {
 		for (Guild guild : jda.getGuilds()) {
-			Set<CustomTag> tags = LOADED_TAGS.put(guild.getIdLong(), getCustomTags(guild.getIdLong()));
-			if (tags != null && !tags.isEmpty()) {
-				log.info("Loaded {} Custom Tags for Guild \"{}\": {}", tags.size(), guild.getName(),
-						tags.stream().map(CustomTag::getName).collect(Collectors.joining(", ")));
+			CustomTagIndex index = loadTags(guild.getIdLong());
+			LOADED_TAGS.put(guild.getIdLong(), index);
+			if (index.size() > 0) {
+				log.info("Loaded {} Custom Tags for Guild \"{}\": {}", index.size(), guild.getName(),
+						index.getAll().stream().map(CustomTag::getName).collect(Collectors.joining(", ")));
 			}
 		}
 	}
 
 	/**
-	 * Gets all {@link CustomTag}s (from the database) for the specified {@link Guild}.
+	 * Loads all {@link CustomTag}s (from the database) for the specified {@link Guild}.
 	 *
 	 * @param guildId The guilds' id.
-	 * @return A {@link Set} of all {@link CustomTag}s for the current guild.
+	 * @return A {@link CustomTagIndex} of all {@link CustomTag}s for the current guild.
 	 * @throws SQLException If an error occurs.
 	 */
 	@Contract("_ -> new")
-	private @NotNull Set<CustomTag> getCustomTags(long guildId) throws DataAccessException {
-		return new HashSet<>(customTagRepository.getCustomTagsByGuildId(guildId));
+	private @NotNull CustomTagIndex loadTags(long guildId) throws DataAccessException {
+		return new CustomTagIndex(customTagRepository.getCustomTagsByGuildId(guildId));
+	}
+
+	/**
+	 * Gets the {@link CustomTagIndex} of a guild, loading it if the guild's tags have not been loaded yet.
+	 *
+	 * @param guildId The guilds' id.
+	 * @return The {@link CustomTagIndex}.
+	 */
+	private CustomTagIndex getIndex(long guildId) throws DataAccessException {
+		return LOADED_TAGS.computeIfAbsent(guildId, this::loadTags);
 	}
 
 	/**
 	 * Gets all loaded {@link CustomTag}s for the specified {@link Guild}.
 	 *
 	 * @param guildId The {@link Guild}s id.
-	 * @return An unmodifiable {@link Set} of all {@link CustomTag}s for the current guild.
+	 * @return An unmodifiable {@link Collection} of all {@link CustomTag}s for the current guild, sorted by their name.
 	 */
-	public Set<CustomTag> getLoadedCommands(long guildId) {
-		return LOADED_TAGS.get(guildId);
+	public Collection<CustomTag> getLoadedCommands(long guildId) {
+		return getIndex(guildId).getAll();
+	}
+
+	/**
+	 * Searches for {@link CustomTag}s whose name or response contains the query, ignoring its case.
+	 *
+	 * @param guildId The guilds' id.
+	 * @param query   The search query.
+	 * @return A {@link List} of the matching {@link CustomTag}s, sorted by their name.
+	 */
+	public List<CustomTag> search(long guildId, String query) {
+		return getIndex(guildId).search(query);
 	}
 
 	/**
@@ -146,9 +170,7 @@ public class CustomTagManager {
 	 * @return An {@link Optional} which may contains the desired {@link CustomTag}.
 	 */
 	public Optional<CustomTag> getByName(long guildId, String name) {
-		return getLoadedCommands(guildId).stream()
-				.filter(c -> c.getName().equalsIgnoreCase(name))
-				.findFirst();
+		return getIndex(guildId).getByName(name);
 	}
 
 	/**
@@ -163,11 +185,10 @@ public class CustomTagManager {
 		if (doesTagExist(guild.getIdLong(), tag.getName())) {
 			return false;
 		}
-		Set<CustomTag> tags = new HashSet<>(LOADED_TAGS.get(guild.getIdLong()));
-		tags.add(tag);
-		LOADED_TAGS.put(guild.getIdLong(), tags);
+		CustomTag inserted = customTagRepository.insert(tag);
+		getIndex(guild.getIdLong()).put(inserted);
 		log.info("Created Custom Tag in guild \"{}\": {}", guild.getName(), tag.getName());
-		return customTagRepository.insert(tag) != null;
+		return true;
 	}
 
 	/**
@@ -183,7 +204,7 @@ public class CustomTagManager {
 			return false;
 		}
 		customTagRepository.delete(tag);
-		LOADED_TAGS.put(guildId, new HashSet<>(getCustomTags(guildId)));
+		getIndex(guildId).remove(tag);
 		log.info("Deleted Custom Tag in guild \"{}\": {}", guildId, tag);
 		return true;
 	}
@@ -201,8 +222,8 @@ public class CustomTagManager {
 		if (!doesTagExist(guildId, old.getName())) {
 			return false;
 		}
-		customTagRepository.edit(old, update);
-		LOADED_TAGS.put(guildId, new HashSet<>(getCustomTags(guildId)));
+		CustomTag edited = customTagRepository.edit(old, update);
+		getIndex(guildId).put(edited);
 		log.info("Edited Custom Tag in guild \"{}\": {} -> {}", guildId, old, update);
 		return true;
 	}
@@ -215,7 +236,6 @@ public class CustomTagManager {
 	 * @return Whether a {@link CustomTag} already exists with that name.
 	 */
 	private boolean doesTagExist(long guildId, String tagName) {
-		Set<CustomTag> tags = LOADED_TAGS.get(guildId);
-		return tags != null && tags.stream().anyMatch(c -> c.getName().equalsIgnoreCase(tagName));
+		return getIndex(guildId).getByName(tagName).isPresent();
 	}
 }
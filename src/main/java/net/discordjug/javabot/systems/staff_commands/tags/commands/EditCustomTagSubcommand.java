@@ -34,7 +34,6 @@ import org.springframework.dao.DataAccessException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -72,10 +71,7 @@ public class EditCustomTagSubcommand extends TagsSubcommand implements AutoCompl
 		if (event.getGuild() == null) {
 			return Responses.replyGuildOnly(event);
 		}
-		Set<CustomTag> tags = customTagManager.getLoadedCommands(event.getGuild().getIdLong());
-		Optional<CustomTag> tagOptional = tags.stream()
-				.filter(t -> t.getName().equalsIgnoreCase(nameMapping.getAsString()))
-				.findFirst();
+		Optional<CustomTag> tagOptional = customTagManager.getByName(event.getGuild().getIdLong(), nameMapping.getAsString());
 		if (tagOptional.isPresent()) {
 			return event.replyModal(buildEditTagModal(tagOptional.get()));
 		}
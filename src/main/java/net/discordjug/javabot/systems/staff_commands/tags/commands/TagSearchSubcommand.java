@@ -6,7 +6,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import net.discordjug.javabot.data.config.BotConfig;
-import net.discordjug.javabot.systems.staff_commands.tags.dao.CustomTagRepository;
+import net.discordjug.javabot.systems.staff_commands.tags.CustomTagManager;
 import net.discordjug.javabot.systems.staff_commands.tags.model.CustomTag;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.Responses;
@@ -25,18 +25,18 @@ import org.springframework.dao.DataAccessException;
 public class TagSearchSubcommand extends TagsSubcommand {
 	
 	private final ExecutorService asyncPool;
-	private final CustomTagRepository customTagRepository;
+	private final CustomTagManager customTagManager;
 
 	/**
 	 * The constructor of this class, which sets the corresponding {@link net.dv8tion.jda.api.interactions.commands.build.SlashCommandData}.
 	 * @param botConfig The main configuration of the bot.
 	 * @param asyncPool Thread pool for asynchronous operations.
-	 * @param customTagRepository The repository for accessing tags in the database.
+	 * @param customTagManager The manager holding the loaded tags.
 	 */
-	public TagSearchSubcommand(BotConfig botConfig, ExecutorService asyncPool, CustomTagRepository customTagRepository) {
+	public TagSearchSubcommand(BotConfig botConfig, ExecutorService asyncPool, CustomTagManager customTagManager) {
 		super(botConfig);
 		this.asyncPool = asyncPool;
-		this.customTagRepository = customTagRepository;
+		this.customTagManager = customTagManager;
 		setCommandData(
 			new SubcommandData("search", "Searches for tags using a query")
 				.addOption(OptionType.STRING, "query", "The search query", true));
@@ -51,7 +51,7 @@ public class TagSearchSubcommand extends TagsSubcommand {
 		
 		asyncPool.execute(()->{
 			try {
-				List<CustomTag> tags = customTagRepository.search(event.getGuild().getIdLong(), query);
+				List<CustomTag> tags = customTagManager.search(event.getGuild().getIdLong(), query);
 				String tagList = tags
 						.stream()
 						.map(CustomTag::getName)
@@ -0,0 +1,106 @@
+package net.discordjug.javabot.systems.starboard;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Collapses bursts of reaction events into a single update per message.
+ * <p>
+ * The first event of a message starts a window, and the update runs once the window has passed, no matter how
+ * many events arrived in the meantime. Updates of the same message never overlap: events arriving while an
+ * update is running start a new window once it has completed, so the last event is always covered by an update.
+ *
+ * @param <K> The type of the key identifying a message.
+ * @param <V> The type of the value passed to the update, the value of the latest event is used.
+ */
+class ReactionCoalescer<K, V> {
+	private final Map<K, State<V>> states = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler;
+	private final long window;
+	private final BiFunction<K, V, CompletableFuture<?>> update;
+
+	/**
+	 * Creates the coalescer.
+	 *
+	 * @param scheduler The {@link ScheduledExecutorService} used for starting updates.
+	 * @param window    The time events are collected before an update is started, in milliseconds.
+	 * @param update    Updates a message, returning a {@link CompletableFuture} which is completed once the update is done.
+	 */
+	ReactionCoalescer(ScheduledExecutorService scheduler, long window, BiFunction<K, V, CompletableFuture<?>> update) {
+		this.scheduler = scheduler;
+		this.window = window;
+		this.update = update;
+	}
+
+	/**
+	 * Records an event, which is covered by an update within the next window.
+	 *
+	 * @param key   The key of the message.
+	 * @param value The value which is passed to the update.
+	 */
+	void submit(K key, V value) {
+		states.compute(key, (k, state) -> {
+			if (state == null) {
+				state = new State<>();
+				schedule(key);
+			} else if (state.running) {
+				state.dirty = true;
+			}
+			state.value = value;
+			return state;
+		});
+	}
+
+	/**
+	 * Gets the number of messages with a scheduled or running update.
+	 *
+	 * @return The number of pending messages.
+	 */
+	int getPendingCount() {
+		return states.size();
+	}
+
+	private void schedule(K key) {
+		scheduler.schedule(() -> run(key), window, TimeUnit.MILLISECONDS);
+	}
+
+	private void run(K key) {
+		State<V> current = states.computeIfPresent(key, (k, state) -> {
+			state.running = true;
+			state.dirty = false;
+			state.runningValue = state.value;
+			return state;
+		});
+		if (current == null) {
+			return;
+		}
+		// exceptions thrown by the update complete the future exceptionally instead of leaving the message pending
+		CompletableFuture<?> result = CompletableFuture.completedFuture(null)
+				.thenCompose(unused -> update.apply(key, current.runningValue));
+		result.whenComplete((unused, err) -> states.computeIfPresent(key, (k, state) -> {
+			if (!state.dirty) {
+				return null;
+			}
+			state.running = false;
+			schedule(key);
+			return state;
+		}));
+	}
+
+	/**
+	 * The state of a message with pending events. This is only modified while holding the lock
+	 * of the message's entry in {@link #states}.
+	 *
+	 * @param <V> The type of the value passed to the update.
+	 */
+	private static final class State<V> {
+		private V value;
+		private V runningValue;
+		private boolean running;
+		private boolean dirty;
+	}
+}
@@ -0,0 +1,108 @@
+package net.discordjug.javabot.systems.starboard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.discordjug.javabot.systems.starboard.dao.StarboardRepository;
+import net.discordjug.javabot.systems.starboard.model.StarboardEntry;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of which messages are on the starboard, backed by the {@link StarboardRepository}.
+ * <p>
+ * Every message is looked up in the database at most once while it is cached, including messages which are not
+ * on the starboard. The index also remembers the star count last shown on the starboard, so the starboard
+ * message is only edited if the count has changed.
+ */
+@Service
+public class StarboardIndex {
+	private final StarboardRepository starboardRepository;
+	private final Cache<Long, Optional<IndexedMessage>> messages = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterAccess(1, TimeUnit.DAYS)
+			.build();
+
+	/**
+	 * Creates the index.
+	 *
+	 * @param starboardRepository The repository storing the starboard entries.
+	 */
+	public StarboardIndex(StarboardRepository starboardRepository) {
+		this.starboardRepository = starboardRepository;
+	}
+
+	/**
+	 * Gets the starboard message of a message.
+	 *
+	 * @param originalMessageId The ID of the original message.
+	 * @return The {@link IndexedMessage}, or an empty {@link Optional} if the message is not on the starboard.
+	 * @throws DataAccessException If the message could not be looked up.
+	 */
+	public Optional<IndexedMessage> get(long originalMessageId) throws DataAccessException {
+		return messages.get(originalMessageId, id -> starboardRepository.getEntryByMessageId(id)
+				.map(entry -> new IndexedMessage(entry.getStarboardMessageId(), IndexedMessage.UNKNOWN_STARS)));
+	}
+
+	/**
+	 * Gets the ID of the original message of a starboard message.
+	 *
+	 * @param starboardMessageId The ID of the starboard message.
+	 * @return The ID of the original message, or an empty {@link Optional} if this is not a starboard message.
+	 * @throws DataAccessException If the message could not be looked up.
+	 */
+	public Optional<Long> getOriginalMessageId(long starboardMessageId) throws DataAccessException {
+		return starboardRepository.getEntryByStarboardMessageId(starboardMessageId)
+				.map(StarboardEntry::getOriginalMessageId);
+	}
+
+	/**
+	 * Adds a message to the starboard.
+	 *
+	 * @param entry The {@link StarboardEntry} to insert.
+	 * @param stars The star count shown on the starboard message.
+	 * @throws DataAccessException If the entry could not be inserted.
+	 */
+	public void add(StarboardEntry entry, int stars) throws DataAccessException {
+		starboardRepository.insert(entry);
+		messages.put(entry.getOriginalMessageId(), Optional.of(new IndexedMessage(entry.getStarboardMessageId(), stars)));
+	}
+
+	/**
+	 * Updates the star count shown on the starboard message of a message.
+	 *
+	 * @param originalMessageId The ID of the original message.
+	 * @param stars             The star count.
+	 */
+	public void setStars(long originalMessageId, int stars) {
+		messages.asMap().computeIfPresent(originalMessageId, (id, indexed) -> indexed
+				.map(message -> new IndexedMessage(message.starboardMessageId(), stars)));
+	}
+
+	/**
+	 * Removes a message from the starboard.
+	 *
+	 * @param originalMessageId The ID of the original message.
+	 * @throws DataAccessException If the entry could not be deleted.
+	 */
+	public void remove(long originalMessageId) throws DataAccessException {
+		starboardRepository.delete(originalMessageId);
+		messages.put(originalMessageId, Optional.empty());
+	}
+
+	/**
+	 * A message on the starboard.
+	 *
+	 * @param starboardMessageId The ID of the message in the starboard channel.
+	 * @param stars              The star count shown on the starboard message, or {@link #UNKNOWN_STARS}.
+	 */
+	public record IndexedMessage(long starboardMessageId, int stars) {
+		/**
+		 * The star count of messages which have not been updated since they have been loaded from the database.
+		 */
+		public static final int UNKNOWN_STARS = -1;
+	}
+}
@@ -1,10 +1,9 @@
 package net.discordjug.javabot.systems.starboard;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.discordjug.javabot.data.config.BotConfig;
 import net.discordjug.javabot.data.config.guild.StarboardConfig;
-import net.discordjug.javabot.systems.starboard.dao.StarboardRepository;
+import net.discordjug.javabot.systems.starboard.StarboardIndex.IndexedMessage;
 import net.discordjug.javabot.systems.starboard.model.StarboardEntry;
 import net.discordjug.javabot.util.ExceptionLogger;
 import net.discordjug.javabot.util.Responses;
@@ -21,8 +20,10 @@ import net.dv8tion.jda.api.entities.emoji.UnicodeEmoji;
 import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionRemoveEvent;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.requests.ErrorResponse;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
 import net.dv8tion.jda.api.utils.FileUpload;
 
@@ -31,18 +32,41 @@ import org.springframework.dao.DataAccessException;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Handles & manages all starboard interactions.
+ * <p>
+ * Reaction events are coalesced per message, so a burst of stars results in a single recount and at most one
+ * edit of the starboard message. Whether a message is on the starboard is looked up in the {@link StarboardIndex}.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class StarboardManager extends ListenerAdapter {
+	/**
+	 * The time reaction events of a message are collected before its stars are counted, in milliseconds.
+	 */
+	private static final long COALESCING_WINDOW = 1_000;
+
 	private final BotConfig botConfig;
-	private final ExecutorService asyncPool;
-	private final StarboardRepository starboardRepository;
+	private final ScheduledExecutorService asyncPool;
+	private final StarboardIndex starboardIndex;
+	private final ReactionCoalescer<Long, MessageChannel> reactionCoalescer;
+
+	/**
+	 * The main constructor.
+	 *
+	 * @param botConfig      The main configuration of the bot
+	 * @param asyncPool      The thread pool for asynchronous operations
+	 * @param starboardIndex The index of all messages on the starboard
+	 */
+	public StarboardManager(BotConfig botConfig, ScheduledExecutorService asyncPool, StarboardIndex starboardIndex) {
+		this.botConfig = botConfig;
+		this.asyncPool = asyncPool;
+		this.starboardIndex = starboardIndex;
+		this.reactionCoalescer = new ReactionCoalescer<>(asyncPool, COALESCING_WINDOW, this::updateStars);
+	}
 
 	@Override
 	public void onMessageReactionAdd(@NotNull MessageReactionAddEvent event) {
@@ -59,34 +83,54 @@ public class StarboardManager extends ListenerAdapter {
 	}
 
 	private void handleReactionEvent(Guild guild, Emoji emoji, MessageChannel channel, long messageId) {
-		asyncPool.submit(() -> {
-			StarboardConfig config = botConfig.get(guild).getStarboardConfig();
-			if (config.getStarboardChannel().equals(channel)) return;
-			Emoji starEmote = config.getEmojis().get(0);
-			if (!emoji.equals(starEmote)) return;
-			channel.retrieveMessageById(messageId).queue(
-					message -> {
-						int stars = getReactionCountForEmote(starEmote, message);
-						asyncPool.execute(()->{
-							try {
-								starboardRepository
-									.getEntryByMessageId(message.getIdLong())
-									.ifPresentOrElse(entry->{
-										updateStarboardMessage(message, stars, config);
-									}, ()->{
-										if (stars >= config.getReactionThreshold()) {
-											addMessageToStarboard(message, stars, config);
-										} else if (stars < 1 && !removeMessageFromStarboard(message.getIdLong(), channel, config)) {
-											log.error("Could not remove Message from Starboard");
-										}
-									});
-							} catch (DataAccessException e) {
-								ExceptionLogger.capture(e, StarboardManager.class.getSimpleName());
-							}
-						});
-					}, e -> log.error("Could not add Message to Starboard", e)
-			);
-		});
+		StarboardConfig config = botConfig.get(guild).getStarboardConfig();
+		if (config.getStarboardChannel().equals(channel)) return;
+		Emoji starEmote = config.getEmojis().get(0);
+		if (!emoji.equals(starEmote)) return;
+		reactionCoalescer.submit(messageId, channel);
+	}
+
+	/**
+	 * Counts the stars of a message and adds, updates or removes its starboard message.
+	 *
+	 * @param messageId The ID of the message.
+	 * @param channel   The channel of the message.
+	 * @return A {@link CompletableFuture} which is completed once the starboard has been updated.
+	 */
+	private CompletableFuture<Void> updateStars(long messageId, MessageChannel channel) {
+		return channel.retrieveMessageById(messageId).submit()
+				.thenComposeAsync(message -> {
+					StarboardConfig config = botConfig.get(message.getGuild()).getStarboardConfig();
+					return updateStars(message, getReactionCountForEmote(config.getEmojis().get(0), message), config);
+				}, asyncPool)
+				.whenComplete((unused, err) -> {
+					if (unwrap(err) instanceof DataAccessException e) {
+						ExceptionLogger.capture(e, StarboardManager.class.getSimpleName());
+					} else if (err != null) {
+						log.error("Could not update Starboard for message {}", messageId, err);
+					}
+				});
+	}
+
+	/**
+	 * Adds, updates or removes the starboard message of a message for its current star count.
+	 * The starboard message is only edited if the count differs from the count shown on it.
+	 *
+	 * @param message The message.
+	 * @param stars   The number of stars of the message.
+	 * @param config  The {@link StarboardConfig} of the message's guild.
+	 * @return A {@link CompletableFuture} which is completed once the starboard has been updated.
+	 * @throws DataAccessException If the message could not be looked up in the {@link StarboardIndex}.
+	 */
+	CompletableFuture<Void> updateStars(@NotNull Message message, int stars, @NotNull StarboardConfig config) throws DataAccessException {
+		Optional<IndexedMessage> indexed = starboardIndex.get(message.getIdLong());
+		if (indexed.isPresent()) {
+			return updateStarboardMessage(message, indexed.get(), stars, config);
+		}
+		if (stars >= config.getReactionThreshold()) {
+			return addMessageToStarboard(message, stars, config);
+		}
+		return CompletableFuture.completedFuture(null);
 	}
 
 	private boolean isInvalidChannel(@NotNull MessageChannel channel) {
@@ -99,18 +143,15 @@ public class StarboardManager extends ListenerAdapter {
 		if (isInvalidChannel(event.getChannel())) return;
 		try {
 			StarboardConfig config = botConfig.get(event.getGuild()).getStarboardConfig();
-			Optional<StarboardEntry> entry;
+			Optional<Long> originalMessageId;
 			if (event.getChannel().getIdLong() == config.getStarboardChannelId()) {
-				entry = starboardRepository.getEntryByStarboardMessageId(event.getMessageIdLong());
+				originalMessageId = starboardIndex.getOriginalMessageId(event.getMessageIdLong());
 			} else {
-				entry = starboardRepository.getEntryByMessageId(event.getMessageIdLong());
+				originalMessageId = Optional.of(event.getMessageIdLong());
+			}
+			if (originalMessageId.isPresent()) {
+				removeMessageFromStarboard(originalMessageId.get(), event.getChannel(), config);
 			}
-			entry.ifPresent(e->{
-				if (!removeMessageFromStarboard(e.getOriginalMessageId(), event.getChannel(), config)) {
-					log.error("Could not remove Message from Starboard");
-				}
-			});
-
 		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 		}
@@ -135,95 +176,98 @@ public class StarboardManager extends ListenerAdapter {
 				.orElse(0);
 	}
 
-	private void addMessageToStarboard(Message message, int stars, @NotNull StarboardConfig config) throws DataAccessException {
-		if (stars < config.getReactionThreshold()) return;
+	private CompletableFuture<Void> addMessageToStarboard(Message message, int stars, @NotNull StarboardConfig config) {
 		MessageEmbed embed = buildStarboardEmbed(message);
 		MessageCreateAction action = config.getStarboardChannel()
 				.sendMessage(String.format("%s %s", config.getEmojis().get(0), stars))
 				.setActionRow(Button.link(message.getJumpUrl(), "Jump to Message"))
 				.setEmbeds(embed);
-		List<Attachment> attachments = message.getAttachments();
-		
-		if(attachments.size() > 1) {
-			for (Message.Attachment a : attachments) {
-				try {
-					action.addFiles(FileUpload.fromData(a.getProxy().download().get(), a.getFileName()));
-				} catch (InterruptedException | ExecutionException e) {
-					action.addContent("Could not add Attachment: " + a.getFileName());
-					ExceptionLogger.capture(e);
-					if(e instanceof InterruptedException) {
-						Thread.currentThread().interrupt();
-					}
+		return addAttachments(action, message.getAttachments())
+				.thenCompose(MessageCreateAction::submit)
+				.thenAcceptAsync(starboardMessage -> {
+					StarboardEntry entry = new StarboardEntry();
+					entry.setOriginalMessageId(message.getIdLong());
+					entry.setGuildId(message.getGuild().getIdLong());
+					entry.setChannelId(message.getChannel().getIdLong());
+					entry.setAuthorId(message.getAuthor().getIdLong());
+					entry.setStarboardMessageId(starboardMessage.getIdLong());
+					starboardIndex.add(entry, stars);
+				}, asyncPool);
+	}
+
+	/**
+	 * Downloads the attachments of a message and adds them to the starboard message.
+	 * A single attachment is shown as the image of the embed instead.
+	 *
+	 * @param action      The {@link MessageCreateAction} of the starboard message.
+	 * @param attachments The attachments of the original message.
+	 * @return A {@link CompletableFuture} which is completed with the action once all downloads have finished.
+	 */
+	private CompletableFuture<MessageCreateAction> addAttachments(MessageCreateAction action, List<Attachment> attachments) {
+		if (attachments.size() <= 1) {
+			return CompletableFuture.completedFuture(action);
+		}
+		List<CompletableFuture<FileUpload>> uploads = attachments.stream()
+				.map(a -> a.getProxy().download()
+						.thenApply(data -> FileUpload.fromData(data, a.getFileName()))
+						.exceptionally(err -> {
+							ExceptionLogger.capture(err);
+							return null;
+						}))
+				.toList();
+		return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).thenApply(unused -> {
+			for (int i = 0; i < uploads.size(); i++) {
+				FileUpload upload = uploads.get(i).join();
+				if (upload == null) {
+					action.addContent("\nCould not add Attachment: " + attachments.get(i).getFileName());
+				} else {
+					action.addFiles(upload);
 				}
 			}
-		}
-		
-		action.queue(starboardMessage -> {
-				StarboardEntry entry = new StarboardEntry();
-				entry.setOriginalMessageId(message.getIdLong());
-				entry.setGuildId(message.getGuild().getIdLong());
-				entry.setChannelId(message.getChannel().getIdLong());
-				entry.setAuthorId(message.getAuthor().getIdLong());
-				entry.setStarboardMessageId(starboardMessage.getIdLong());
-				asyncPool.execute(()->{
-					try {
-						starboardRepository.insert(entry);
-					} catch (DataAccessException e) {
-						ExceptionLogger.capture(e, StarboardManager.class.getSimpleName());
-					}
-				});
-			}, e -> log.error("Could not send Message to Starboard", e)
-		);
+			return action;
+		});
 	}
 
-	private void updateStarboardMessage(@NotNull Message message, int stars, @NotNull StarboardConfig config) throws DataAccessException {
-		Optional<StarboardEntry> starboardEntry = starboardRepository.getEntryByMessageId(message.getIdLong());
-		starboardEntry.ifPresentOrElse(entry->{
-			long starboardId = entry.getStarboardMessageId();
-			config.getStarboardChannel().retrieveMessageById(starboardId).queue(
-					starboardMessage -> {
-						if (starboardMessage.getAuthor().getIdLong() != message.getJDA().getSelfUser().getIdLong()) {
-							log.error("Could not update/edit Starboard entry ({}), as it was created by another account.", starboardEntry);
-							return;
-						}
-						if (stars < 1) {
-							try {
-								if (!removeMessageFromStarboard(message.getIdLong(), message.getChannel(), config)) {
-									log.error("Could not remove Message from Starboard");
-								}
-							} catch (DataAccessException e) {
-								ExceptionLogger.capture(e, getClass().getSimpleName());
-							}
-						} else {
-							UnicodeEmoji starEmote = config.getEmojis().get(0);
-							if (stars > 10) starEmote = config.getEmojis().get(1);
-							if (stars > 25) starEmote = config.getEmojis().get(2);
-							starboardMessage.editMessage(
-											String.format("%s %s | %s", starEmote, stars, message.getChannel().getAsMention()))
-									.queue();
-						}
-					}, e -> {
-						log.error("Could not retrieve original Message. Deleting corresponding Starboard Entry...");
-						try {
-							removeMessageFromStarboard(message.getIdLong(), message.getChannel(), config);
-						} catch (DataAccessException ex) {
-							ex.printStackTrace();
-						}
+	private CompletableFuture<Void> updateStarboardMessage(@NotNull Message message, IndexedMessage indexed, int stars, @NotNull StarboardConfig config) throws DataAccessException {
+		if (stars == indexed.stars()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		if (stars < 1) {
+			if (!removeMessageFromStarboard(message.getIdLong(), message.getChannel(), config)) {
+				log.error("Could not remove Message from Starboard");
+			}
+			return CompletableFuture.completedFuture(null);
+		}
+		UnicodeEmoji starEmote = config.getEmojis().get(0);
+		if (stars > 10) starEmote = config.getEmojis().get(1);
+		if (stars > 25) starEmote = config.getEmojis().get(2);
+		return config.getStarboardChannel()
+				.editMessageById(indexed.starboardMessageId(), String.format("%s %s | %s", starEmote, stars, message.getChannel().getAsMention()))
+				.submit()
+				.handleAsync((edited, err) -> {
+					if (err == null) {
+						starboardIndex.setStars(message.getIdLong(), stars);
+					} else if (unwrap(err) instanceof ErrorResponseException e && e.getErrorResponse() == ErrorResponse.UNKNOWN_MESSAGE) {
+						log.error("Could not find Starboard message of message {}. Deleting corresponding Starboard Entry...", message.getIdLong());
+						removeMessageFromStarboard(message.getIdLong(), message.getChannel(), config);
+					} else {
+						log.error("Could not update/edit Starboard entry of message {}", message.getIdLong(), err);
 					}
-			);
-		}, ()->log.error("updateStarboardMessage called but StarboardEntry was not found"));
+					return null;
+				}, asyncPool);
+	}
 
+	private static Throwable unwrap(Throwable err) {
+		return err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
 	}
 
 	private boolean removeMessageFromStarboard(long messageId, MessageChannel channel, StarboardConfig config) throws DataAccessException {
-		Optional<StarboardEntry> entry = starboardRepository.getEntryByMessageId(messageId);
+		Optional<IndexedMessage> entry = starboardIndex.get(messageId);
 		if (entry.isEmpty()) return false;
 		if (!channel.equals(config.getStarboardChannel())) {
-			config.getStarboardChannel().retrieveMessageById(entry.get().getStarboardMessageId()).queue(
-					starboardMessage -> starboardMessage.delete().queue(), ExceptionLogger::capture
-			);
+			config.getStarboardChannel().deleteMessageById(entry.get().starboardMessageId()).queue(null, ExceptionLogger::capture);
 		}
-		starboardRepository.delete(messageId);
+		starboardIndex.remove(messageId);
 		log.info("Removed Starboard Entry with message Id {}", messageId);
 		return true;
 	}
@@ -1,9 +1,10 @@
 package net.discordjug.javabot.systems.user_commands;
 
 import xyz.dynxsty.dih4jda.interactions.commands.application.SlashCommand;
-import com.google.re2j.Pattern;
-import com.google.re2j.PatternSyntaxException;
 
+import net.discordjug.javabot.systems.user_commands.regex.CompiledRegex;
+import net.discordjug.javabot.systems.user_commands.regex.RegexService;
+import net.discordjug.javabot.systems.user_commands.regex.RegexTimeoutException;
 import net.discordjug.javabot.util.Responses;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
@@ -13,14 +14,21 @@ import net.dv8tion.jda.api.interactions.commands.build.Commands;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.regex.PatternSyntaxException;
+
 /**
  * <h3>This class represents the /regex command.</h3>
  */
 public class RegexCommand extends SlashCommand {
+	private final RegexService regexService;
+
 	/**
 	 * The constructor of this class, which sets the corresponding {@link net.dv8tion.jda.api.interactions.commands.build.SlashCommandData}.
+	 *
+	 * @param regexService The {@link RegexService} used for evaluating the patterns
 	 */
-	public RegexCommand() {
+	public RegexCommand(RegexService regexService) {
+		this.regexService = regexService;
 		setCommandData(Commands.slash("regex", "Checks if the given string matches the regex pattern")
 				.addOption(OptionType.STRING, "regex", "The regex pattern", true)
 				.addOption(OptionType.STRING, "string", "The string which is tested", true)
@@ -36,25 +44,32 @@ public class RegexCommand extends SlashCommand {
 			Responses.replyMissingArguments(event).queue();
 			return;
 		}
-		Pattern pattern;
+		String string = stringOption.getAsString();
+		if (patternOption.getAsString().length() > 1018 || string.length() > 1018) {
+			Responses.warning(event, "Pattern and String cannot be longer than 1018 Characters each.").queue();
+			return;
+		}
+		CompiledRegex pattern;
 		try {
-			pattern = Pattern.compile(patternOption.getAsString());
+			pattern = regexService.compile(event.getUser().getIdLong(), patternOption.getAsString());
 		} catch (PatternSyntaxException e) {
 			Responses.error(event, "Please provide a valid regex pattern!").queue();
 			return;
 		}
-		String string = stringOption.getAsString();
-		if (patternOption.getAsString().length() > 1018 || string.length() > 1018) {
-			Responses.warning(event, "Pattern and String cannot be longer than 1018 Characters each.").queue();
+		boolean matches;
+		try {
+			matches = pattern.matches(string);
+		} catch (RegexTimeoutException e) {
+			Responses.warning(event, "Matching this pattern took too long. Please try a simpler pattern.").queue();
 			return;
 		}
-		event.replyEmbeds(buildRegexEmbed(pattern.matcher(string).matches(), pattern, string).build())
+		event.replyEmbeds(buildRegexEmbed(matches, pattern, string).build())
 				.queue();
 	}
 
-	private @NotNull EmbedBuilder buildRegexEmbed(boolean matches, @NotNull Pattern pattern, String string) {
+	private @NotNull EmbedBuilder buildRegexEmbed(boolean matches, @NotNull CompiledRegex pattern, String string) {
 		EmbedBuilder eb = new EmbedBuilder()
-				.addField("Regex:", String.format("```%s```", pattern.toString()), true)
+				.addField("Regex:", String.format("```%s```", pattern.getPattern()), true)
 				.addField("String:", String.format("```%s```", string), true);
 		if (matches) {
 			eb.setTitle("Regex Tester | ✓ Match");
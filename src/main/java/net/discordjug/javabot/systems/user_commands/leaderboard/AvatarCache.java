@@ -0,0 +1,106 @@
+package net.discordjug.javabot.systems.user_commands.leaderboard;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import net.dv8tion.jda.api.entities.Member;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads and caches the avatars drawn on leaderboards.
+ * <p>
+ * Avatars are requested in a size close to the size they are drawn with, scaled down once and cached by their URL,
+ * which contains the hash of the avatar, so changed avatars are downloaded again.
+ * Concurrent requests for the same avatar share a single download.
+ */
+@Slf4j
+final class AvatarCache {
+	/**
+	 * The width and height of the avatars as drawn on the leaderboard.
+	 */
+	static final int AVATAR_SIZE = 200;
+	/**
+	 * The size requested from Discord. This must be a power of two.
+	 */
+	private static final int REQUESTED_SIZE = 256;
+
+	private static final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(5))
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.build();
+	private static final AsyncCache<String, BufferedImage> cache = Caffeine.newBuilder()
+			.maximumSize(128)
+			.expireAfterAccess(1, TimeUnit.HOURS)
+			.buildAsync();
+
+	private AvatarCache() {
+	}
+
+	/**
+	 * Starts downloading the avatar of a member unless it is already cached or being downloaded.
+	 * This should be called for all members of a leaderboard before drawing it, so all avatars are downloaded in parallel.
+	 *
+	 * @param member The member.
+	 * @return A {@link CompletableFuture} completing with the scaled avatar or {@code null} if it could not be loaded.
+	 */
+	static CompletableFuture<BufferedImage> getAvatar(Member member) {
+		return cache.get(member.getEffectiveAvatarUrl(), (url, executor) -> download(url));
+	}
+
+	private static CompletableFuture<BufferedImage> download(String url) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url + "?size=" + REQUESTED_SIZE))
+				.timeout(Duration.ofSeconds(10))
+				.build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+				.thenApply(response -> {
+					if (response.statusCode() != 200) {
+						throw new UncheckedIOException(new IOException("Received status code " + response.statusCode()));
+					}
+					return scale(decode(response.body()));
+				})
+				.exceptionally(e -> {
+					// completing with null does not cache the failure
+					log.warn("Could not load avatar {}", url, e);
+					return null;
+				});
+	}
+
+	private static BufferedImage decode(byte[] data) {
+		try {
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(data));
+			if (image == null) {
+				throw new IOException("Unsupported image format");
+			}
+			return image;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static BufferedImage scale(BufferedImage image) {
+		BufferedImage scaled = new BufferedImage(AVATAR_SIZE, AVATAR_SIZE, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2d = scaled.createGraphics();
+		try {
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g2d.drawImage(image, 0, 0, AVATAR_SIZE, AVATAR_SIZE, null);
+		} finally {
+			g2d.dispose();
+		}
+		return scaled;
+	}
+}
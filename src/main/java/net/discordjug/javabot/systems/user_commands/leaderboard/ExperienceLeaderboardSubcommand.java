@@ -32,6 +32,7 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.dao.DataAccessException;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
@@ -149,10 +150,15 @@ public class ExperienceLeaderboardSubcommand extends SlashCommand.Subcommand imp
 		String cacheName = pageCachePrefix + "_" + accounts.hashCode();
 		byte[] bytes = LeaderboardCreator.attemptLoadFromCache(cacheName, ()->{
 			try (LeaderboardCreator creator = new LeaderboardCreator(accounts.size(), null)){
+				int firstPosition = 1 + (actualPage - 1) * PAGE_SIZE;
+				List<UserData> entries = new ArrayList<>(accounts.size());
 				for (int i = 0; i < accounts.size(); i++) {
-					int position = (i + 1) + (actualPage - 1) * PAGE_SIZE;
-					UserData userInfo = fieldExtractor.apply(position, accounts.get(i));
-					creator.drawLeaderboardEntry(userInfo.member(), userInfo.displayName(), userInfo.xp(), position);
+					entries.add(fieldExtractor.apply(firstPosition + i, accounts.get(i)));
+				}
+				creator.prefetchAvatars(entries.stream().map(UserData::member).filter(Objects::nonNull).toList());
+				for (int i = 0; i < entries.size(); i++) {
+					UserData userInfo = entries.get(i);
+					creator.drawLeaderboardEntry(userInfo.member(), userInfo.displayName(), userInfo.xp(), firstPosition + i);
 				}
 				return creator.getImageBytes(cacheName, pageCachePrefix);
 			}
@@ -7,6 +7,7 @@ import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Collection;
 
 import javax.imageio.ImageIO;
 
@@ -31,6 +32,8 @@ class LeaderboardCreator implements AutoCloseable{
 	private static final int WIDTH = 3000;
 
 	private static final Color BACKGROUND_COLOR = Color.decode("#011E2F");
+	private static final String CARD_PATH = "assets/images/LeaderboardUserCard.png";
+	private static final String FONT_PATH = "assets/fonts/Uni-Sans-Heavy.ttf";
 	private Graphics2D g2d;
 	private int y;
 	private boolean left;
@@ -52,7 +55,7 @@ class LeaderboardCreator implements AutoCloseable{
 		}
 
 		int height = (logoHeight + MARGIN * 3) +
-				(ImageGenerationUtils.getResourceImage("assets/images/LeaderboardUserCard.png").getHeight() + MARGIN) * ((int)Math.ceil(numberOfEntries / 2f)) + MARGIN;
+				(ImageGenerationUtils.getResourceImage(CARD_PATH).getHeight() + MARGIN) * ((int)Math.ceil(numberOfEntries / 2f)) + MARGIN;
 		image = new BufferedImage(WIDTH, height, BufferedImage.TYPE_INT_RGB);
 		g2d = image.createGraphics();
 
@@ -68,6 +71,17 @@ class LeaderboardCreator implements AutoCloseable{
 		y = logoHeight + 3 * MARGIN;
 	}
 
+	/**
+	 * Starts downloading the avatars of all members in the leaderboard in parallel.
+	 * Entries of members whose avatars have not been prefetched download them when they are drawn.
+	 * @param members the members whose entries will be drawn
+	 */
+	public void prefetchAvatars(@NotNull Collection<Member> members) {
+		for (Member member : members) {
+			AvatarCache.getAvatar(member);
+		}
+	}
+
 	/**
 	 * adds a single entry in the leaderboard.
 	 * @param member the {@link Member} this entry is responsible for or {@code null} if no member can be associated
@@ -77,15 +91,18 @@ class LeaderboardCreator implements AutoCloseable{
 	 * @throws IOException if anything goes wrong
 	 */
 	public void drawLeaderboardEntry(@Nullable Member member, @NotNull String displayName, long points, int rankNumber) throws IOException {
-		BufferedImage card = ImageGenerationUtils.getResourceImage("assets/images/LeaderboardUserCard.png");
+		BufferedImage card = ImageGenerationUtils.getResourceImage(CARD_PATH);
 		int x = left ? MARGIN * 5 : WIDTH - MARGIN * 5 - card.getWidth();
 		if (member != null) {
-			g2d.drawImage(ImageGenerationUtils.getImageFromUrl(member.getEffectiveAvatarUrl() + "?size=4096"), x + 185, y + 43, 200, 200, null);
+			BufferedImage avatar = AvatarCache.getAvatar(member).join();
+			if (avatar != null) {
+				g2d.drawImage(avatar, x + 185, y + 43, AvatarCache.AVATAR_SIZE, AvatarCache.AVATAR_SIZE, null);
+			}
 		}
 		// draw card
 		g2d.drawImage(card, x, y, null);
 		g2d.setColor(PRIMARY_COLOR);
-		g2d.setFont(ImageGenerationUtils.getResourceFont("assets/fonts/Uni-Sans-Heavy.ttf", 65).orElseThrow());
+		g2d.setFont(ImageGenerationUtils.getResourceFont(FONT_PATH, 65).orElseThrow());
 
 		int stringWidth = g2d.getFontMetrics().stringWidth(displayName);
 		while (stringWidth > 750) {
@@ -96,7 +113,7 @@ class LeaderboardCreator implements AutoCloseable{
 		}
 		g2d.drawString(displayName, x + 430, y + 130);
 		g2d.setColor(SECONDARY_COLOR);
-		g2d.setFont(ImageGenerationUtils.getResourceFont("assets/fonts/Uni-Sans-Heavy.ttf", 72).orElseThrow());
+		g2d.setFont(ImageGenerationUtils.getResourceFont(FONT_PATH, 72).orElseThrow());
 
 		String text = points + (points > 1 ? " points" : " point");
 		String rank = "#" + rankNumber;
@@ -112,18 +129,20 @@ class LeaderboardCreator implements AutoCloseable{
 	/**
 	 * convert the drawn image to a {@code byte[]}.
 	 *
-	 * This also caches the image and invalidates all caches matching {@code invalidateCacheKeyword}
+	 * This also caches the encoded image and invalidates all caches starting with {@code invalidateCacheKeyword}
 	 * @param cacheName the name of the cache where the image should be cached
-	 * @param invalidateCacheKeyword all image caches containing this keyword will be invalidated, should be a substring of {@code cacheName}
+	 * @param invalidateCacheKeyword all image caches starting with this keyword will be invalidated, should be a prefix of {@code cacheName}
 	 * @return the drawn image as a {@code byte[]}
 	 * @throws IOException if anything goes wrong
 	 */
 	public @NotNull byte[] getImageBytes(String cacheName, String invalidateCacheKeyword) throws IOException {
-		ImageCache.removeCachedImagesByKeyword(invalidateCacheKeyword);
-		ImageCache.cacheImage(cacheName, image);
+		byte[] bytes;
 		try (ByteArrayOutputStream baos = getOutputStreamFromImage(image)) {
-			return baos.toByteArray();
+			bytes = baos.toByteArray();
 		}
+		ImageCache.removeCachedImagesByKeyword(invalidateCacheKeyword);
+		ImageCache.cacheImage(cacheName, bytes);
+		return bytes;
 	}
 
 	/**
@@ -134,11 +153,9 @@ class LeaderboardCreator implements AutoCloseable{
 	 * @throws IOException if anything goes wrong
 	 */
 	public static byte[] attemptLoadFromCache(String cacheName, ByteArrayLoader fallback) throws IOException {
-		return ImageCache.isCached(cacheName) ?
-				// retrieve the image from the cache
-				getOutputStreamFromImage(ImageCache.getCachedImage(cacheName)).toByteArray() :
-				// generate an entirely new image
-				fallback.load();
+		byte[] cached = ImageCache.getCachedImage(cacheName);
+		// generate an entirely new image if it is not cached
+		return cached != null ? cached : fallback.load();
 	}
 
 	/**
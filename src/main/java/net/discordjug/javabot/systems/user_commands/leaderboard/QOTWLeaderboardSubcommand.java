@@ -117,6 +117,7 @@ public class QOTWLeaderboardSubcommand extends SlashCommand.Subcommand {
 	 */
 	private @NotNull byte[] generateLeaderboard(List<Pair<QOTWAccount, Member>> topMembers) throws IOException {
 		try(LeaderboardCreator creator = new LeaderboardCreator(Math.min(DISPLAY_COUNT, topMembers.size()), "QuestionOfTheWeekHeader")){
+			creator.prefetchAvatars(topMembers.stream().map(Pair::second).toList());
 			for (Pair<QOTWAccount, Member> pair : topMembers) {
 				drawUserCard(creator, pair.second(), pointsService, topMembers);
 			}
@@ -0,0 +1,78 @@
+package net.discordjug.javabot.systems.user_commands.regex;
+
+/**
+ * A {@link CharSequence} which limits how often its characters can be accessed.
+ * <p>
+ * Backtracking regex engines access the characters of the input for every step, so wrapping the input in this
+ * sequence bounds the number of steps and the time spent matching. Once the budget is exceeded, every access
+ * throws a {@link RegexTimeoutException}, which aborts the matching.
+ */
+class BudgetedCharSequence implements CharSequence {
+	/**
+	 * The number of accesses between two checks of the deadline.
+	 */
+	private static final int TIME_CHECK_INTERVAL = 1024;
+
+	private final CharSequence content;
+	private final Budget budget;
+
+	/**
+	 * Wraps a {@link CharSequence}.
+	 *
+	 * @param content  The {@link CharSequence} to wrap.
+	 * @param maxSteps The maximum number of character accesses.
+	 * @param maxNanos The maximum time for all accesses, in nanoseconds.
+	 */
+	BudgetedCharSequence(CharSequence content, long maxSteps, long maxNanos) {
+		this(content, new Budget(maxSteps, System.nanoTime() + maxNanos));
+	}
+
+	private BudgetedCharSequence(CharSequence content, Budget budget) {
+		this.content = content;
+		this.budget = budget;
+	}
+
+	@Override
+	public char charAt(int index) {
+		budget.step();
+		return content.charAt(index);
+	}
+
+	@Override
+	public int length() {
+		return content.length();
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new BudgetedCharSequence(content.subSequence(start, end), budget);
+	}
+
+	@Override
+	public String toString() {
+		return content.toString();
+	}
+
+	/**
+	 * The remaining budget, shared by a sequence and all its subsequences.
+	 */
+	private static final class Budget {
+		private final long deadline;
+		private long remainingSteps;
+
+		private Budget(long maxSteps, long deadline) {
+			this.remainingSteps = maxSteps;
+			this.deadline = deadline;
+		}
+
+		private void step() {
+			remainingSteps--;
+			if (remainingSteps < 0) {
+				throw new RegexTimeoutException("The regex exceeded its step budget.");
+			}
+			if (remainingSteps % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+				throw new RegexTimeoutException("The regex exceeded its time budget.");
+			}
+		}
+	}
+}
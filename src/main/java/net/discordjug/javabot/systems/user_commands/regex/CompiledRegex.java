@@ -0,0 +1,30 @@
+package net.discordjug.javabot.systems.user_commands.regex;
+
+/**
+ * A regular expression compiled by the {@link RegexService}.
+ */
+public interface CompiledRegex {
+	/**
+	 * Checks whether the entire input matches this regular expression.
+	 *
+	 * @param input The input to match.
+	 * @return {@code true} if the input matches, else {@code false}.
+	 * @throws RegexTimeoutException If matching exceeded the budget of this regular expression.
+	 */
+	boolean matches(String input) throws RegexTimeoutException;
+
+	/**
+	 * Gets the source of this regular expression.
+	 *
+	 * @return The pattern this regular expression has been compiled from.
+	 */
+	String getPattern();
+
+	/**
+	 * Checks whether this regular expression is matched in linear time.
+	 * Otherwise, it is matched with a budget and may fail with a {@link RegexTimeoutException}.
+	 *
+	 * @return {@code true} if this regular expression is matched in linear time.
+	 */
+	boolean isLinearTime();
+}
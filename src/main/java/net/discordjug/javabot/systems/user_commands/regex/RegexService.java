@@ -0,0 +1,114 @@
+package net.discordjug.javabot.systems.user_commands.regex;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles and evaluates user-supplied regular expressions.
+ * <p>
+ * Patterns are compiled with re2j, which matches in linear time. Only patterns using constructs re2j does not support
+ * (like backreferences or lookarounds) are compiled with {@link java.util.regex.Pattern}. These are matched against a
+ * {@link BudgetedCharSequence}, so catastrophic backtracking is aborted with a {@link RegexTimeoutException}.
+ * The most recently used patterns of each user are kept compiled.
+ */
+@Service
+public class RegexService {
+	/**
+	 * The maximum number of character accesses when matching a pattern with {@link java.util.regex.Pattern}.
+	 */
+	private static final long MAX_STEPS = 10_000_000;
+	/**
+	 * The maximum time for matching a pattern with {@link java.util.regex.Pattern}, in milliseconds.
+	 */
+	private static final long MAX_TIME = 500;
+	private static final int MAX_PATTERNS_PER_USER = 16;
+
+	private final Cache<Long, Map<String, CompiledRegex>> userPatterns = Caffeine.newBuilder()
+			.maximumSize(1_000)
+			.expireAfterAccess(30, TimeUnit.MINUTES)
+			.build();
+
+	/**
+	 * Compiles a pattern, or gets it from the patterns recently used by the user.
+	 *
+	 * @param userId  The ID of the user supplying the pattern.
+	 * @param pattern The pattern to compile.
+	 * @return The {@link CompiledRegex}.
+	 * @throws PatternSyntaxException If the pattern is invalid.
+	 */
+	public CompiledRegex compile(long userId, String pattern) throws PatternSyntaxException {
+		Map<String, CompiledRegex> patterns = userPatterns.get(userId, id -> createPatternCache());
+		CompiledRegex compiled = patterns.get(pattern);
+		if (compiled == null) {
+			compiled = compile(pattern);
+			patterns.put(pattern, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Compiles a pattern with re2j if possible and with {@link java.util.regex.Pattern} otherwise.
+	 *
+	 * @param pattern The pattern to compile.
+	 * @return The {@link CompiledRegex}.
+	 * @throws PatternSyntaxException If the pattern is invalid.
+	 */
+	public CompiledRegex compile(String pattern) throws PatternSyntaxException {
+		try {
+			return new Re2jRegex(com.google.re2j.Pattern.compile(pattern));
+		} catch (com.google.re2j.PatternSyntaxException e) {
+			return new BudgetedJdkRegex(java.util.regex.Pattern.compile(pattern));
+		}
+	}
+
+	private static Map<String, CompiledRegex> createPatternCache() {
+		return Collections.synchronizedMap(new LinkedHashMap<>(MAX_PATTERNS_PER_USER, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompiledRegex> eldest) {
+				return size() > MAX_PATTERNS_PER_USER;
+			}
+		});
+	}
+
+	private record Re2jRegex(com.google.re2j.Pattern pattern) implements CompiledRegex {
+		@Override
+		public boolean matches(String input) {
+			return pattern.matcher(input).matches();
+		}
+
+		@Override
+		public String getPattern() {
+			return pattern.pattern();
+		}
+
+		@Override
+		public boolean isLinearTime() {
+			return true;
+		}
+	}
+
+	private record BudgetedJdkRegex(java.util.regex.Pattern pattern) implements CompiledRegex {
+		@Override
+		public boolean matches(String input) throws RegexTimeoutException {
+			return pattern.matcher(new BudgetedCharSequence(input, MAX_STEPS, TimeUnit.MILLISECONDS.toNanos(MAX_TIME))).matches();
+		}
+
+		@Override
+		public String getPattern() {
+			return pattern.pattern();
+		}
+
+		@Override
+		public boolean isLinearTime() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package net.discordjug.javabot.systems.user_commands.regex;
+
+/**
+ * Thrown if matching a regular expression exceeded its step or time budget.
+ */
+public class RegexTimeoutException extends RuntimeException {
+	/**
+	 * Creates the exception.
+	 *
+	 * @param message The detail message.
+	 */
+	public RegexTimeoutException(String message) {
+		super(message);
+	}
+}
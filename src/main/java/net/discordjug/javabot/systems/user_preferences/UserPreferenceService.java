@@ -1,27 +1,44 @@
 package net.discordjug.javabot.systems.user_preferences;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import net.discordjug.javabot.systems.user_preferences.dao.UserPreferenceRepository;
 import net.discordjug.javabot.systems.user_preferences.model.Preference;
 import net.discordjug.javabot.systems.user_preferences.model.UserPreference;
 import net.discordjug.javabot.util.ExceptionLogger;
 
-import javax.sql.DataSource;
-
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles & manages user preferences.
+ * <p>
+ * The preferences of recently active users are cached, so checking a preference usually does not access the database.
+ * Preferences a user did not set are not stored, their default state is used instead.
  */
-@RequiredArgsConstructor
 @Service
 public class UserPreferenceService {
-	private final DataSource dataSource;
 	private final UserPreferenceRepository userPreferenceRepository;
+	/**
+	 * The states of all preferences a user has set, indexed by the ordinal of the {@link Preference}.
+	 * Entries of preferences which have not been set are {@code null}. The arrays are never modified.
+	 */
+	private final LoadingCache<Long, String[]> states;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param userPreferenceRepository Dao object that represents the USER_PREFERENCES SQL Table.
+	 */
+	public UserPreferenceService(UserPreferenceRepository userPreferenceRepository) {
+		this.userPreferenceRepository = userPreferenceRepository;
+		this.states = Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterAccess(1, TimeUnit.HOURS)
+				.build(userPreferenceRepository::getStates);
+	}
 
 	/**
 	 * Simply sets the state of the specified {@link Preference} for the specified user.
@@ -33,47 +50,31 @@ public class UserPreferenceService {
 	 * @return Whether the operation was successful.
 	 */
 	public boolean setOrCreate(long userId, Preference preference, String state) {
-		try (Connection con = dataSource.getConnection()) {
-			Optional<UserPreference> preferenceOptional = userPreferenceRepository.getById(userId, preference);
-			if (preferenceOptional.isPresent()) {
-				return userPreferenceRepository.updateState(userId, preference, state);
-			} else {
-				UserPreference userPreference = new UserPreference();
-				userPreference.setUserId(userId);
-				userPreference.setPreference(preference);
-				userPreference.setState(state);
-				userPreferenceRepository.insert(userPreference);
-				return true;
-			}
-		} catch (SQLException e) {
+		try {
+			userPreferenceRepository.upsert(new UserPreference(userId, preference, state));
+			return true;
+		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
 			return false;
+		} finally {
+			states.invalidate(userId);
 		}
 	}
 
 	/**
-	 * Gets a single {@link UserPreference} (or creates a new one if it doesn't exist yet).
+	 * Gets a single {@link UserPreference}. If the user did not set the preference, its default state is returned.
 	 *
 	 * @param userId     The users' id.
 	 * @param preference The {@link Preference} to get.
 	 * @return The {@link UserPreference}.
 	 */
 	public UserPreference getOrCreate(long userId, Preference preference) {
-		try (Connection con = dataSource.getConnection()) {
-			Optional<UserPreference> preferenceOptional = userPreferenceRepository.getById(userId, preference);
-			if (preferenceOptional.isPresent()) {
-				return preferenceOptional.get();
-			} else {
-				UserPreference userPreference = new UserPreference();
-				userPreference.setUserId(userId);
-				userPreference.setPreference(preference);
-				userPreference.setState(preference.getDefaultState());
-				userPreferenceRepository.insert(userPreference);
-				return userPreference;
-			}
-		} catch (SQLException e) {
+		String state = null;
+		try {
+			state = states.get(userId)[preference.ordinal()];
+		} catch (DataAccessException e) {
 			ExceptionLogger.capture(e, getClass().getSimpleName());
-			return null;
 		}
+		return new UserPreference(userId, preference, state == null ? preference.getDefaultState() : state);
 	}
 }
@@ -1,12 +1,6 @@
 package net.discordjug.javabot.systems.user_preferences.dao;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.Optional;
-
-import org.jetbrains.annotations.NotNull;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -23,32 +17,31 @@ public class UserPreferenceRepository {
 	private final JdbcTemplate jdbcTemplate;
 
 	/**
-	 * Gets a specific preference value of a user.
+	 * Gets the states of all preferences a user has set.
 	 * @param userId the ID of the user
-	 * @param preference the preference to obtain the value from
-	 * @return An {@link Optional} containing the value of the preference
+	 * @return An array containing the state of each {@link Preference} at the index of its ordinal,
+	 * or {@code null} if the preference has not been set
 	 * @throws DataAccessException if any error occured
 	 */
-	public Optional<UserPreference> getById(long userId, @NotNull Preference preference) throws DataAccessException {
-		try {
-			return Optional.of(jdbcTemplate.queryForObject("SELECT * FROM USER_PREFERENCES WHERE user_id = ? AND ordinal = ?", (rs, row)->this.read(rs),
-					userId, preference.ordinal()));
-		}catch (EmptyResultDataAccessException e) {
-			return Optional.empty();
-		}
-	}
-
-	public boolean updateState(long userId, @NotNull Preference preference, String state) throws DataAccessException {
-		return jdbcTemplate.update("UPDATE USER_PREFERENCES SET state = ? WHERE user_id = ? AND ordinal = ?",
-				state, userId, preference.ordinal()) > 0;
+	public String[] getStates(long userId) throws DataAccessException {
+		Preference[] preferences = Preference.values();
+		String[] states = new String[preferences.length];
+		jdbcTemplate.query("SELECT ordinal, state FROM USER_PREFERENCES WHERE user_id = ?", rs -> {
+			int ordinal = rs.getInt("ordinal");
+			if (ordinal >= 0 && ordinal < states.length) {
+				states[ordinal] = rs.getString("state");
+			}
+		}, userId);
+		return states;
 	}
 
-	public void insert(UserPreference instance) throws DataAccessException {
-		jdbcTemplate.update("INSERT INTO USER_PREFERENCES (user_id, ordinal, state) VALUES (?,?,?)",
+	/**
+	 * Inserts a preference or updates its state if the user has already set it.
+	 * @param instance the preference to store
+	 * @throws DataAccessException if any error occured
+	 */
+	public void upsert(UserPreference instance) throws DataAccessException {
+		jdbcTemplate.update("MERGE INTO USER_PREFERENCES (user_id, ordinal, state) KEY (user_id, ordinal) VALUES (?,?,?)",
 				instance.getUserId(), instance.getPreference().ordinal(), instance.getState());
 	}
-
-	private UserPreference read(ResultSet rs) throws SQLException {
-		return new UserPreference(rs.getLong("user_id"),Preference.values()[rs.getInt("ordinal")],rs.getString("state"));
-	}
 }
@@ -1,55 +1,86 @@
 package net.discordjug.javabot.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 
-import java.awt.image.BufferedImage;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Utility class for caching images.
+ * Utility class for caching generated images.
+ * <p>
+ * Images are stored in their encoded form (e.g. PNG), so a cache hit can be sent without any further processing.
+ * The cache is limited by the total size of the stored images and evicts the least recently used images first.
  */
 @Slf4j
 public class ImageCache {
-	private static final Map<String, BufferedImage> cache;
+	/**
+	 * The maximum total size of all cached images, in bytes.
+	 */
+	private static final long MAX_SIZE = 64L * 1024 * 1024;
+	/**
+	 * The time after which an image is removed if it has not been requested, in minutes.
+	 */
+	private static final long EXPIRY = 30;
 
-	static {
-		cache = new HashMap<>();
-	}
+	/**
+	 * The names of all cached images, sorted so that all names starting with a prefix can be found without
+	 * scanning every name. Names of evicted images are removed by the eviction listener.
+	 */
+	private static final NavigableSet<String> names = new ConcurrentSkipListSet<>();
+	private static final Cache<String, byte[]> cache = Caffeine.newBuilder()
+			.maximumWeight(MAX_SIZE)
+			.<String, byte[]>weigher((name, image) -> image.length)
+			.expireAfterAccess(EXPIRY, TimeUnit.MINUTES)
+			.evictionListener((name, image, cause) -> names.remove(name))
+			.build();
 
 	private ImageCache() {
 	}
 
 	/**
-	 * Caches an image by saving it in a {@link Map}.
+	 * Caches an encoded image.
 	 *
-	 * @param image The image to cache.
 	 * @param name  The name of the image.
+	 * @param image The encoded image.
 	 */
-	public static void cacheImage(String name, BufferedImage image) {
+	public static void cacheImage(String name, byte[] image) {
 		log.info("Added Image to Cache: {}", name);
+		names.add(name);
 		cache.put(name, image);
 	}
 
 	/**
-	 * Gets an image from the {@link Map}.
+	 * Gets an encoded image from the cache.
 	 *
 	 * @param name The name of the image.
-	 * @return A {@link BufferedImage}.
+	 * @return The encoded image or {@code null} if it is not cached.
 	 */
-	public static BufferedImage getCachedImage(String name) {
-		log.info("Retrieved Image from Cache: {}", name);
-		return cache.get(name);
+	public static byte[] getCachedImage(String name) {
+		byte[] image = cache.getIfPresent(name);
+		if (image != null) {
+			log.info("Retrieved Image from Cache: {}", name);
+		}
+		return image;
 	}
 
 	/**
-	 * Removes an image from the {@link Map} whose name contains the specified keyword.
+	 * Removes all images whose name starts with the specified keyword.
 	 *
-	 * @param keyword The keyword.
-	 * @return A {@link BufferedImage}.
+	 * @param keyword The prefix of the names of the images to remove.
+	 * @return Whether any image has been removed.
 	 */
 	public static boolean removeCachedImagesByKeyword(String keyword) {
-		return cache.keySet().removeIf(s -> s.contains(keyword));
+		NavigableSet<String> matching = names.subSet(keyword, true, keyword + Character.MAX_VALUE, true);
+		boolean removed = false;
+		for (String name : matching) {
+			matching.remove(name);
+			cache.invalidate(name);
+			removed = true;
+		}
+		return removed;
 	}
 
 	/**
@@ -59,6 +90,6 @@ public class ImageCache {
 	 * @return Whether the image is already cached or not.
 	 */
 	public static boolean isCached(String name) {
-		return cache.containsKey(name);
+		return cache.getIfPresent(name) != null;
 	}
 }
@@ -7,14 +7,22 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for generating images.
  */
 @Slf4j
 public class ImageGenerationUtils {
+	/**
+	 * Resource images and fonts never change at runtime, so they are only loaded once.
+	 */
+	private static final Map<String, BufferedImage> resourceImages = new ConcurrentHashMap<>();
+	private static final Map<String, Font> resourceFonts = new ConcurrentHashMap<>();
+
 	private ImageGenerationUtils() {}
 
 	/**
@@ -30,13 +38,22 @@ public class ImageGenerationUtils {
 
 	/**
 	 * Gets an Image from the specified Resource Path.
+	 * The image is only read once and shared between all callers, so it must not be modified.
 	 *
 	 * @param path The path of the image.
 	 * @return The image as a {@link BufferedImage}
 	 * @throws IOException If an error occurs.
 	 */
 	public static BufferedImage getResourceImage(String path) throws IOException {
-		return ImageIO.read(Objects.requireNonNull(ImageGenerationUtils.class.getClassLoader().getResourceAsStream(path)));
+		BufferedImage image = resourceImages.get(path);
+		if (image == null) {
+			image = ImageIO.read(Objects.requireNonNull(ImageGenerationUtils.class.getClassLoader().getResourceAsStream(path)));
+			BufferedImage existing = resourceImages.putIfAbsent(path, image);
+			if (existing != null) {
+				image = existing;
+			}
+		}
+		return image;
 	}
 
 	/**
@@ -47,14 +64,18 @@ public class ImageGenerationUtils {
 	 * @return The font as an {@link Optional}
 	 */
 	public static Optional<Font> getResourceFont(String path, float size) {
-		Font font = null;
-		try {
-			font = Font.createFont(Font.TRUETYPE_FONT, Objects.requireNonNull(ImageGenerationUtils.class.getClassLoader().getResourceAsStream(path))).deriveFont(size);
-			GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
-		} catch (IOException | FontFormatException e) {
-			ExceptionLogger.capture(e, ImageGenerationUtils.class.getSimpleName());
-			log.warn("Could not load Font from path " + path);
+		Font font = resourceFonts.get(path);
+		if (font == null) {
+			try {
+				font = Font.createFont(Font.TRUETYPE_FONT, Objects.requireNonNull(ImageGenerationUtils.class.getClassLoader().getResourceAsStream(path)));
+				GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+				resourceFonts.putIfAbsent(path, font);
+			} catch (IOException | FontFormatException e) {
+				ExceptionLogger.capture(e, ImageGenerationUtils.class.getSimpleName());
+				log.warn("Could not load Font from path " + path);
+				return Optional.empty();
+			}
 		}
-		return Optional.ofNullable(font);
+		return Optional.of(font.deriveFont(size));
 	}
 }
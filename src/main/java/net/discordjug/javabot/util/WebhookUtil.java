@@ -1,34 +1,89 @@
 package net.discordjug.javabot.util;
 
 import club.minnced.discord.webhook.WebhookClientBuilder;
+import club.minnced.discord.webhook.exception.HttpException;
 import club.minnced.discord.webhook.external.JDAWebhookClient;
 import club.minnced.discord.webhook.receive.ReadonlyMessage;
 import club.minnced.discord.webhook.send.AllowedMentions;
 import club.minnced.discord.webhook.send.WebhookEmbedBuilder;
 import club.minnced.discord.webhook.send.WebhookMessageBuilder;
 import club.minnced.discord.webhook.send.component.LayoutComponent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.Message.Attachment;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.Webhook;
 import net.dv8tion.jda.api.entities.channel.attribute.IWebhookContainer;
+import okhttp3.OkHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * Contains utility methods for dealing with Discord Webhooks.
+ * <p>
+ * The webhook of each channel is cached after it has been found or created, and the clients used for sending
+ * messages are kept for reuse. A cached webhook is removed if Discord reports it as unknown or if its channel is deleted.
+ * <p>
+ * There is one client per webhook, messages in threads are sent using clients derived from it.
+ * All clients share a single thread pool and HTTP client, so they don't need to be closed.
  */
 public class WebhookUtil {
+	/**
+	 * The HTTP status code Discord responds with if a webhook does not exist (anymore).
+	 */
+	private static final int UNKNOWN_WEBHOOK_STATUS = 404;
+
+	/**
+	 * The webhooks owned by the bot, by the IDs of their channels.
+	 */
+	private static final Cache<Long, Webhook> webhooks = Caffeine.newBuilder()
+			.maximumSize(1_000)
+			.build();
+	/**
+	 * The amount of threads used for sending messages using all webhooks.
+	 */
+	private static final int CLIENT_THREADS = 4;
+
+	/**
+	 * The thread pool used by all webhook clients.
+	 * Clients must not be closed, as that would shut down this pool.
+	 */
+	private static final ScheduledExecutorService clientPool = createClientPool();
+	private static final OkHttpClient httpClient = new OkHttpClient();
+	/**
+	 * The clients for sending messages using a webhook, by the ID of the webhook.
+	 * Clients are not closed when they are removed, so messages which are still being sent are not affected.
+	 */
+	private static final Cache<Long, JDAWebhookClient> clients = Caffeine.newBuilder()
+			.maximumSize(1_000)
+			.expireAfterAccess(10, TimeUnit.MINUTES)
+			.build();
+
 	private WebhookUtil() {
 	}
 
+	private static ScheduledExecutorService createClientPool() {
+		AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newScheduledThreadPool(CLIENT_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "webhook-client-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	/**
 	 * Makes sure that a writable webhook exists in a specific channel. if no
 	 * suitable webhook is found, one is created.
@@ -62,21 +117,43 @@ public class WebhookUtil {
 				failureCallback.accept(e);
 			}
 		};
-		channel.retrieveWebhooks().queue(webhooks -> {
-			Optional<Webhook> hook = webhooks.stream()
+		Webhook cached = webhooks.getIfPresent(channel.getIdLong());
+		if (cached != null) {
+			safeCallback.accept(cached);
+			return;
+		}
+		Consumer<Webhook> cachingCallback = wh -> {
+			webhooks.put(channel.getIdLong(), wh);
+			safeCallback.accept(wh);
+		};
+		channel.retrieveWebhooks().queue(channelWebhooks -> {
+			Optional<Webhook> hook = channelWebhooks.stream()
 					.filter(webhook -> webhook.getChannel().getIdLong() == channel.getIdLong())
 					.filter(wh -> wh.getOwner() != null)
 					.filter(wh -> wh.getOwner().getIdLong() == channel.getJDA().getSelfUser().getIdLong())
 					.filter(wh -> wh.getToken() != null)
 					.findAny();
 			if (hook.isPresent()) {
-				safeCallback.accept(hook.get());
+				cachingCallback.accept(hook.get());
 			} else {
-				channel.createWebhook("JavaBot-webhook").queue(safeCallback, failureCallback);
+				channel.createWebhook("JavaBot-webhook").queue(cachingCallback, failureCallback);
 			}
 		}, failureCallback);
 	}
 
+	/**
+	 * Removes the cached webhook of a channel and the client using it.
+	 * This should be called if the webhook or the channel has been deleted.
+	 *
+	 * @param channelId the ID of the channel
+	 */
+	public static void invalidateWebhook(long channelId) {
+		Webhook webhook = webhooks.asMap().remove(channelId);
+		if (webhook != null) {
+			clients.invalidate(webhook.getIdLong());
+		}
+	}
+
 	/**
 	 * Resends a specific message using a webhook with a custom content.
 	 *
@@ -91,8 +168,28 @@ public class WebhookUtil {
 	 * the message
 	 */
 	public static CompletableFuture<ReadonlyMessage> mirrorMessageToWebhook(@NotNull Webhook webhook, @NotNull Message originalMessage, String newMessageContent, long threadId, @Nullable List<LayoutComponent> components, @Nullable List<MessageEmbed> embeds) {
-		JDAWebhookClient client = new WebhookClientBuilder(webhook.getIdLong(), webhook.getToken()).setThreadId(threadId)
-				.buildJDA();
+		return prepareMirroredMessage(originalMessage, newMessageContent, components, embeds)
+				.thenCompose(message -> sendMirroredMessage(webhook, threadId, message))
+				.whenComplete((result, err) -> {
+					if (err != null) {
+						ExceptionLogger.capture(err, WebhookUtil.class.getSimpleName());
+					}
+				});
+	}
+
+	/**
+	 * Creates a copy of a specific message with a custom content, which can be sent using
+	 * {@link #sendMirroredMessage(Webhook, long, WebhookMessageBuilder)}.
+	 * The attachments of the message are downloaded immediately, so this can be used to prepare messages
+	 * while other messages are still being sent.
+	 *
+	 * @param originalMessage   the message to copy
+	 * @param newMessageContent the new (custom) content
+	 * @param components        A nullable list of {@link LayoutComponent}s.
+	 * @param embeds            A nullable list of {@link MessageEmbed}s, the embeds of the original message are used if this is empty.
+	 * @return a {@link CompletableFuture} which is completed with the copy once all attachments are downloaded
+	 */
+	public static CompletableFuture<WebhookMessageBuilder> prepareMirroredMessage(@NotNull Message originalMessage, String newMessageContent, @Nullable List<LayoutComponent> components, @Nullable List<MessageEmbed> embeds) {
 		WebhookMessageBuilder message = new WebhookMessageBuilder().setContent(newMessageContent)
 				.setAllowedMentions(AllowedMentions.none())
 				.setAvatarUrl(transformOrNull(originalMessage.getMember(), Member::getEffectiveAvatarUrl))
@@ -114,22 +211,60 @@ public class WebhookUtil {
 			Attachment attachment = attachments.get(i);
 			futures[i] = attachment.getProxy()
 					.download()
-					.thenAccept(is -> message.addFile((attachment.isSpoiler() ? "SPOILER_" : "") + attachment.getFileName(), is));
+					.thenAccept(is -> {
+						synchronized (message) {
+							message.addFile((attachment.isSpoiler() ? "SPOILER_" : "") + attachment.getFileName(), is);
+						}
+					});
 		}
-		return CompletableFuture.allOf(futures)
-				.thenCompose(unused -> sendMessage(client, message))
-				.whenComplete((result, err) -> {
-					client.close();
-					if (err != null) {
-						ExceptionLogger.capture(err, WebhookUtil.class.getSimpleName());
-					}
-				});
+		return CompletableFuture.allOf(futures).thenApply(unused -> message);
 	}
 
 	private static <T, R> R transformOrNull(T toTransform, Function<T, R> transformer) {
 		return toTransform == null ? null : transformer.apply(toTransform);
 	}
 
+	/**
+	 * Sends a message using a webhook. If the webhook has been deleted in the meantime,
+	 * a new webhook is looked up or created in the same channel and the message is sent using that webhook.
+	 *
+	 * @param webhook  the webhook used for sending the message
+	 * @param threadId the thread to send the message in or {@code 0} if the
+	 *                 message should be sent directly
+	 * @param message  the message to send
+	 * @return a {@link CompletableFuture} representing the action of sending the message
+	 */
+	public static @NotNull CompletableFuture<ReadonlyMessage> sendMirroredMessage(@NotNull Webhook webhook, long threadId, @NotNull WebhookMessageBuilder message) {
+		return sendMessage(getClient(webhook, threadId), message)
+				.handle((result, err) -> {
+					if (err == null) {
+						return CompletableFuture.completedFuture(result);
+					}
+					if (!isUnknownWebhook(err)) {
+						return CompletableFuture.<ReadonlyMessage>failedFuture(err);
+					}
+					invalidateWebhook(webhook.getChannel().getIdLong());
+					CompletableFuture<Webhook> replacement = new CompletableFuture<>();
+					ensureWebhookExists(webhook.getChannel(), replacement::complete, replacement::completeExceptionally);
+					return replacement.thenCompose(newWebhook -> sendMessage(getClient(newWebhook, threadId), message));
+				})
+				.thenCompose(Function.identity());
+	}
+
+	private static JDAWebhookClient getClient(Webhook webhook, long threadId) {
+		JDAWebhookClient client = clients.get(webhook.getIdLong(), id ->
+				new WebhookClientBuilder(id, webhook.getToken())
+						.setExecutorService(clientPool)
+						.setHttpClient(httpClient)
+						.buildJDA());
+		return threadId == 0 ? client : client.onThread(threadId);
+	}
+
+	private static boolean isUnknownWebhook(Throwable err) {
+		Throwable cause = err instanceof CompletionException ? err.getCause() : err;
+		return cause instanceof HttpException httpException && httpException.getCode() == UNKNOWN_WEBHOOK_STATUS;
+	}
+
 	private static @NotNull CompletableFuture<ReadonlyMessage> sendMessage(JDAWebhookClient client, WebhookMessageBuilder message) {
 		if (message.isEmpty()) {
 			message.setContent("<empty message>");
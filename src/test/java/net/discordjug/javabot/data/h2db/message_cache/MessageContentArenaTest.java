@@ -0,0 +1,89 @@
+package net.discordjug.javabot.data.h2db.message_cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessage;
+import net.discordjug.javabot.data.h2db.message_cache.model.CompactCachedMessage;
+
+/**
+ * Tests for the {@link MessageContentArena} and {@link CompactCachedMessage} classes.
+ */
+class MessageContentArenaTest {
+	private final MessageContentArena arena = new MessageContentArena();
+
+	@Test
+	void testMultibyteContent() {
+		assertRoundTrip(createMessage(1, "Grüße, 日本語 and emojis 👋☕\nsecond line", List.of("https://example.com/ä.png")));
+	}
+
+	@Test
+	void testAttachments() {
+		assertRoundTrip(createMessage(1, "no attachments", List.of()));
+		assertRoundTrip(createMessage(2, "one attachment", List.of("https://cdn.example.com/1.png")));
+		assertRoundTrip(createMessage(3, "many\nattachments\n", List.of("https://cdn.example.com/1.png", "", "https://cdn.example.com/3.txt")));
+		assertRoundTrip(createMessage(4, "", List.of("https://cdn.example.com/only.png")));
+		assertRoundTrip(createMessage(5, "", List.of()));
+	}
+
+	@Test
+	void testSegmentRollover() {
+		CachedMessage first = createMessage(1, "a".repeat(MessageContentArena.SEGMENT_SIZE - 10), List.of());
+		// fills the rest of the segment exactly
+		CachedMessage second = createMessage(2, "b".repeat(10), List.of());
+		// starts a new segment
+		CachedMessage third = createMessage(3, "c", List.of("https://cdn.example.com/c.png"));
+		CompactCachedMessage storedFirst = arena.store(first);
+		CompactCachedMessage storedSecond = arena.store(second);
+		CompactCachedMessage storedThird = arena.store(third);
+		assertDecoded(first, storedFirst);
+		assertDecoded(second, storedSecond);
+		assertDecoded(third, storedThird);
+	}
+
+	@Test
+	void testBodyLargerThanSegment() {
+		CachedMessage small = createMessage(1, "small", List.of());
+		CachedMessage large = createMessage(2, "ü".repeat(MessageContentArena.SEGMENT_SIZE), List.of("https://cdn.example.com/large.txt"));
+		CachedMessage next = createMessage(3, "next", List.of());
+		CompactCachedMessage storedSmall = arena.store(small);
+		CompactCachedMessage storedLarge = arena.store(large);
+		CompactCachedMessage storedNext = arena.store(next);
+		assertEquals(2 * MessageContentArena.SEGMENT_SIZE, storedLarge.getMessageContent().getBytes(StandardCharsets.UTF_8).length);
+		assertDecoded(small, storedSmall);
+		assertDecoded(large, storedLarge);
+		assertDecoded(next, storedNext);
+	}
+
+	@Test
+	void testCompactMessagesAreNotCopied() {
+		CompactCachedMessage stored = arena.store(createMessage(1, "content", List.of()));
+		assertSame(stored, arena.store(stored));
+	}
+
+	private void assertRoundTrip(CachedMessage message) {
+		assertDecoded(message, arena.store(message));
+	}
+
+	private void assertDecoded(CachedMessage expected, CompactCachedMessage actual) {
+		assertEquals(expected.getMessageId(), actual.getMessageId());
+		assertEquals(expected.getAuthorId(), actual.getAuthorId());
+		assertEquals(expected.getMessageContent(), actual.getMessageContent());
+		assertEquals(expected.getAttachments(), actual.getAttachments());
+		assertEquals(expected, actual.decode());
+	}
+
+	private CachedMessage createMessage(long id, String content, List<String> attachments) {
+		CachedMessage message = new CachedMessage();
+		message.setMessageId(id);
+		message.setAuthorId(id + 100);
+		message.setMessageContent(content);
+		message.setAttachments(attachments);
+		return message;
+	}
+}
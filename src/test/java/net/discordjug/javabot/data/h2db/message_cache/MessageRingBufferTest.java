@@ -0,0 +1,112 @@
+package net.discordjug.javabot.data.h2db.message_cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessage;
+import net.discordjug.javabot.data.h2db.message_cache.model.CachedMessageView;
+
+/**
+ * Tests for the {@link MessageRingBuffer} class.
+ */
+class MessageRingBufferTest {
+
+	@Test
+	void testEvictsOldestWhenFull() {
+		MessageRingBuffer buffer = new MessageRingBuffer(3);
+		for (long id = 1; id <= 3; id++) {
+			assertNull(buffer.add(createMessage(id, "message " + id)));
+		}
+		CachedMessageView evicted = buffer.add(createMessage(4, "message 4"));
+		assertEquals(1, evicted.getMessageId());
+		assertNull(buffer.get(1));
+		assertEquals(List.of(2L, 3L, 4L), ids(buffer.toList()));
+	}
+
+	@Test
+	void testReplaceKeepsPosition() {
+		MessageRingBuffer buffer = new MessageRingBuffer(3);
+		buffer.add(createMessage(1, "a"));
+		buffer.add(createMessage(2, "b"));
+		CachedMessage edited = createMessage(1, "edited");
+		assertEquals("a", buffer.replace(edited).getMessageContent());
+		assertSame(edited, buffer.get(1));
+		assertEquals(List.of(1L, 2L), ids(buffer.toList()));
+		assertNull(buffer.replace(createMessage(3, "c")));
+		assertEquals(2, buffer.size());
+	}
+
+	@Test
+	void testRemoveLeavesReusableHole() {
+		MessageRingBuffer buffer = new MessageRingBuffer(3);
+		for (long id = 1; id <= 3; id++) {
+			buffer.add(createMessage(id, "message " + id));
+		}
+		assertEquals(2, buffer.remove(2).getMessageId());
+		assertNull(buffer.remove(2));
+		assertEquals(2, buffer.size());
+		buffer.add(createMessage(4, "message 4"));
+		buffer.add(createMessage(5, "message 5"));
+		assertEquals(List.of(3L, 4L, 5L), ids(buffer.toList()));
+		assertEquals(5, buffer.get(5).getMessageId());
+	}
+
+	@Test
+	void testIndexSurvivesManyEvictions() {
+		MessageRingBuffer buffer = new MessageRingBuffer(64);
+		for (long id = 1; id <= 10_000; id++) {
+			buffer.add(createMessage(id * 31, "message"));
+			if (id % 3 == 0) {
+				buffer.remove((id - 1) * 31);
+			}
+		}
+		for (long id = 9_937; id <= 10_000; id++) {
+			boolean removed = id % 3 == 2;
+			assertEquals(removed, buffer.get(id * 31) == null, "message " + id);
+		}
+		assertNull(buffer.get(9_000 * 31));
+	}
+
+	@Test
+	void testAddFirstNeverEvicts() {
+		MessageRingBuffer buffer = new MessageRingBuffer(3);
+		buffer.add(createMessage(3, "new"));
+		assertTrue(buffer.addFirst(createMessage(2, "old")));
+		assertFalse(buffer.addFirst(createMessage(3, "stale")));
+		assertTrue(buffer.addFirst(createMessage(1, "oldest")));
+		assertFalse(buffer.addFirst(createMessage(0, "too old")));
+		assertEquals("new", buffer.get(3).getMessageContent());
+		assertEquals(List.of(1L, 2L, 3L), ids(buffer.toList()));
+		assertEquals(1, buffer.add(createMessage(4, "newest")).getMessageId());
+	}
+
+	@Test
+	void testResizeDropsOldest() {
+		MessageRingBuffer buffer = new MessageRingBuffer(4);
+		for (long id = 1; id <= 4; id++) {
+			buffer.add(createMessage(id, "message " + id));
+		}
+		assertEquals(List.of(1L, 2L), ids(buffer.resize(2)));
+		assertEquals(List.of(3L, 4L), ids(buffer.toList()));
+		assertEquals(2, buffer.capacity());
+	}
+
+	private List<Long> ids(List<CachedMessageView> messages) {
+		return messages.stream().map(CachedMessageView::getMessageId).toList();
+	}
+
+	private CachedMessage createMessage(long id, String content) {
+		CachedMessage message = new CachedMessage();
+		message.setMessageId(id);
+		message.setAuthorId(1);
+		message.setMessageContent(content);
+		return message;
+	}
+}
@@ -0,0 +1,122 @@
+package net.discordjug.javabot.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.listener.ForumVoteTally.Votes;
+
+/**
+ * Tests for the {@link ForumVoteTally} class.
+ */
+class ForumVoteTallyTest {
+	private final ForumVoteTally tally = new ForumVoteTally();
+
+	@Test
+	void testIgnoresVotesWhileSeeding() {
+		assertNull(tally.add(1, true, 1));
+		assertTrue(tally.startSeeding(1));
+		assertFalse(tally.startSeeding(1));
+		assertNull(tally.add(1, true, 1));
+		assertNull(tally.get(1));
+		assertEquals(new Votes(3, 1), tally.seed(1, 3, 1));
+		assertEquals(new Votes(3, 2), tally.add(1, false, 1));
+		assertEquals(new Votes(2, 2), tally.add(1, true, -1));
+		// a second seed must not overwrite counted votes
+		assertEquals(new Votes(2, 2), tally.seed(1, 0, 0));
+	}
+
+	@Test
+	void testReconcileCorrectsDrift() {
+		tally.startSeeding(1);
+		tally.seed(1, 1, 1);
+		tally.add(1, false, 1);
+		assertEquals(new Votes(1, 2), tally.reconcile(1, 5, 2));
+		assertEquals(new Votes(5, 2), tally.get(1));
+		assertEquals(-3, tally.get(1).getDownvoteDifference());
+		assertNull(tally.reconcile(2, 1, 1));
+		tally.remove(1);
+		assertNull(tally.get(1));
+		assertTrue(tally.getPostIds().isEmpty());
+	}
+
+	@Test
+	void testTracksChangedPosts() {
+		tally.startSeeding(1);
+		tally.seed(1, 1, 1);
+		tally.startSeeding(2);
+		tally.seed(2, 1, 1);
+		// seeding alone does not change the votes
+		assertTrue(tally.takeChangedPostIds().isEmpty());
+		tally.add(1, true, 1);
+		tally.add(1, false, 1);
+		assertEquals(Set.of(1L), tally.takeChangedPostIds());
+		assertTrue(tally.takeChangedPostIds().isEmpty());
+		tally.reconcile(1, 3, 3);
+		assertTrue(tally.takeChangedPostIds().isEmpty());
+		tally.add(2, true, 1);
+		tally.remove(2);
+		assertTrue(tally.takeChangedPostIds().isEmpty());
+	}
+
+	@Test
+	void testConcurrentVotes() throws Exception {
+		int posts = 4;
+		int voters = 500;
+		for (long post = 0; post < posts; post++) {
+			tally.startSeeding(post);
+			tally.seed(post, 10, 10);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<int[]>> results = new ArrayList<>();
+			for (int i = 0; i < voters; i++) {
+				results.add(executor.submit(() -> simulateVoter(posts)));
+			}
+			int[] expected = new int[posts * 2];
+			for (Future<int[]> result : results) {
+				int[] votes = result.get();
+				for (int i = 0; i < expected.length; i++) {
+					expected[i] += votes[i];
+				}
+			}
+			for (int post = 0; post < posts; post++) {
+				assertEquals(new Votes(10 + expected[post * 2], 10 + expected[post * 2 + 1]), tally.get(post));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Simulates a user adding and removing votes on random posts, like the reaction events of that user.
+	 *
+	 * @param posts The number of posts.
+	 * @return The votes of the user which have not been removed, as pairs of upvotes and downvotes per post.
+	 */
+	private int[] simulateVoter(int posts) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		boolean[] voted = new boolean[posts * 2];
+		for (int i = 0; i < 50; i++) {
+			int index = random.nextInt(voted.length);
+			tally.add(index / 2, index % 2 == 0, voted[index] ? -1 : 1);
+			voted[index] = !voted[index];
+		}
+		int[] votes = new int[voted.length];
+		for (int i = 0; i < voted.length; i++) {
+			votes[i] = voted[i] ? 1 : 0;
+		}
+		return votes;
+	}
+}
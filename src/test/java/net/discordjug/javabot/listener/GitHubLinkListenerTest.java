@@ -0,0 +1,41 @@
+package net.discordjug.javabot.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.systems.github.GitHubSnippetService.FileKey;
+import net.discordjug.javabot.systems.github.GitHubSnippetService.Snippet;
+import net.discordjug.javabot.systems.github.GitHubSnippetService.SnippetLink;
+import net.dv8tion.jda.api.entities.Message;
+
+/**
+ * Tests for the {@link GitHubLinkListener} class.
+ */
+class GitHubLinkListenerTest {
+	private static final SnippetLink LINK = new SnippetLink("https://github.com/owner/repo/blob/main/Main.java#L1-L500",
+			new FileKey("owner", "repo", "main", "Main.java"), 1, 500);
+
+	@Test
+	void testShortSnippetIsNotTruncated() {
+		assertEquals("```java\nint x = 1;\n```", GitHubLinkListener.formatSnippet(new Snippet(LINK, "int x = 1;")));
+	}
+
+	@Test
+	void testLongSnippetIsTruncatedAtLineBreak() {
+		String line = "System.out.println(\"Hello World\"); // line";
+		String content = (line + "\n").repeat(100);
+		String formatted = GitHubLinkListener.formatSnippet(new Snippet(LINK, content));
+		assertTrue(formatted.length() <= Message.MAX_CONTENT_LENGTH);
+		assertTrue(formatted.startsWith("```java\n" + line + "\n"));
+		assertTrue(formatted.endsWith(line + "\n...\n```"));
+	}
+
+	@Test
+	void testLongLineIsTruncated() {
+		String formatted = GitHubLinkListener.formatSnippet(new Snippet(LINK, "x".repeat(5_000)));
+		assertEquals(Message.MAX_CONTENT_LENGTH, formatted.length());
+		assertTrue(formatted.endsWith("x\n...\n```"));
+	}
+}
@@ -0,0 +1,154 @@
+package net.discordjug.javabot.systems.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import net.discordjug.javabot.systems.github.GitHubSnippetService.Snippet;
+import net.discordjug.javabot.systems.github.GitHubSnippetService.SnippetLink;
+
+/**
+ * Tests for the {@link GitHubSnippetService} class, using a local HTTP server instead of GitHub.
+ */
+class GitHubSnippetServiceTest {
+	private static final String FILE = "line 1\r\nline 2\r\nline 3\r\nline 4\r\nline 5";
+	private static final String LINK = "https://github.com/owner/repo/blob/main/src/Main.java";
+	private static final int MAX_FILE_SIZE = 1024;
+	private static final String LARGE_FILE = "line\n".repeat(MAX_FILE_SIZE);
+
+	private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+	private HttpServer server;
+	private GitHubSnippetService snippetService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		URI baseUri = URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+		snippetService = new GitHubSnippetService(baseUri, Duration.ofMillis(500), MAX_FILE_SIZE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+		try (exchange) {
+			switch (path) {
+				case "/owner/repo/main/src/Main.java" -> respond(exchange, 200, FILE);
+				case "/owner/repo/main/slow.txt" -> {
+					try {
+						Thread.sleep(2_000);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					respond(exchange, 200, FILE);
+				}
+				case "/owner/repo/main/error.txt" -> respond(exchange, 500, "");
+				case "/owner/repo/main/large.txt" -> respond(exchange, 200, LARGE_FILE);
+				case "/owner/repo/main/chunked.txt" -> {
+					// a response length of 0 sends the body in chunks without a Content-Length
+					exchange.sendResponseHeaders(200, 0);
+					try (OutputStream os = exchange.getResponseBody()) {
+						os.write(LARGE_FILE.getBytes(StandardCharsets.UTF_8));
+					}
+				}
+				default -> respond(exchange, 404, "404: Not Found");
+			}
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+	private int getRequestCount(String path) {
+		AtomicInteger count = requests.get(path);
+		return count == null ? 0 : count.get();
+	}
+
+	@Test
+	void testFindsDistinctLinks() {
+		List<SnippetLink> links = snippetService.findLinks(LINK + "#L2-L3 and " + LINK + "#L2-L3, " + LINK + "#L4 and " + LINK + "#L5-L4");
+		assertEquals(3, links.size());
+		assertEquals(2, links.get(0).from());
+		assertEquals(3, links.get(0).to());
+		assertEquals(4, links.get(1).from());
+		assertEquals(4, links.get(1).to());
+		assertEquals(4, links.get(2).from());
+		assertEquals(5, links.get(2).to());
+		assertEquals(new GitHubSnippetService.FileKey("owner", "repo", "main", "src/Main.java"), links.get(0).file());
+		assertEquals("java", links.get(0).getExtension());
+		assertTrue(snippetService.findLinks("https://github.com/owner/repo/blob/main/src/Main.java").isEmpty());
+	}
+
+	@Test
+	void testServesLineRangesFromSingleDownload() {
+		List<Snippet> snippets = snippetService.getSnippets(LINK + "#L2-L3 " + LINK + "#L2-L3 " + LINK + "#L5 " + LINK + "#L4-L99").join();
+		assertEquals(3, snippets.size());
+		assertEquals("line 2\nline 3\n", snippets.get(0).content());
+		assertEquals("line 5\n", snippets.get(1).content());
+		assertEquals("line 4\nline 5\n", snippets.get(2).content());
+		assertTrue(snippetService.getSnippets(LINK + "#L100").join().isEmpty());
+		assertEquals(1, getRequestCount("/owner/repo/main/src/Main.java"));
+	}
+
+	@Test
+	void testCachesMissingFiles() {
+		String link = "https://github.com/owner/repo/blob/main/Missing.java#L1";
+		assertTrue(snippetService.getSnippets(link).join().isEmpty());
+		assertTrue(snippetService.getSnippets(link).join().isEmpty());
+		assertEquals(1, getRequestCount("/owner/repo/main/Missing.java"));
+	}
+
+	@Test
+	void testRetriesFailedDownloads() {
+		String link = "https://github.com/owner/repo/blob/main/error.txt#L1";
+		assertTrue(snippetService.getSnippets(link).join().isEmpty());
+		assertTrue(snippetService.getSnippets(link).join().isEmpty());
+		assertEquals(2, getRequestCount("/owner/repo/main/error.txt"));
+	}
+
+	@Test
+	void testTreatsLargeFilesAsNotFound() {
+		for (String path : List.of("large.txt", "chunked.txt")) {
+			String link = "https://github.com/owner/repo/blob/main/" + path + "#L1";
+			assertTrue(snippetService.getSnippets(link).join().isEmpty());
+			assertTrue(snippetService.getSnippets(link).join().isEmpty());
+			assertEquals(1, getRequestCount("/owner/repo/main/" + path));
+		}
+	}
+
+	@Test
+	void testTimesOut() {
+		long start = System.nanoTime();
+		assertTrue(snippetService.getSnippets("https://github.com/owner/repo/blob/main/slow.txt#L1").join().isEmpty());
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(1_500)) < 0);
+	}
+}
@@ -0,0 +1,131 @@
+package net.discordjug.javabot.systems.help;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import net.discordjug.javabot.data.h2db.DbHelper;
+import net.discordjug.javabot.systems.help.dao.HelpAccountRepository;
+import net.discordjug.javabot.systems.help.dao.HelpTransactionRepository;
+import net.discordjug.javabot.systems.help.model.HelpAccount;
+import net.discordjug.javabot.systems.help.model.HelpTransaction;
+
+/**
+ * Tests performing multiple help transactions at once.
+ */
+class HelpTransactionRepositoryTest {
+	private HikariDataSource dataSource;
+	private JdbcTemplate template;
+	private HelpAccountRepository accountRepository;
+	private HelpTransactionRepository transactionRepository;
+
+	@BeforeEach
+	void setUp() throws IOException, SQLException {
+		dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url("jdbc:h2:mem:help-transactions")
+				.username("test")
+				.password("")
+				.build();
+
+		DbHelper.initializeSchema(dataSource);
+
+		template = new JdbcTemplate(dataSource);
+		// the channel of transactions is only added by a migration
+		try (InputStream is = getClass().getResourceAsStream("/database/migrations/07-08-2023_channel_transactions.sql")) {
+			template.execute(new String(is.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		accountRepository = new HelpAccountRepository(template);
+		transactionRepository = new HelpTransactionRepository(template);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		dataSource.close();
+	}
+
+	/**
+	 * The batched MERGE adds to existing accounts and creates accounts for new recipients.
+	 */
+	@Test
+	void testExistingAndNewAccounts() {
+		accountRepository.insert(new HelpAccount(1, 10));
+		accountRepository.insert(new HelpAccount(3, 7));
+
+		List<HelpAccount> accounts = transactionRepository.performTransactions(List.of(
+				createTransaction(1, 2.5, 100),
+				createTransaction(2, 4, 100)));
+
+		assertEquals(Map.of(1L, 12.5, 2L, 4.0), toMap(accounts));
+		assertEquals(12.5, accountRepository.getByUserId(1).orElseThrow().getExperience());
+		assertEquals(4, accountRepository.getByUserId(2).orElseThrow().getExperience());
+		assertEquals(7, accountRepository.getByUserId(3).orElseThrow().getExperience());
+	}
+
+	/**
+	 * Transactions to the same recipient are all stored and added up, and the account is returned once.
+	 */
+	@Test
+	void testRepeatedRecipients() {
+		List<HelpAccount> accounts = transactionRepository.performTransactions(List.of(
+				createTransaction(1, 1, 100),
+				createTransaction(2, 3, 100),
+				createTransaction(1, 2, 200)));
+
+		assertEquals(2, accounts.size());
+		assertEquals(Map.of(1L, 3.0, 2L, 3.0), toMap(accounts));
+		assertEquals(3, accountRepository.getByUserId(1).orElseThrow().getExperience());
+		assertEquals(2, transactionRepository.getTransactions(1, 10).size());
+		assertEquals(3, template.queryForObject("SELECT COUNT(*) FROM help_transaction", Long.class));
+	}
+
+	/**
+	 * Each transaction is stored with its weight, message type and channel.
+	 */
+	@Test
+	void testStoresTransactions() {
+		HelpTransaction transaction = createTransaction(1, 2.5, 100);
+		transaction.setMessageType(2);
+		transactionRepository.performTransactions(List.of(transaction));
+
+		HelpTransaction stored = transactionRepository.getTransactions(1, 10).get(0);
+		assertEquals(1, stored.getRecipient());
+		assertEquals(2.5, stored.getWeight());
+		assertEquals(2, stored.getMessageType());
+		assertEquals(100, stored.getChannelId());
+		assertEquals(Set.of(1L), transactionRepository.getRecipientsInChannel(100));
+	}
+
+	@Test
+	void testNoTransactions() {
+		assertEquals(List.of(), transactionRepository.performTransactions(List.of()));
+		assertEquals(0, template.queryForObject("SELECT COUNT(*) FROM help_transaction", Long.class));
+	}
+
+	private HelpTransaction createTransaction(long recipient, double weight, long channelId) {
+		HelpTransaction transaction = new HelpTransaction();
+		transaction.setRecipient(recipient);
+		transaction.setWeight(weight);
+		transaction.setChannelId(channelId);
+		return transaction;
+	}
+
+	private Map<Long, Double> toMap(List<HelpAccount> accounts) {
+		return accounts.stream().collect(Collectors.toMap(HelpAccount::getUserId, HelpAccount::getExperience));
+	}
+}
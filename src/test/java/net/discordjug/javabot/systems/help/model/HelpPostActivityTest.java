@@ -0,0 +1,48 @@
+package net.discordjug.javabot.systems.help.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link HelpPostActivity} class.
+ */
+class HelpPostActivityTest {
+
+	@Test
+	void testAccumulatesExperiencePerHelper() {
+		HelpPostActivity activity = new HelpPostActivity();
+		activity.add(new HelpPostMessage(1, true, 10, 10), 3);
+		activity.add(new HelpPostMessage(2, true, 10, 10), 5);
+		activity.add(new HelpPostMessage(1, true, 10, 10), 4);
+		activity.add(new HelpPostMessage(3, true, 1, 1), 0);
+		assertEquals(Map.of(1L, 7.0, 2L, 5.0, 3L, 0.0), activity.getExperience(100));
+		assertEquals(Map.of(1L, 6.0, 2L, 5.0, 3L, 0.0), activity.getExperience(6));
+	}
+
+	@Test
+	void testOrdersHelpersByLastMessage() {
+		HelpPostActivity activity = new HelpPostActivity();
+		activity.add(new HelpPostMessage(1, true, 10, 10), 1);
+		activity.add(new HelpPostMessage(2, false, 10, 10), 1);
+		activity.add(new HelpPostMessage(3, true, 10, 10), 1);
+		activity.add(new HelpPostMessage(1, false, 10, 10), 1);
+		assertEquals(List.of(1L, 3L), activity.getHelperIds());
+	}
+
+	@Test
+	void testIgnoresHelpersAboveLimit() {
+		HelpPostActivity activity = new HelpPostActivity();
+		for (int i = 0; i < HelpPostActivity.MAX_HELPERS; i++) {
+			assertTrue(activity.add(new HelpPostMessage(i, true, 10, 10), 1));
+		}
+		assertFalse(activity.add(new HelpPostMessage(-1, true, 10, 10), 1));
+		assertTrue(activity.add(new HelpPostMessage(0, true, 10, 10), 1));
+		assertEquals(HelpPostActivity.MAX_HELPERS, activity.getHelperIds().size());
+	}
+}
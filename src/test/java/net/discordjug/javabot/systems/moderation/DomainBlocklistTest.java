@@ -0,0 +1,33 @@
+package net.discordjug.javabot.systems.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link DomainBlocklist} class.
+ */
+class DomainBlocklistTest {
+	private final DomainBlocklist blocklist = DomainBlocklist.of(List.of("scam.example", "free-nitro.gift", " ", "Upper.Case"));
+
+	@Test
+	void testBlocksDomainAndSubdomains() {
+		assertTrue(blocklist.isBlocked("scam.example"));
+		assertTrue(blocklist.isBlocked("cdn.scam.example"));
+		assertTrue(blocklist.isBlocked("SCAM.example."));
+		assertTrue(blocklist.isBlocked("upper.case"));
+		assertFalse(blocklist.isBlocked("example"));
+		assertFalse(blocklist.isBlocked("notscam.example"));
+		assertFalse(blocklist.isBlocked(""));
+	}
+
+	@Test
+	void testAnyBlocked() {
+		assertTrue(blocklist.isAnyBlocked(List.of("github.com", "www.free-nitro.gift")));
+		assertFalse(blocklist.isAnyBlocked(List.of("github.com")));
+		assertFalse(blocklist.isAnyBlocked(List.of()));
+	}
+}
@@ -0,0 +1,75 @@
+package net.discordjug.javabot.systems.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link MessageContentScanner} class.
+ */
+class MessageContentScannerTest {
+	private static final Pattern INVITE_URL = Pattern.compile("discord(?:(\\.(?:me|io|gg)|sites\\.com)/.{0,4}|(?:app)?\\.com.{1,4}(?:invite|oauth2).{0,5}/)\\w+");
+
+	@Test
+	void testExtractsLinkHosts() {
+		assertEquals(List.of("free-nitro.gift"), hosts("claim here: https://free-nitro.gift/claim"));
+		assertEquals(List.of("www.scam.example"), hosts("<http://www.scam.example>"));
+		assertEquals(List.of("scam.example"), hosts("(HTTPS://user@scam.example:443/path)"));
+		assertEquals(List.of("github.com", "scam.example"), hosts("see https://github.com and https://scam.example"));
+		assertEquals(List.of("github.com"), hosts("https://github.com/scam.example"));
+		assertEquals(List.of(), hosts("ftp://scam.example"));
+		assertEquals(List.of(), hosts("xhttps://scam.example"));
+		assertEquals(List.of(), hosts("scam.example without a scheme"));
+	}
+
+	@Test
+	void testFindsInvites() {
+		assertEquals(List.of("discord.gg/java"), invites("join discord.gg/java"));
+		assertEquals(List.of("discord.gg/java"), invites("join d i s c o r d . g g / j a v a"));
+		assertEquals(List.of("discord.gg/java"), invites("join disc\u200Bord.gg/\u0000java"));
+		assertEquals(List.of("discordapp.com/invite/abc"), invites("https://discordapp.com/invite/abc"));
+		assertEquals(List.of("discord.com/oauth2/authorize"), invites("<https://discord.com/oauth2/authorize?client_id=1>"));
+		assertEquals(List.of(), invites("I like discord, see https://discord.com/channels/1/2"));
+		assertEquals(List.of(), invites("no invites here"));
+	}
+
+	@Test
+	void testInvitesMatchPreviousImplementation() {
+		String[] samples = {
+				"discord.gg/abc discord.io/def",
+				"ddiscord.me/x",
+				"discorddiscord.gg/xyz",
+				"discordsites.com/\n/abc",
+				"\uD83D\uDE00 discord.gg/\uD83D\uDE00abc\uE000x",
+				"discord.com/a/b/invite/xyz/abc",
+				"discordapp.com//oauth2?a=b/c",
+		};
+		for (String sample : samples) {
+			assertEquals(legacyInvites(sample), invites(sample), sample);
+		}
+	}
+
+	private static List<String> hosts(String content) {
+		return MessageContentScanner.scan(content).linkHosts();
+	}
+
+	private static List<String> invites(String content) {
+		return MessageContentScanner.scan(content).invites();
+	}
+
+	private static List<String> legacyInvites(String content) {
+		Matcher matcher = INVITE_URL.matcher(content.replaceAll("\\p{C}", "").replace(" ", ""));
+		List<String> invites = new ArrayList<>();
+		int start = 0;
+		while (matcher.find(start)) {
+			invites.add(matcher.group());
+			start = matcher.start() + 1;
+		}
+		return invites;
+	}
+}
@@ -0,0 +1,105 @@
+package net.discordjug.javabot.systems.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.discordjug.javabot.data.config.BotConfig;
+
+/**
+ * Tests for the {@link ScamLinkService} class. The list is never downloaded, as the periodic refresh is not run.
+ */
+class ScamLinkServiceTest {
+	@TempDir
+	Path configDir;
+
+	private final ScheduledThreadPoolExecutor asyncPool = new ScheduledThreadPoolExecutor(1) {
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+			return null;
+		}
+	};
+
+	@AfterEach
+	void cleanUp() {
+		asyncPool.shutdownNow();
+	}
+
+	private ScamLinkService createService() {
+		return new ScamLinkService(new BotConfig(configDir), asyncPool);
+	}
+
+	private Path getSnapshotFile() {
+		return configDir.resolve(ScamLinkService.SNAPSHOT_FILE_NAME);
+	}
+
+	@Test
+	void testLoadsSnapshot() throws IOException {
+		Files.writeString(getSnapshotFile(), "scam.example\nphishing.example\n");
+		DomainBlocklist blocklist = createService().getBlocklist();
+		assertEquals(2, blocklist.size());
+		assertTrue(blocklist.isBlocked("cdn.scam.example"));
+	}
+
+	@Test
+	void testLoadsBundledListWithoutSnapshot() throws IOException {
+		List<String> bundled;
+		try (InputStream is = getClass().getResourceAsStream("/spamLinks.txt")) {
+			bundled = new String(is.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+		}
+		DomainBlocklist blocklist = createService().getBlocklist();
+		assertEquals(DomainBlocklist.of(bundled).size(), blocklist.size());
+		assertTrue(blocklist.isBlocked(bundled.get(0)));
+		assertFalse(Files.exists(getSnapshotFile()));
+	}
+
+	@Test
+	void testRejectsShortDownload() throws IOException {
+		ScamLinkService service = createService();
+		DomainBlocklist previous = service.getBlocklist();
+		assertFalse(service.update(createList(ScamLinkService.MIN_ENTRIES - 1)));
+		assertSame(previous, service.getBlocklist());
+		assertFalse(Files.exists(getSnapshotFile()));
+	}
+
+	@Test
+	void testSavesDownloadAsSnapshot() throws IOException {
+		Files.writeString(getSnapshotFile(), "old.example\n");
+		ScamLinkService service = createService();
+		String content = createList(ScamLinkService.MIN_ENTRIES);
+		assertTrue(service.update(content));
+		assertEquals(ScamLinkService.MIN_ENTRIES, service.getBlocklist().size());
+		assertFalse(service.getBlocklist().isBlocked("old.example"));
+
+		assertEquals(content, Files.readString(getSnapshotFile()));
+		// the temporary file has been moved onto the snapshot
+		try (Stream<Path> files = Files.list(configDir)) {
+			assertEquals(List.of(), files.filter(file -> file.toString().endsWith(".tmp")).toList());
+		}
+		assertEquals(ScamLinkService.MIN_ENTRIES, createService().getBlocklist().size());
+	}
+
+	private String createList(int entries) {
+		return IntStream.range(0, entries)
+				.mapToObj(i -> "scam" + i + ".example")
+				.collect(Collectors.joining("\n"));
+	}
+}
@@ -0,0 +1,85 @@
+package net.discordjug.javabot.systems.moderation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link SpamDetector} class.
+ */
+class SpamDetectorTest {
+	private static final long GUILD = 1;
+	private static final long CHANNEL = 2;
+	private static final long AUTHOR = 3;
+	private static final long START = 1_700_000_000_000L;
+	private static final int MAX_MESSAGES = 5;
+	private static final long INTERVAL = 6_000;
+
+	private final SpamDetector detector = new SpamDetector();
+
+	private boolean send(long channelId, long authorId, long timestamp) {
+		return detector.recordAndCheck(GUILD, channelId, authorId, timestamp, MAX_MESSAGES, INTERVAL);
+	}
+
+	@Test
+	void testThresholdWithinInterval() {
+		// the first message and MAX_MESSAGES following messages are allowed
+		for (int i = 0; i <= MAX_MESSAGES; i++) {
+			assertFalse(send(CHANNEL, AUTHOR, START + i * 100L), "message " + i);
+		}
+		assertTrue(send(CHANNEL, AUTHOR, START + 1_000));
+		assertTrue(send(CHANNEL, AUTHOR, START + 1_100));
+	}
+
+	@Test
+	void testMessagesOutsideIntervalAreNotCounted() {
+		for (int i = 0; i <= MAX_MESSAGES; i++) {
+			assertFalse(send(CHANNEL, AUTHOR, START + i * 100L));
+		}
+		// the first message was sent exactly INTERVAL milliseconds before, so it has expired
+		assertFalse(send(CHANNEL, AUTHOR, START + INTERVAL));
+		// the second message is still within the interval
+		assertTrue(send(CHANNEL, AUTHOR, START + INTERVAL + 99));
+	}
+
+	@Test
+	void testOldMessagesExpire() {
+		for (int i = 0; i < 20; i++) {
+			// a message every 1.5 seconds stays below the threshold indefinitely
+			assertFalse(send(CHANNEL, AUTHOR, START + i * 1_500L), "message " + i);
+		}
+		for (int i = 0; i <= MAX_MESSAGES; i++) {
+			assertFalse(send(CHANNEL, AUTHOR, START + 60_000 + i * 10L));
+		}
+		assertTrue(send(CHANNEL, AUTHOR, START + 60_100));
+		// all messages of the burst are older than the interval
+		assertFalse(send(CHANNEL, AUTHOR, START + 60_100 + INTERVAL));
+	}
+
+	@Test
+	void testAuthorsAndChannelsAreIsolated() {
+		long otherAuthor = AUTHOR + 1;
+		long otherChannel = CHANNEL + 1;
+		for (int i = 0; i <= MAX_MESSAGES; i++) {
+			assertFalse(send(CHANNEL, AUTHOR, START + i));
+			assertFalse(send(CHANNEL, otherAuthor, START + i));
+			assertFalse(send(otherChannel, AUTHOR, START + i));
+		}
+		assertTrue(send(CHANNEL, AUTHOR, START + 10));
+		assertFalse(detector.recordAndCheck(GUILD + 1, CHANNEL, AUTHOR, START + 10, MAX_MESSAGES, INTERVAL));
+		assertTrue(send(CHANNEL, otherAuthor, START + 10));
+		assertTrue(send(otherChannel, AUTHOR, START + 10));
+	}
+
+	@Test
+	void testConfigurationChangeResetsWindow() {
+		for (int i = 0; i <= MAX_MESSAGES; i++) {
+			assertFalse(send(CHANNEL, AUTHOR, START + i));
+		}
+		assertFalse(detector.recordAndCheck(GUILD, CHANNEL, AUTHOR, START + 10, MAX_MESSAGES + 1, INTERVAL));
+		assertFalse(detector.recordAndCheck(GUILD, CHANNEL, AUTHOR, START + 11, 1, INTERVAL));
+		assertFalse(detector.recordAndCheck(GUILD, CHANNEL, AUTHOR, START + 12, 1, INTERVAL));
+		assertTrue(detector.recordAndCheck(GUILD, CHANNEL, AUTHOR, START + 13, 1, INTERVAL));
+	}
+}
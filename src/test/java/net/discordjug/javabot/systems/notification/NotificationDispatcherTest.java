@@ -0,0 +1,283 @@
+package net.discordjug.javabot.systems.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.systems.notification.NotificationDispatcher.Priority;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.exceptions.PermissionException;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+
+/**
+ * Tests for the {@link NotificationDispatcher} class.
+ * <p>
+ * Scheduled tasks are only run when the test calls {@link #runTasks()}, and requests are only completed
+ * when the test completes them, so the order of all messages is deterministic.
+ */
+class NotificationDispatcherTest {
+	private final Queue<Runnable> tasks = new ArrayDeque<>();
+	private final ManualScheduler scheduler = new ManualScheduler();
+	private final List<Request> requests = new ArrayList<>();
+	private final MessageChannel channel = createChannel(1);
+	private final NotificationDispatcher dispatcher = new NotificationDispatcher(scheduler);
+	/**
+	 * Whether creating messages through the channels fails, as if a permission had been removed.
+	 */
+	private boolean missingPermission;
+
+	@AfterEach
+	void cleanUp() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void testEmbedsAreMergedUpToTen() {
+		for (int i = 0; i < 12; i++) {
+			dispatchEmbed(channel, "embed " + i, Priority.INFORMATIONAL);
+		}
+		runTasks();
+		assertEquals(1, requests.size());
+		assertEquals(Message.MAX_EMBED_COUNT, requests.get(0).embeds().size());
+		assertEquals("embed 9", requests.get(0).embeds().get(9).getDescription());
+
+		complete(0);
+		assertEquals(2, requests.size());
+		assertEquals(List.of("embed 10", "embed 11"), requests.get(1).embeds().stream().map(MessageEmbed::getDescription).toList());
+		complete(1);
+		assertEquals(12, dispatcher.getDispatchedNotificationCount());
+		assertEquals(2, dispatcher.getSentMessageCount());
+		assertEquals(0, dispatcher.getQueueDepth(Priority.INFORMATIONAL));
+	}
+
+	@Test
+	void testEmbedsAreMergedUpToMaxLength() {
+		for (int i = 0; i < 3; i++) {
+			dispatchEmbed(channel, String.valueOf(i).repeat(2_500), Priority.INFORMATIONAL);
+		}
+		runTasks();
+		assertEquals(1, requests.size());
+		assertEquals(2, requests.get(0).embeds().size());
+		assertTrue(requests.get(0).embeds().stream().mapToInt(MessageEmbed::getLength).sum() <= MessageEmbed.EMBED_MAX_LENGTH_BOT);
+
+		complete(0);
+		assertEquals(2, requests.size());
+		assertEquals(1, requests.get(1).embeds().size());
+		assertEquals("2".repeat(2_500), requests.get(1).embeds().get(0).getDescription());
+	}
+
+	@Test
+	void testTextIsJoined() {
+		dispatchText(channel, "a", Priority.INFORMATIONAL);
+		dispatchText(channel, "b", Priority.INFORMATIONAL);
+		dispatchText(channel, "c", Priority.INFORMATIONAL);
+		dispatchText(channel, "d".repeat(1_500), Priority.INFORMATIONAL);
+		dispatchText(channel, "e".repeat(1_500), Priority.INFORMATIONAL);
+		runTasks();
+		assertEquals(1, requests.size());
+		assertEquals("a\nb\nc\n" + "d".repeat(1_500), requests.get(0).content());
+
+		complete(0);
+		assertEquals(2, requests.size());
+		assertEquals("e".repeat(1_500), requests.get(1).content());
+	}
+
+	@Test
+	void testTextAndEmbedsAreNotMixed() {
+		dispatchText(channel, "text", Priority.INFORMATIONAL);
+		dispatchEmbed(channel, "embed", Priority.INFORMATIONAL);
+		runTasks();
+		complete(0);
+		assertEquals(2, requests.size());
+		assertEquals("text", requests.get(0).content());
+		assertTrue(requests.get(0).embeds().isEmpty());
+		assertEquals("", requests.get(1).content());
+		assertEquals(1, requests.get(1).embeds().size());
+	}
+
+	@Test
+	void testModerationIsSentBeforeInformational() {
+		dispatchText(channel, "info 1", Priority.INFORMATIONAL);
+		dispatchText(channel, "info 2", Priority.INFORMATIONAL);
+		dispatchEmbed(channel, "alert", Priority.MODERATION);
+		assertEquals(2, dispatcher.getQueueDepth(Priority.INFORMATIONAL));
+		assertEquals(1, dispatcher.getQueueDepth(Priority.MODERATION));
+		runTasks();
+		assertEquals(1, requests.size());
+		assertEquals("alert", requests.get(0).embeds().get(0).getDescription());
+
+		// alerts arriving while a message is in flight overtake queued informational notifications
+		dispatchEmbed(channel, "second alert", Priority.MODERATION);
+		complete(0);
+		assertEquals("second alert", requests.get(1).embeds().get(0).getDescription());
+		complete(1);
+		assertEquals("info 1\ninfo 2", requests.get(2).content());
+		assertEquals(0, dispatcher.getQueueDepth(Priority.MODERATION));
+		assertEquals(0, dispatcher.getQueueDepth(Priority.INFORMATIONAL));
+	}
+
+	@Test
+	void testOnlyOneMessageInFlightPerChannel() {
+		MessageChannel otherChannel = createChannel(2);
+		dispatchText(channel, "first", Priority.MODERATION);
+		runTasks();
+		assertEquals(1, requests.size());
+
+		dispatchText(channel, "second", Priority.MODERATION);
+		dispatchText(otherChannel, "other channel", Priority.MODERATION);
+		runTasks();
+		// the other channel is not blocked by the message in flight
+		assertEquals(2, requests.size());
+		assertEquals("other channel", requests.get(1).content());
+
+		complete(0);
+		assertEquals(3, requests.size());
+		assertEquals("second", requests.get(2).content());
+	}
+
+	@Test
+	void testFailedBatchNotifiesEveryNotificationOnce() {
+		AtomicInteger failures = new AtomicInteger();
+		for (int i = 0; i < 3; i++) {
+			dispatcher.dispatch(channel, c -> createAction("text", List.of()), Priority.INFORMATIONAL, err -> failures.incrementAndGet());
+		}
+		dispatchText(channel, "x".repeat(Message.MAX_CONTENT_LENGTH), Priority.INFORMATIONAL);
+		runTasks();
+		assertEquals(1, requests.size());
+
+		requests.get(0).failure().accept(new IllegalStateException("Cannot send messages to this user"));
+		runTasks();
+		assertEquals(3, failures.get());
+		// the next notification is sent after the failed batch
+		assertEquals(2, requests.size());
+	}
+
+	@Test
+	void testFailureToCombineDoesNotLoseNotifications() {
+		missingPermission = true;
+		for (String content : List.of("a", "b", "c", "d")) {
+			dispatchText(channel, content, Priority.INFORMATIONAL);
+		}
+		runTasks();
+		assertEquals(1, requests.size());
+		assertEquals("a", requests.get(0).content());
+		assertEquals(3, dispatcher.getQueueDepth(Priority.INFORMATIONAL));
+
+		complete(0);
+		assertEquals("b", requests.get(1).content());
+		missingPermission = false;
+		complete(1);
+		assertEquals("c\nd", requests.get(2).content());
+		complete(2);
+		assertEquals(0, dispatcher.getQueueDepth(Priority.INFORMATIONAL));
+
+		// the channel is still flushed afterwards
+		dispatchText(channel, "e", Priority.INFORMATIONAL);
+		runTasks();
+		assertEquals(4, requests.size());
+		assertEquals("e", requests.get(3).content());
+	}
+
+	private void dispatchText(MessageChannel target, String content, Priority priority) {
+		dispatcher.dispatch(target, c -> createAction(content, List.of()), priority);
+	}
+
+	private void dispatchEmbed(MessageChannel target, String description, Priority priority) {
+		MessageEmbed embed = new EmbedBuilder().setDescription(description).build();
+		dispatcher.dispatch(target, c -> createAction("", List.of(embed)), priority);
+	}
+
+	private void complete(int request) {
+		requests.get(request).success().accept(null);
+		runTasks();
+	}
+
+	private void runTasks() {
+		for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+			task.run();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private MessageChannel createChannel(long id) {
+		return (MessageChannel) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {MessageChannel.class}, (proxy, method, args) -> switch (method.getName()) {
+			case "getIdLong" -> id;
+			case "getName" -> "channel-" + id;
+			case "sendMessage" -> {
+				checkPermission();
+				yield createAction(args[0].toString(), List.of());
+			}
+			case "sendMessageEmbeds" -> {
+				checkPermission();
+				yield createAction("", List.copyOf((Collection<MessageEmbed>) args[0]));
+			}
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "equals" -> proxy == args[0];
+			case "toString" -> "channel-" + id;
+			default -> throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	private void checkPermission() {
+		if (missingPermission) {
+			throw new PermissionException("Missing permission MESSAGE_SEND");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private MessageCreateAction createAction(String content, List<MessageEmbed> embeds) {
+		return (MessageCreateAction) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {MessageCreateAction.class}, (proxy, method, args) -> switch (method.getName()) {
+			case "getContent" -> content;
+			case "getEmbeds" -> embeds;
+			case "getAttachments", "getComponents" -> List.of();
+			case "queue" -> {
+				requests.add(new Request(content, embeds, (Consumer<Object>) args[0], (Consumer<Throwable>) args[1]));
+				yield null;
+			}
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "equals" -> proxy == args[0];
+			case "toString" -> "action: " + content;
+			default -> throw new UnsupportedOperationException(method.getName());
+		});
+	}
+
+	private record Request(String content, List<MessageEmbed> embeds, Consumer<Object> success, Consumer<Throwable> failure) {
+	}
+
+	/**
+	 * Collects all scheduled tasks instead of running them.
+	 */
+	private final class ManualScheduler extends ScheduledThreadPoolExecutor {
+		private ManualScheduler() {
+			super(1);
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			tasks.add(command);
+			return null;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+	}
+}
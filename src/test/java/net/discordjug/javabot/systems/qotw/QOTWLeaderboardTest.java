@@ -0,0 +1,90 @@
+package net.discordjug.javabot.systems.qotw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.systems.qotw.model.QOTWAccount;
+
+/**
+ * Tests for the {@link QOTWLeaderboard} class.
+ */
+class QOTWLeaderboardTest {
+
+	@Test
+	void testRanksWithTies() {
+		QOTWLeaderboard leaderboard = new QOTWLeaderboard(List.of(
+				createAccount(1, 1),
+				createAccount(2, 2),
+				createAccount(3, 2),
+				createAccount(4, 0)
+		));
+		assertEquals(1, leaderboard.getRank(2));
+		assertEquals(1, leaderboard.getRank(3));
+		assertEquals(3, leaderboard.getRank(1));
+		assertEquals(4, leaderboard.getRank(4));
+		assertEquals(-1, leaderboard.getRank(5));
+	}
+
+	@Test
+	void testAddMovesUser() {
+		QOTWLeaderboard leaderboard = new QOTWLeaderboard(List.of(createAccount(1, 2), createAccount(2, 1)));
+		assertEquals(3, leaderboard.add(2, 2));
+		assertEquals(1, leaderboard.add(3, 1));
+		assertEquals(1, leaderboard.getRank(2));
+		assertEquals(2, leaderboard.getRank(1));
+		assertEquals(3, leaderboard.getRank(3));
+		assertEquals(0, leaderboard.add(1, -2));
+		assertEquals(3, leaderboard.getRank(1));
+		assertEquals(0, leaderboard.getPoints(1));
+	}
+
+	@Test
+	void testTopAccountsOnlyContainPositivePoints() {
+		QOTWLeaderboard leaderboard = new QOTWLeaderboard(List.of(
+				createAccount(3, 1),
+				createAccount(1, 0),
+				createAccount(2, 1),
+				createAccount(4, 5)
+		));
+		assertEquals(List.of(createAccount(4, 5), createAccount(2, 1)), leaderboard.getTopAccounts(1, 2));
+		assertEquals(List.of(createAccount(3, 1)), leaderboard.getTopAccounts(2, 2));
+		assertEquals(List.of(), leaderboard.getTopAccounts(3, 2));
+	}
+
+	@Test
+	void testMatchesRecomputedRanking() {
+		Random random = new Random(42);
+		QOTWLeaderboard leaderboard = new QOTWLeaderboard(List.of());
+		Map<Long, Long> expected = new HashMap<>();
+		QOTWPointsService pointsService = new QOTWPointsService(null);
+		for (int i = 0; i < 2000; i++) {
+			long userId = random.nextInt(100) + 1L;
+			int delta = random.nextInt(4) - 1;
+			expected.merge(userId, (long) delta, Long::sum);
+			leaderboard.add(userId, delta);
+		}
+		List<QOTWAccount> sorted = new ArrayList<>();
+		expected.forEach((userId, points) -> sorted.add(createAccount(userId, points)));
+		sorted.sort((a, b) -> a.getPoints() != b.getPoints() ? Long.compare(b.getPoints(), a.getPoints()) : Long.compare(a.getUserId(), b.getUserId()));
+		for (QOTWAccount account : sorted) {
+			assertEquals(pointsService.getQOTWRank(account.getUserId(), sorted), leaderboard.getRank(account.getUserId()));
+			assertEquals(account.getPoints(), leaderboard.getPoints(account.getUserId()));
+		}
+		List<QOTWAccount> positive = sorted.stream().filter(account -> account.getPoints() > 0).toList();
+		assertEquals(positive, leaderboard.getTopAccounts(1, sorted.size()));
+	}
+
+	private QOTWAccount createAccount(long userId, long points) {
+		QOTWAccount account = new QOTWAccount();
+		account.setUserId(userId);
+		account.setPoints(points);
+		return account;
+	}
+}
@@ -0,0 +1,108 @@
+package net.discordjug.javabot.systems.qotw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import net.discordjug.javabot.data.h2db.DbHelper;
+import net.discordjug.javabot.systems.qotw.dao.QuestionPointsRepository;
+import net.discordjug.javabot.systems.qotw.model.QOTWAccount;
+
+/**
+ * Tests incrementing the QOTW points of multiple users at once.
+ */
+class QOTWPointsIncrementTest {
+	private HikariDataSource dataSource;
+	private JdbcTemplate template;
+	private QuestionPointsRepository repo;
+	private QOTWPointsService pointsService;
+
+	@BeforeEach
+	void setUp() throws IOException, SQLException {
+		dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url("jdbc:h2:mem:qotw-points")
+				.username("test")
+				.password("")
+				.build();
+
+		DbHelper.initializeSchema(dataSource);
+
+		template = new JdbcTemplate(dataSource);
+		repo = new QuestionPointsRepository(template);
+		pointsService = new QOTWPointsService(repo);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		dataSource.close();
+	}
+
+	/**
+	 * The batched MERGE adds to existing rows of the same date and inserts rows for new users.
+	 */
+	@Test
+	void testBatchedMerge() {
+		LocalDate today = LocalDate.now();
+		repo.addPointsAtDate(1, today, 3);
+		repo.addPointsAtDate(2, today.minusYears(1), 4);
+
+		repo.addPointsAtDate(Map.of(1L, 2L, 2L, 5L, 3L, -1L), today);
+
+		assertEquals(5, getPointsAt(1, today));
+		assertEquals(5, getPointsAt(2, today));
+		assertEquals(4, getPointsAt(2, today.minusYears(1)));
+		assertEquals(-1, getPointsAt(3, today));
+		assertEquals(3, template.queryForObject("SELECT COUNT(*) FROM qotw_points WHERE obtained_at = ?", Long.class, today));
+	}
+
+	/**
+	 * The returned totals only contain points of the current month, like the leaderboard.
+	 */
+	@Test
+	void testIncrementAllReturnsMonthlyTotals() {
+		LocalDate month = QOTWPointsService.getCurrentMonth();
+		repo.addPointsAtDate(1, LocalDate.now(), 3);
+		repo.addPointsAtDate(2, month.minusDays(1), 10);
+
+		Map<Long, Long> totals = pointsService.incrementAll(Map.of(1L, 1L, 2L, 2L, 3L, 1L));
+
+		assertEquals(Map.of(1L, 4L, 2L, 2L, 3L, 1L), totals);
+		for (Map.Entry<Long, Long> total : totals.entrySet()) {
+			assertEquals(total.getValue(), pointsService.getPoints(total.getKey()));
+			assertEquals(total.getValue(), repo.getByUserId(total.getKey(), month).orElseThrow().getPoints());
+		}
+	}
+
+	/**
+	 * Changes are applied to a leaderboard which has been loaded before.
+	 */
+	@Test
+	void testIncrementAllUpdatesLoadedLeaderboard() {
+		repo.addPointsAtDate(1, LocalDate.now(), 1);
+		assertEquals(1, pointsService.getQOTWRank(1));
+
+		assertEquals(Map.of(2L, 3L), pointsService.incrementAll(Map.of(2L, 3L)));
+
+		assertEquals(List.of(2L, 1L), pointsService.getTopAccounts(10, 1).stream().map(QOTWAccount::getUserId).toList());
+		assertEquals(2, pointsService.getQOTWRank(1));
+		assertEquals(Map.of(1L, 0L), pointsService.incrementAll(Map.of(1L, -1L)));
+		assertEquals(0, repo.getByUserId(1, QOTWPointsService.getCurrentMonth()).orElseThrow().getPoints());
+	}
+
+	private long getPointsAt(long userId, LocalDate date) {
+		return template.queryForObject("SELECT points FROM qotw_points WHERE user_id = ? AND obtained_at = ?", Long.class, userId, date);
+	}
+}
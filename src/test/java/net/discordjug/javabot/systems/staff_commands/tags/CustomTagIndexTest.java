@@ -0,0 +1,74 @@
+package net.discordjug.javabot.systems.staff_commands.tags;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.systems.staff_commands.tags.model.CustomTag;
+
+/**
+ * Tests for the {@link CustomTagIndex} class.
+ */
+class CustomTagIndexTest {
+	private final CustomTagIndex index = new CustomTagIndex(List.of(
+			createTag(1, "records", "Records are immutable data classes."),
+			createTag(2, "recursion", "See recursion."),
+			createTag(3, "null-pointer", "A NullPointerException is thrown when dereferencing null."),
+			createTag(4, "ask", "Don't ask to ask, just ask.")
+	));
+
+	private static CustomTag createTag(long id, String name, String response) {
+		CustomTag tag = new CustomTag();
+		tag.setId(id);
+		tag.setName(name);
+		tag.setResponse(response);
+		return tag;
+	}
+
+	private static List<String> names(List<CustomTag> tags) {
+		return tags.stream().map(CustomTag::getName).toList();
+	}
+
+	@Test
+	void testGetByName() {
+		assertEquals(2, index.getByName("Recursion").orElseThrow().getId());
+		assertTrue(index.getByName("recursio").isEmpty());
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	void testAutocomplete() {
+		assertEquals(List.of("records", "recursion"), names(index.autocomplete("rec", 25)));
+		assertEquals(List.of("records"), names(index.autocomplete("rec", 1)));
+		// tags containing the text come after the tags starting with it
+		assertEquals(List.of("null-pointer", "recursion"), names(index.autocomplete("u", 25)));
+		assertEquals(List.of("null-pointer"), names(index.autocomplete("point", 25)));
+		assertEquals(4, index.autocomplete("", 25).size());
+	}
+
+	@Test
+	void testSearch() {
+		assertEquals(List.of("records"), names(index.search("ImmUtable data")));
+		assertEquals(List.of("records"), names(index.search("dat")));
+		assertEquals(List.of("null-pointer", "records", "recursion"), names(index.search("re")));
+		assertEquals(List.of("ask"), names(index.search("just ask")));
+		assertTrue(index.search("not contained").isEmpty());
+	}
+
+	@Test
+	void testEditsUpdateIndexInPlace() {
+		index.put(createTag(2, "recursion", "A method calling itself."));
+		assertEquals(List.of("recursion"), names(index.search("itself")));
+		assertTrue(index.search("see recursion").isEmpty());
+		index.put(createTag(5, "streams", "Streams process data lazily."));
+		assertEquals(List.of("records", "streams"), names(index.search("data")));
+		index.remove(createTag(1, "records", ""));
+		assertEquals(List.of("streams"), names(index.search("data")));
+		assertEquals(List.of("recursion"), names(index.autocomplete("rec", 25)));
+		assertTrue(index.getByName("records").isEmpty());
+		assertEquals(4, index.size());
+	}
+}
@@ -0,0 +1,176 @@
+package net.discordjug.javabot.systems.starboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import net.discordjug.javabot.data.config.GuildConfig;
+import net.discordjug.javabot.data.config.guild.StarboardConfig;
+import net.discordjug.javabot.systems.starboard.dao.StarboardRepository;
+import net.discordjug.javabot.systems.starboard.model.StarboardEntry;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
+import net.dv8tion.jda.api.requests.restaction.MessageEditAction;
+
+/**
+ * Simulates a burst of star reactions and counts the requests made by the {@link ReactionCoalescer},
+ * the {@link StarboardManager} and the {@link StarboardIndex}.
+ * The JDA entities are stubs which count the requests made through them.
+ */
+class StarboardReactionStormTest {
+	private static final int MESSAGES = 20;
+	private static final int REACTIONS = 5_000;
+
+	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+	private final AtomicInteger databaseQueries = new AtomicInteger();
+	private final AtomicInteger restRequests = new AtomicInteger();
+	private final AtomicIntegerArray stars = new AtomicIntegerArray(MESSAGES);
+
+	private final StarboardIndex starboardIndex = new StarboardIndex(new StarboardRepository(null) {
+		@Override
+		public Optional<StarboardEntry> getEntryByMessageId(long messageId) {
+			databaseQueries.incrementAndGet();
+			StarboardEntry entry = new StarboardEntry();
+			entry.setOriginalMessageId(messageId);
+			entry.setStarboardMessageId(messageId + 1_000);
+			return Optional.of(entry);
+		}
+	});
+
+	private final StarboardManager starboardManager = new StarboardManager(null, scheduler, starboardIndex);
+	private final TextChannel starboardChannel = stub(TextChannel.class, (method, args) -> switch (method) {
+		case "editMessageById" -> {
+			restRequests.incrementAndGet();
+			yield stub(MessageEditAction.class, (m, a) -> CompletableFuture.completedFuture(null));
+		}
+		default -> throw new UnsupportedOperationException(method);
+	});
+	private final MessageChannelUnion channel = stub(MessageChannelUnion.class, (method, args) -> switch (method) {
+		case "getAsMention" -> "<#2>";
+		default -> throw new UnsupportedOperationException(method);
+	});
+	private final StarboardConfig config = createConfig();
+
+	@AfterEach
+	void tearDown() {
+		scheduler.shutdownNow();
+	}
+
+	private StarboardConfig createConfig() {
+		Guild guild = stub(Guild.class, (method, args) -> switch (method) {
+			case "getTextChannelById" -> starboardChannel;
+			default -> throw new UnsupportedOperationException(method);
+		});
+		StarboardConfig starboardConfig = new GuildConfig(guild, null).getStarboardConfig();
+		starboardConfig.setStarboardChannelId(1);
+		starboardConfig.setReactionThreshold(3);
+		starboardConfig.setEmojiUnicodes(List.of("\u2B50", "\uD83C\uDF1F", "\uD83D\uDCAB"));
+		return starboardConfig;
+	}
+
+	/**
+	 * Counts the request fetching the message and its reactions, and updates its starboard message
+	 * with {@link StarboardManager#updateStars(Message, int, StarboardConfig)}.
+	 */
+	private CompletableFuture<Void> updateStars(int messageId, MessageChannel messageChannel) {
+		restRequests.incrementAndGet();
+		Message message = stub(Message.class, (method, args) -> switch (method) {
+			case "getIdLong" -> (long) messageId;
+			case "getChannel" -> channel;
+			default -> throw new UnsupportedOperationException(method);
+		});
+		return starboardManager.updateStars(message, stars.get(messageId), config);
+	}
+
+	/**
+	 * Creates a stub of a JDA interface.
+	 *
+	 * @param type    The interface.
+	 * @param methods Returns the result of a method call, given the name of the method and its arguments.
+	 * @param <T>     The type of the interface.
+	 * @return The stub.
+	 */
+	private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> methods) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> switch (method.getName()) {
+			case "equals" -> proxy == args[0];
+			case "hashCode" -> System.identityHashCode(proxy);
+			case "toString" -> type.getSimpleName();
+			default -> methods.apply(method.getName(), args);
+		}));
+	}
+
+	@Test
+	void testReactionStorm() throws Exception {
+		ReactionCoalescer<Integer, MessageChannel> coalescer = new ReactionCoalescer<>(scheduler, 200, this::updateStars);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> reactions = new ArrayList<>();
+			for (int i = 0; i < REACTIONS; i++) {
+				reactions.add(executor.submit(() -> {
+					int messageId = ThreadLocalRandom.current().nextInt(MESSAGES);
+					stars.incrementAndGet(messageId);
+					coalescer.submit(messageId, channel);
+				}));
+			}
+			for (Future<?> reaction : reactions) {
+				reaction.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (coalescer.getPendingCount() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, coalescer.getPendingCount());
+		for (int i = 0; i < MESSAGES; i++) {
+			assertEquals(stars.get(i), starboardIndex.get(i).orElseThrow().stars(), "stars of message " + i);
+		}
+		assertEquals(MESSAGES, databaseQueries.get());
+		// without coalescing, every reaction fetched the message, queried the database twice and edited the starboard
+		double requestsPerReaction = (restRequests.get() + databaseQueries.get()) / (double) REACTIONS;
+		assertTrue(requestsPerReaction < 0.05, "requests per reaction: " + requestsPerReaction);
+	}
+
+	@Test
+	void testEventsDuringUpdateAreNotLost() throws Exception {
+		AtomicInteger updates = new AtomicInteger();
+		CompletableFuture<Void> firstUpdate = new CompletableFuture<>();
+		ReactionCoalescer<Integer, String> coalescer = new ReactionCoalescer<>(scheduler, 10,
+				(id, channel) -> updates.incrementAndGet() == 1 ? firstUpdate : CompletableFuture.completedFuture(null));
+		coalescer.submit(1, "channel");
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (updates.get() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		coalescer.submit(1, "channel");
+		coalescer.submit(1, "channel");
+		Thread.sleep(50);
+		assertEquals(1, updates.get());
+		firstUpdate.complete(null);
+		while (coalescer.getPendingCount() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(2, updates.get());
+	}
+}
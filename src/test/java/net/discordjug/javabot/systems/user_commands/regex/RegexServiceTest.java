@@ -0,0 +1,84 @@
+package net.discordjug.javabot.systems.user_commands.regex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link RegexService} class.
+ */
+class RegexServiceTest {
+	/**
+	 * The maximum time a single pathological pattern may take.
+	 */
+	private static final Duration MAX_LATENCY = Duration.ofSeconds(2);
+
+	private final RegexService regexService = new RegexService();
+
+	@Test
+	void testUsesLinearEngineIfPossible() {
+		CompiledRegex regex = regexService.compile("(a+)+$");
+		assertTrue(regex.isLinearTime());
+		assertTrue(regex.matches("aaaa"));
+		assertFalse(regex.matches("aaab"));
+	}
+
+	@Test
+	void testFallsBackForUnsupportedConstructs() {
+		CompiledRegex backreference = regexService.compile("(a|b)\\1");
+		assertFalse(backreference.isLinearTime());
+		assertTrue(backreference.matches("aa"));
+		assertFalse(backreference.matches("ab"));
+		CompiledRegex lookahead = regexService.compile("a(?=b)b");
+		assertFalse(lookahead.isLinearTime());
+		assertTrue(lookahead.matches("ab"));
+	}
+
+	@Test
+	void testRejectsInvalidPatterns() {
+		assertThrows(PatternSyntaxException.class, () -> regexService.compile("(a"));
+		assertThrows(PatternSyntaxException.class, () -> regexService.compile("a(?=b"));
+	}
+
+	@Test
+	void testPathologicalPatternsWithLinearEngine() {
+		String input = "a".repeat(1000) + "b";
+		for (String pattern : new String[] {"(a+)+$", "(a|aa)+", "(a|a?)+", "(.*a){20}", "(\\w+\\s?)*$"}) {
+			CompiledRegex regex = regexService.compile(pattern);
+			assertTrue(regex.isLinearTime());
+			assertTimeoutPreemptively(MAX_LATENCY, () -> regex.matches(input), pattern);
+		}
+	}
+
+	@Test
+	void testPathologicalPatternsWithFallbackAreAborted() {
+		// java.util.regex avoids most exponential backtracking unless the pattern contains backreferences
+		String input = "a".repeat(100) + "b";
+		for (String pattern : new String[] {"(a+)+\\1c", "(a*)*\\1c", "(a|a)*\\1c", "(\\w+\\s?)*\\1c"}) {
+			CompiledRegex regex = regexService.compile(pattern);
+			assertFalse(regex.isLinearTime());
+			assertTimeoutPreemptively(MAX_LATENCY, () -> {
+				assertThrows(RegexTimeoutException.class, () -> regex.matches(input), pattern);
+			}, pattern);
+		}
+	}
+
+	@Test
+	void testCachesRecentPatternsPerUser() {
+		CompiledRegex regex = regexService.compile(1, "a+b");
+		assertSame(regex, regexService.compile(1, "a+b"));
+		assertNotSame(regex, regexService.compile(2, "a+b"));
+		for (int i = 0; i < 16; i++) {
+			regexService.compile(1, "a{" + i + "}");
+		}
+		assertNotSame(regex, regexService.compile(1, "a+b"));
+	}
+}